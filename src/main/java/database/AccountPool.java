@@ -0,0 +1,155 @@
+package database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static database.SqlParameter.integer;
+import static database.SqlParameter.longValue;
+import static database.SqlParameter.string;
+
+/**
+ * Database-backed pool of registered, confirmed accounts shared by all test JVMs and CI runs.
+ * A lease claims one free row with {@code UPDLOCK, READPAST}, so concurrent callers skip rows that are
+ * being claimed instead of waiting for them, and never receive the same account. Leases expire, so
+ * accounts of a crashed run become available again after the lease time.
+ */
+public final class AccountPool {
+
+    @FunctionalInterface
+    public interface AccountSupplier {
+        List<Credentials> createAccounts(AccountRole role, int count) throws SQLException;
+    }
+
+    public static final class Credentials {
+        private final String email;
+        private final String password;
+
+        public Credentials(String email, String password) {
+            this.email = email;
+            this.password = password;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+    }
+
+    private static final Logger logger = LogManager.getLogger(AccountPool.class);
+
+    private static final String CREATE_TABLE = "IF OBJECT_ID('test_account_pool', 'U') IS NULL "
+            + "CREATE TABLE test_account_pool ("
+            + "id BIGINT IDENTITY(1,1) PRIMARY KEY, "
+            + "email NVARCHAR(255) NOT NULL UNIQUE, "
+            + "password NVARCHAR(255) NOT NULL, "
+            + "role NVARCHAR(50) NOT NULL, "
+            + "leased_by NVARCHAR(64) NULL, "
+            + "leased_until DATETIME2 NULL, "
+            + "lease_count INT NOT NULL DEFAULT 0)";
+
+    private static final String CREATE_TABLE_H2 = "CREATE TABLE IF NOT EXISTS test_account_pool ("
+            + "id BIGINT IDENTITY(1,1) PRIMARY KEY, "
+            + "email NVARCHAR(255) NOT NULL UNIQUE, "
+            + "password NVARCHAR(255) NOT NULL, "
+            + "role NVARCHAR(50) NOT NULL, "
+            + "leased_by NVARCHAR(64) NULL, "
+            + "leased_until DATETIME2 NULL, "
+            + "lease_count INT NOT NULL DEFAULT 0)";
+
+    private static final String LEASE = "UPDATE TOP (1) test_account_pool WITH (UPDLOCK, READPAST, ROWLOCK) "
+            + "SET leased_by = ?, leased_until = DATEADD(SECOND, ?, SYSUTCDATETIME()), lease_count = lease_count + 1 "
+            + "OUTPUT inserted.id, inserted.email, inserted.password "
+            + "WHERE role = ? AND (leased_by IS NULL OR leased_until < SYSUTCDATETIME())";
+
+    private static final String LEASE_H2 = "SELECT id, email, password FROM FINAL TABLE (UPDATE test_account_pool "
+            + "SET leased_by = ?, leased_until = DATEADD(SECOND, ?, LOCALTIMESTAMP), lease_count = lease_count + 1 "
+            + "WHERE (leased_by IS NULL OR leased_until < LOCALTIMESTAMP) AND id = (SELECT MIN(id) FROM test_account_pool "
+            + "WHERE role = ? AND (leased_by IS NULL OR leased_until < LOCALTIMESTAMP)))";
+
+    private static final String RELEASE = "UPDATE test_account_pool SET leased_by = NULL, leased_until = NULL WHERE id = ? AND leased_by = ?";
+
+    private static final String REGISTER = "INSERT INTO test_account_pool (email, password, role) VALUES (?, ?, ?)";
+
+    private static final String COUNT_AVAILABLE = "SELECT COUNT(id) AS account_count FROM test_account_pool "
+            + "WHERE role = ? AND (leased_by IS NULL OR leased_until < SYSUTCDATETIME())";
+
+    private static final String COUNT_AVAILABLE_H2 = "SELECT COUNT(id) AS account_count FROM test_account_pool "
+            + "WHERE role = ? AND (leased_by IS NULL OR leased_until < LOCALTIMESTAMP)";
+
+    private final QueryExecutor queryExecutor;
+    private final BulkInserter bulkInserter;
+    private final Duration leaseDuration;
+    private final int replenishBatchSize;
+    private final AccountSupplier accountSupplier;
+    private final Map<AccountRole, Object> replenishLocks = new EnumMap<>(AccountRole.class);
+
+    public AccountPool(QueryExecutor queryExecutor, BulkInserter bulkInserter, Duration leaseDuration, int replenishBatchSize, AccountSupplier accountSupplier) {
+        this.queryExecutor = queryExecutor;
+        this.bulkInserter = bulkInserter;
+        this.leaseDuration = leaseDuration;
+        this.replenishBatchSize = replenishBatchSize;
+        this.accountSupplier = accountSupplier;
+        for (AccountRole role : AccountRole.values()) {
+            replenishLocks.put(role, new Object());
+        }
+    }
+
+    public void createTableIfMissing() throws SQLException {
+        queryExecutor.update(queryExecutor.getDialect().sql(CREATE_TABLE, CREATE_TABLE_H2));
+    }
+
+    public LeasedAccount lease(AccountRole role) throws SQLException {
+        Optional<LeasedAccount> account = tryLease(role);
+        if (account.isPresent()) {
+            return account.get();
+        }
+        synchronized (replenishLocks.get(role)) {
+            account = tryLease(role);
+            if (account.isPresent()) {
+                return account.get();
+            }
+            logger.info("No free {} accounts in the pool, registering {} new ones.", role, replenishBatchSize);
+            register(role, accountSupplier.createAccounts(role, replenishBatchSize));
+        }
+        return tryLease(role).orElseThrow(() -> new SQLException("Unable to lease a " + role + " account after replenishing the pool."));
+    }
+
+    public void register(AccountRole role, List<Credentials> accounts) throws SQLException {
+        bulkInserter.insertBatched("test_account_pool", REGISTER, accounts.stream(),
+                credentials -> new SqlParameter[]{string(credentials.getEmail()), string(credentials.getPassword()), string(role.getDatabaseRole())});
+    }
+
+    public int countAvailableAccounts(AccountRole role) throws SQLException {
+        return queryExecutor.queryForOptional(queryExecutor.getDialect().sql(COUNT_AVAILABLE, COUNT_AVAILABLE_H2), rs -> rs.getInt("account_count"), string(role.getDatabaseRole())).orElse(0);
+    }
+
+    void release(LeasedAccount account) {
+        try {
+            queryExecutor.update(RELEASE, longValue(account.getId()), string(account.getLeaseId()));
+        } catch (SQLException ex) {
+            logger.warn("Failed to release account {} of lease {}, it stays leased until the lease expires: {}", account.getId(), account.getLeaseId(), ex.toString());
+        }
+    }
+
+    /**
+     * Claims one free account. Runs without retries: if the connection fails after the lease has been
+     * committed, a retry would claim a second account and leave the first one leased until it expires.
+     */
+    private Optional<LeasedAccount> tryLease(AccountRole role) throws SQLException {
+        String leaseId = UUID.randomUUID().toString();
+        return queryExecutor.executeOnce(connection -> QueryExecutor.queryForOptional(connection, queryExecutor.getDialect().sql(LEASE, LEASE_H2),
+                rs -> new LeasedAccount(this, rs.getLong("id"), rs.getString("email"), rs.getString("password"), role, leaseId),
+                string(leaseId), integer((int) leaseDuration.getSeconds()), string(role.getDatabaseRole())));
+    }
+}
@@ -0,0 +1,18 @@
+package database;
+
+public enum AccountRole {
+
+    VOLUNTEER("ROLE_VOLUNTEER"),
+    PARTNER("ROLE_PARTNER"),
+    NGO("ROLE_NGO");
+
+    private final String databaseRole;
+
+    AccountRole(String databaseRole) {
+        this.databaseRole = databaseRole;
+    }
+
+    public String getDatabaseRole() {
+        return databaseRole;
+    }
+}
@@ -0,0 +1,52 @@
+package database;
+
+import java.sql.Types;
+
+public final class BulkColumn {
+
+    private final String name;
+    private final int sqlType;
+    private final int precision;
+
+    private BulkColumn(String name, int sqlType, int precision) {
+        this.name = name;
+        this.sqlType = sqlType;
+        this.precision = precision;
+    }
+
+    public static BulkColumn nvarchar(String name, int length) {
+        return new BulkColumn(name, Types.NVARCHAR, length);
+    }
+
+    public static BulkColumn integer(String name) {
+        return new BulkColumn(name, Types.INTEGER, 10);
+    }
+
+    public static BulkColumn bigint(String name) {
+        return new BulkColumn(name, Types.BIGINT, 19);
+    }
+
+    public static BulkColumn bit(String name) {
+        return new BulkColumn(name, Types.BIT, 1);
+    }
+
+    public static BulkColumn timestamp(String name) {
+        return new BulkColumn(name, Types.TIMESTAMP, 23);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSqlType() {
+        return sqlType;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int getScale() {
+        return sqlType == Types.TIMESTAMP ? 3 : 0;
+    }
+}
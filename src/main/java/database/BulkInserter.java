@@ -0,0 +1,290 @@
+package database;
+
+import com.microsoft.sqlserver.jdbc.ISQLServerBulkData;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopy;
+import com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions;
+import com.microsoft.sqlserver.jdbc.SQLServerConnection;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Streams large amounts of rows into a table. On SQL Server plain column inserts go through
+ * {@link SQLServerBulkCopy}; on any other database, or when bulk copy is disabled, rows are sent as
+ * batched prepared inserts committed once per batch. Rows are pulled from the stream lazily,
+ * so memory use does not depend on the number of rows.
+ */
+public final class BulkInserter {
+
+    public enum Strategy {
+        AUTO, BULK_COPY, BATCH
+    }
+
+    private static final Logger logger = LogManager.getLogger(BulkInserter.class);
+
+    /**
+     * Stays below the limit of 2100 parameters per statement of SQL Server.
+     */
+    private static final int MAX_PARAMETERS = 2000;
+
+    private final QueryExecutor queryExecutor;
+    private final Strategy strategy;
+    private final int batchSize;
+
+    public BulkInserter(QueryExecutor queryExecutor, Strategy strategy, int batchSize) {
+        this.queryExecutor = queryExecutor;
+        this.strategy = strategy;
+        this.batchSize = batchSize;
+    }
+
+    public <T> SeedingReport insert(String table, List<BulkColumn> columns, Stream<T> items, Function<T, Object[]> rowMapper) throws SQLException {
+        return queryExecutor.executeOnce(pooledConnection -> {
+            Connection connection = pooledConnection.getConnection();
+            Iterator<Object[]> rows = items.map(rowMapper).iterator();
+            long start = System.nanoTime();
+            boolean useBulkCopy = strategy != Strategy.BATCH && connection.isWrapperFor(SQLServerConnection.class);
+            if (strategy == Strategy.BULK_COPY && !useBulkCopy) {
+                logger.warn("Bulk copy is not supported by {}, falling back to batched inserts.", connection.getMetaData().getDatabaseProductName());
+            }
+            long count = useBulkCopy
+                    ? bulkCopy(connection, table, columns, rows)
+                    : batchInsert(pooledConnection, insertStatement(table, columns), rows, row -> toParameters(columns, row));
+            SeedingReport report = new SeedingReport(table, useBulkCopy ? "bulk copy" : "batched inserts", count, elapsedMillis(start));
+            logger.info("Seeded {}", report);
+            return report;
+        });
+    }
+
+    public <T> SeedingReport insertBatched(String table, String sql, Stream<T> items, Function<T, SqlParameter[]> binder) throws SQLException {
+        return queryExecutor.executeOnce(pooledConnection -> {
+            long start = System.nanoTime();
+            long count = batchInsert(pooledConnection, sql, items.iterator(), binder);
+            SeedingReport report = new SeedingReport(table, "batched inserts", count, elapsedMillis(start));
+            logger.info("Seeded {}", report);
+            return report;
+        });
+    }
+
+    /**
+     * Inserts the rows with multi-row statements and returns the generated {@code id} of every row, in the order
+     * of the items, e.g. to link users to the organizations inserted for them. On SQL Server a {@code MERGE} that
+     * never matches outputs the position of each source row with its id; H2 assigns the ids in the order of the
+     * {@code VALUES} list.
+     */
+    public <T> List<Long> insertReturningIds(String table, List<BulkColumn> columns, List<T> items, Function<T, Object[]> rowMapper) throws SQLException {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return queryExecutor.executeOnce(pooledConnection -> {
+            Connection connection = pooledConnection.getConnection();
+            int rowsPerStatement = Math.max(1, Math.min(batchSize, MAX_PARAMETERS / (columns.size() + 1)));
+            Long[] ids = new Long[items.size()];
+            long start = System.nanoTime();
+            connection.setAutoCommit(false);
+            try {
+                for (int offset = 0; offset < items.size(); offset += rowsPerStatement) {
+                    List<T> chunk = items.subList(offset, Math.min(items.size(), offset + rowsPerStatement));
+                    List<SqlParameter> parameters = new ArrayList<>();
+                    for (int i = 0; i < chunk.size(); i++) {
+                        parameters.addAll(Arrays.asList(toParameters(columns, rowMapper.apply(chunk.get(i)))));
+                        if (queryExecutor.getDialect() != SqlDialect.H2) {
+                            parameters.add(SqlParameter.integer(offset + i));
+                        }
+                    }
+                    List<long[]> generated = QueryExecutor.queryForList(pooledConnection, insertReturningIdsStatement(table, columns, chunk.size()),
+                            rs -> new long[]{rs.getLong("row_index"), rs.getLong("id")}, parameters.toArray(new SqlParameter[0]));
+                    if (generated.size() != chunk.size()) {
+                        throw new SQLException("Inserted " + chunk.size() + " rows into " + table + ", but got " + generated.size() + " generated ids.");
+                    }
+                    for (long[] row : generated) {
+                        ids[queryExecutor.getDialect() == SqlDialect.H2 ? offset + (int) row[0] : (int) row[0]] = row[1];
+                    }
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            logger.info("Seeded {}", new SeedingReport(table, "multi-row inserts", ids.length, elapsedMillis(start)));
+            return Arrays.asList(ids);
+        });
+    }
+
+    private long bulkCopy(Connection connection, String table, List<BulkColumn> columns, Iterator<Object[]> rows) throws SQLException {
+        StreamBulkData bulkData = new StreamBulkData(columns, rows);
+        try (SQLServerBulkCopy bulkCopy = new SQLServerBulkCopy(connection.unwrap(SQLServerConnection.class))) {
+            SQLServerBulkCopyOptions options = new SQLServerBulkCopyOptions();
+            options.setBatchSize(batchSize);
+            options.setBulkCopyTimeout(0);
+            options.setCheckConstraints(true);
+            bulkCopy.setBulkCopyOptions(options);
+            bulkCopy.setDestinationTableName(table);
+            for (BulkColumn column : columns) {
+                bulkCopy.addColumnMapping(column.getName(), column.getName());
+            }
+            long start = System.nanoTime();
+            try {
+                bulkCopy.writeToServer(bulkData);
+            } finally {
+                QueryStatistics.record("BULK INSERT " + table, System.nanoTime() - start, bulkData.getRowCount());
+            }
+        }
+        return bulkData.getRowCount();
+    }
+
+    /**
+     * Returns the number of rows inserted, as reported by the database, e.g. fewer than the items when an
+     * {@code INSERT ... SELECT} finds nothing to insert for some of them.
+     */
+    private <T> long batchInsert(PooledConnection pooledConnection, String sql, Iterator<T> items, Function<T, SqlParameter[]> binder) throws SQLException {
+        Connection connection = pooledConnection.getConnection();
+        connection.setAutoCommit(false);
+        long count = 0;
+        long inserted = 0;
+        try {
+            PreparedStatement statement = pooledConnection.prepareCached(sql);
+            while (items.hasNext()) {
+                SqlParameter.bindAll(statement, binder.apply(items.next()));
+                statement.addBatch();
+                if (++count % batchSize == 0) {
+                    inserted += executeBatch(statement, sql, batchSize);
+                    connection.commit();
+                }
+            }
+            if (count % batchSize != 0) {
+                inserted += executeBatch(statement, sql, count % batchSize);
+                connection.commit();
+            }
+        } catch (SQLException | RuntimeException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        return inserted;
+    }
+
+    /**
+     * Returns the sum of the update counts; a statement that succeeded without a count counts as one row.
+     */
+    private static long executeBatch(PreparedStatement statement, String sql, long rows) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            long updated = 0;
+            for (int updateCount : statement.executeBatch()) {
+                updated += updateCount == Statement.SUCCESS_NO_INFO ? 1 : updateCount;
+            }
+            return updated;
+        } finally {
+            QueryStatistics.record(sql, System.nanoTime() - start, rows);
+        }
+    }
+
+    private static String insertStatement(String table, List<BulkColumn> columns) {
+        return "INSERT INTO " + table + " ("
+                + columns.stream().map(BulkColumn::getName).collect(Collectors.joining(", "))
+                + ") VALUES ("
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", "))
+                + ")";
+    }
+
+    private String insertReturningIdsStatement(String table, List<BulkColumn> columns, int rows) {
+        String columnList = columns.stream().map(BulkColumn::getName).collect(Collectors.joining(", "));
+        String placeholders = columns.stream().map(column -> "?").collect(Collectors.joining(", "));
+        if (queryExecutor.getDialect() == SqlDialect.H2) {
+            return "SELECT ROW_NUMBER() OVER (ORDER BY id) - 1 AS row_index, id FROM FINAL TABLE (INSERT INTO " + table + " (" + columnList + ") VALUES "
+                    + String.join(", ", Collections.nCopies(rows, "(" + placeholders + ")")) + ")";
+        }
+        return "MERGE INTO " + table + " USING (VALUES "
+                + String.join(", ", Collections.nCopies(rows, "(" + placeholders + ", ?)"))
+                + ") AS source (" + columnList + ", row_index) ON 1 = 0 WHEN NOT MATCHED THEN INSERT (" + columnList + ") VALUES ("
+                + columns.stream().map(column -> "source." + column.getName()).collect(Collectors.joining(", "))
+                + ") OUTPUT source.row_index, inserted.id;";
+    }
+
+    private static SqlParameter[] toParameters(List<BulkColumn> columns, Object[] row) {
+        SqlParameter[] parameters = new SqlParameter[columns.size()];
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = SqlParameter.typed(row[i], columns.get(i).getSqlType());
+        }
+        return parameters;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static final class StreamBulkData implements ISQLServerBulkData {
+
+        private final List<BulkColumn> columns;
+        private final transient Iterator<Object[]> rows;
+        private Object[] currentRow;
+        private long rowCount;
+
+        private StreamBulkData(List<BulkColumn> columns, Iterator<Object[]> rows) {
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        @Override
+        public Set<Integer> getColumnOrdinals() {
+            return IntStream.rangeClosed(1, columns.size()).boxed().collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columns.get(column - 1).getName();
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            return columns.get(column - 1).getSqlType();
+        }
+
+        @Override
+        public int getPrecision(int column) {
+            return columns.get(column - 1).getPrecision();
+        }
+
+        @Override
+        public int getScale(int column) {
+            return columns.get(column - 1).getScale();
+        }
+
+        @Override
+        public Object[] getRowData() {
+            return currentRow;
+        }
+
+        @Override
+        public boolean next() {
+            if (!rows.hasNext()) {
+                return false;
+            }
+            currentRow = rows.next();
+            rowCount++;
+            return true;
+        }
+
+        private long getRowCount() {
+            return rowCount;
+        }
+    }
+}
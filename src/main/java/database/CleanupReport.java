@@ -0,0 +1,44 @@
+package database;
+
+public final class CleanupReport {
+
+    private final String runId;
+    private final int deletedTasks;
+    private final int deletedUsers;
+    private final int deletedOrganizations;
+    private final long elapsedMillis;
+
+    CleanupReport(String runId, int deletedTasks, int deletedUsers, int deletedOrganizations, long elapsedMillis) {
+        this.runId = runId;
+        this.deletedTasks = deletedTasks;
+        this.deletedUsers = deletedUsers;
+        this.deletedOrganizations = deletedOrganizations;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public int getDeletedTasks() {
+        return deletedTasks;
+    }
+
+    public int getDeletedUsers() {
+        return deletedUsers;
+    }
+
+    public int getDeletedOrganizations() {
+        return deletedOrganizations;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("run %s: deleted %d task(s), %d user(s), %d organization(s) in %d ms",
+                runId, deletedTasks, deletedUsers, deletedOrganizations, elapsedMillis);
+    }
+}
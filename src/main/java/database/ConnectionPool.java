@@ -0,0 +1,195 @@
+package database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool. At most {@code maxSize} connections are leased at the same time,
+ * connections are validated before they are handed out and idle connections above {@code minIdle}
+ * are closed once they have not been used for {@code idleTimeout}.
+ */
+public final class ConnectionPool implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(ConnectionPool.class);
+
+    private final ConnectionFactory connectionFactory;
+    private final ConnectionPoolSettings settings;
+    private final Semaphore permits;
+    private final Deque<PhysicalConnection> idleConnections = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicLong createdConnections = new AtomicLong();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    public ConnectionPool(ConnectionFactory connectionFactory, ConnectionPoolSettings settings) {
+        this.connectionFactory = connectionFactory;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getMaxSize(), true);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionPeriod = Math.max(1000, settings.getIdleTimeout().toMillis() / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, evictionPeriod, evictionPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    public PooledConnection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(settings.getBorrowTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Timed out after " + settings.getBorrowTimeout().toMillis() + " ms waiting for a database connection. Pool state: " + getMetrics());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", ex);
+        }
+        recordWait(System.nanoTime() - waitStart);
+
+        try {
+            PhysicalConnection physicalConnection = takeValidIdleConnection();
+            if (physicalConnection == null) {
+                physicalConnection = new PhysicalConnection(connectionFactory.createConnection(), settings.getStatementCacheSize());
+                createdConnections.incrementAndGet();
+            }
+            activeConnections.incrementAndGet();
+            borrowCount.increment();
+            return new PooledConnection(this, physicalConnection);
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Opens up to {@code count} connections (at most the pool size) and returns them to the pool idle, so that
+     * the first tests do not wait for the database login.
+     */
+    public void warmUp(int count) throws SQLException {
+        List<PooledConnection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < Math.min(count, settings.getMaxSize()); i++) {
+                connections.add(borrow());
+            }
+        } finally {
+            connections.forEach(PooledConnection::close);
+        }
+    }
+
+    void release(PooledConnection pooledConnection) {
+        PhysicalConnection physicalConnection = pooledConnection.getPhysicalConnection();
+        activeConnections.decrementAndGet();
+        try {
+            if (closed || pooledConnection.isBroken() || !resetConnection(physicalConnection.getConnection())) {
+                physicalConnection.close();
+            } else {
+                physicalConnection.markUsed();
+                idleConnections.offerFirst(physicalConnection);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    public PoolMetrics getMetrics() {
+        return new PoolMetrics(
+                activeConnections.get(),
+                idleConnections.size(),
+                createdConnections.get(),
+                borrowCount.sum(),
+                TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        discardIdleConnections();
+    }
+
+    /**
+     * Closes every idle connection, e.g. after a connection failure, so that the next borrow opens a fresh
+     * connection instead of validating connections that most likely died with the failed one.
+     */
+    void discardIdleConnections() {
+        PhysicalConnection idleConnection;
+        while ((idleConnection = idleConnections.pollFirst()) != null) {
+            idleConnection.close();
+        }
+    }
+
+    private PhysicalConnection takeValidIdleConnection() {
+        PhysicalConnection idleConnection;
+        while ((idleConnection = idleConnections.pollFirst()) != null) {
+            if (isValid(idleConnection.getConnection())) {
+                return idleConnection;
+            }
+            logger.warn("Discarding invalid pooled database connection.");
+            idleConnection.close();
+        }
+        return null;
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(settings.getValidationTimeoutSeconds());
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private boolean resetConnection(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private void evictIdleConnections() {
+        long idleTimeoutNanos = settings.getIdleTimeout().toNanos();
+        long now = System.nanoTime();
+        for (PhysicalConnection idleConnection : idleConnections) {
+            if (idleConnections.size() <= settings.getMinIdle()) {
+                return;
+            }
+            if (now - idleConnection.getLastUsedNanos() > idleTimeoutNanos && idleConnections.removeFirstOccurrence(idleConnection)) {
+                idleConnection.close();
+            }
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+}
@@ -0,0 +1,64 @@
+package database;
+
+import utils.TestConfiguration;
+
+import java.time.Duration;
+
+public final class ConnectionPoolSettings {
+
+    private final int maxSize;
+    private final int minIdle;
+    private final Duration idleTimeout;
+    private final Duration borrowTimeout;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    public ConnectionPoolSettings(int maxSize, int minIdle, Duration idleTimeout, Duration borrowTimeout, int validationTimeoutSeconds, int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool max size must be at least 1, but was " + maxSize);
+        }
+        if (minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Pool min idle must be between 0 and " + maxSize + ", but was " + minIdle);
+        }
+        this.maxSize = maxSize;
+        this.minIdle = minIdle;
+        this.idleTimeout = idleTimeout;
+        this.borrowTimeout = borrowTimeout;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public static ConnectionPoolSettings fromConfiguration(TestConfiguration configuration) {
+        return new ConnectionPoolSettings(
+                configuration.getInt("db_pool_max_size", 10),
+                configuration.getInt("db_pool_min_idle", 0),
+                configuration.getMillis("db_pool_idle_timeout_ms", 300000),
+                configuration.getMillis("db_pool_borrow_timeout_ms", 30000),
+                configuration.getInt("db_pool_validation_timeout_s", 2),
+                configuration.getInt("db_statement_cache_size", 50));
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public Duration getBorrowTimeout() {
+        return borrowTimeout;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+}
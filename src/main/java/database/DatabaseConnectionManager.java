@@ -1,271 +1,489 @@
 package database;
 
-import dev.failsafe.internal.util.Assert;
 import io.qameta.allure.Step;
+import utils.ConditionTimeoutException;
+import utils.PollingAwait;
+import utils.TestConfiguration;
 
 import java.io.IOException;
-import java.sql.*;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.function.BooleanSupplier;
+
+import static database.SqlParameter.string;
 
 public final class DatabaseConnectionManager {
 
-    private static DatabaseConnectionManager instance;
+    private static final int MAX_TRANSITION_CHUNK_SIZE = 256;
+
+    private static final String TRANSITION_TASK_STATUSES = "UPDATE volunteer_tasks SET status = ? "
+            + "OUTPUT inserted.id, inserted.name, deleted.status AS previous_status, inserted.status AS new_status "
+            + "WHERE %s IN (%s)%s";
+
+    private static final String TRANSITION_TASK_STATUSES_H2 = "SELECT id, name, status AS previous_status, CAST(? AS NVARCHAR(50)) AS new_status "
+            + "FROM OLD TABLE (UPDATE volunteer_tasks SET status = ? WHERE %s IN (%s)%s)";
+
+    private final ConnectionPool connectionPool;
+    private final QueryExecutor queryExecutor;
+    private final Duration awaitTimeout;
+    private final Duration awaitInitialPollInterval;
+    private final Duration awaitMaxPollInterval;
+    private final BulkInserter.Strategy seedStrategy;
+    private final int seedBatchSize;
+    private final PasswordHasher passwordHasher;
+    private final TestDataCleanup testDataCleanup;
+    private final ResultSetExporter resultSetExporter;
+    private final boolean lookupCacheEnabled;
+    private final LookupCache<String, UserRecord> userCache;
+    private final LookupCache<String, TaskRecord> taskCache;
+    private final ThreadLocal<Integer> freshReadScopes = ThreadLocal.withInitial(() -> 0);
+
+    private DatabaseConnectionManager(TestConfiguration configuration) {
+        try {
+            String mode = configuration.getString("db_mode", "SQLSERVER").toUpperCase();
+            ConnectionFactory connectionFactory;
+            SqlDialect dialect;
+            if ("EMBEDDED".equals(mode)) {
+                connectionFactory = EmbeddedDatabase.start(configuration.getString("db_embedded_url", EmbeddedDatabase.DEFAULT_URL));
+                dialect = SqlDialect.H2;
+            } else {
+                Class.forName("com.microsoft.sqlserver.jdbc.SQLServerDriver");
+                String connectionString = configuration.getString("db_connection_string");
+                String username = configuration.getString("db_username");
+                String password = configuration.getString("db_password");
+                Properties connectionProperties = new Properties();
+                connectionProperties.setProperty("user", username);
+                connectionProperties.setProperty("password", password);
+                connectionProperties.setProperty("loginTimeout", String.valueOf(configuration.getInt("db_login_timeout_s", 5)));
+                connectionFactory = () -> DriverManager.getConnection(connectionString, connectionProperties);
+                dialect = SqlDialect.SQL_SERVER;
+            }
+            if (configuration.getBoolean("db_leak_detection_enabled", false)) {
+                connectionFactory = JdbcLeakDetector.tracking(connectionFactory);
+            }
+            this.connectionPool = new ConnectionPool(connectionFactory, ConnectionPoolSettings.fromConfiguration(configuration));
+            this.queryExecutor = new QueryExecutor(connectionPool, dialect, DatabaseResilience.fromConfiguration(configuration));
+            this.awaitTimeout = configuration.getMillis("db_await_timeout_ms", 10000);
+            this.awaitInitialPollInterval = configuration.getMillis("db_await_initial_poll_ms", 50);
+            this.awaitMaxPollInterval = configuration.getMillis("db_await_max_poll_ms", 1000);
+            this.seedStrategy = BulkInserter.Strategy.valueOf(configuration.getString("db_seed_strategy", "AUTO").toUpperCase());
+            this.seedBatchSize = configuration.getInt("db_seed_batch_size", 1000);
+            this.passwordHasher = new PasswordHasher(
+                    configuration.getInt("db_password_hash_cost", 10),
+                    configuration.getInt("db_password_hash_threads", 0));
+            this.lookupCacheEnabled = configuration.getBoolean("db_lookup_cache_enabled", false);
+            int lookupCacheSize = configuration.getInt("db_lookup_cache_size", 1000);
+            this.userCache = new LookupCache<>("users", lookupCacheSize);
+            this.taskCache = new LookupCache<>("volunteer_tasks", lookupCacheSize);
+            this.testDataCleanup = new TestDataCleanup(queryExecutor,
+                    configuration.getInt("db_cleanup_chunk_size", 500), this::invalidateLookupCaches);
+            this.resultSetExporter = new ResultSetExporter(queryExecutor,
+                    configuration.getInt("db_export_fetch_size", 1000));
+        } catch (IOException | SQLException | ClassNotFoundException ex) {
+            throw new IllegalStateException("Unable to configure database connection pool.", ex);
+        }
+    }
 
-    private Connection connection;
+    private static final class InstanceHolder {
+        private static final DatabaseConnectionManager INSTANCE = new DatabaseConnectionManager(TestConfiguration.get());
+    }
 
-    private String getDataFromConfigPropertiesFile(String necessaryData) throws IOException {
-        utils.ReadPropertiesFileMethod.readProperties("src/test/resources/testdata/config.properties");
-        Properties properties = utils.ReadPropertiesFileMethod.getProperties();
-        return properties.getProperty(necessaryData);
+    /**
+     * Creates a manager with its own pool, independent of the shared instance, e.g. for tests against the
+     * embedded database ({@code db_mode = EMBEDDED}).
+     */
+    public static DatabaseConnectionManager create(TestConfiguration configuration) {
+        return new DatabaseConnectionManager(configuration);
     }
 
-    private DatabaseConnectionManager(){
-        try {
-            Class.forName("com.microsoft.sqlserver.jdbc.SQLServerDriver");
-            this.connection = DriverManager.getConnection(getDataFromConfigPropertiesFile("db_connection_string"), getDataFromConfigPropertiesFile("db_username"), getDataFromConfigPropertiesFile("db_password"));
-        } catch (Exception ex) {
-            System.err.println(ex);
-        }
+    public static DatabaseConnectionManager getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    public PooledConnection borrowConnection() throws SQLException {
+        return connectionPool.borrow();
+    }
+
+    public QueryExecutor getQueryExecutor() {
+        return queryExecutor;
+    }
+
+    public BulkInserter getBulkInserter() {
+        return new BulkInserter(queryExecutor, seedStrategy, seedBatchSize);
     }
 
-    public static synchronized DatabaseConnectionManager getInstance() {
-        if (instance == null) {
-            instance = new DatabaseConnectionManager();
+    public PasswordHasher getPasswordHasher() {
+        return passwordHasher;
+    }
+
+    public TestDataCleanup getTestDataCleanup() {
+        return testDataCleanup;
+    }
+
+    @Step("Export query results from the database")
+    public ExportReport exportQuery(String query, Path target, ExportFormat format, SqlParameter... parameters) throws SQLException, IOException {
+        return resultSetExporter.export(query, target, format, parameters);
+    }
+
+    @Step("Export table from the database")
+    public ExportReport exportTable(String table, Path target, ExportFormat format) throws SQLException, IOException {
+        if (!table.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid table name: " + table);
         }
-        return instance;
+        return resultSetExporter.export("SELECT * FROM " + table + " ORDER BY id", target, format);
     }
 
-    public Connection getConnection() {
-        return connection;
+    /**
+     * Makes the user and task lookups of the calling thread bypass the lookup cache until the returned scope
+     * is closed, for checks that must see the current database state.
+     */
+    public FreshReads forceFreshReads() {
+        freshReadScopes.set(freshReadScopes.get() + 1);
+        return new FreshReads();
     }
 
-    public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException ex) {
-                System.err.println(ex);
+    public final class FreshReads implements AutoCloseable {
+        private boolean closed;
+
+        private FreshReads() {
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                freshReadScopes.set(freshReadScopes.get() - 1);
             }
         }
     }
 
-    @Step("Confirm user's email in the database")
-    public void confirmUserEmailInDatabase(String userEmail){
-        if (connection != null) {
-            System.out.println("Connected to the database.");
+    /**
+     * {@code false} unless {@code db_lookup_cache_enabled} is set; lookups then always go to the database and
+     * leave the caches empty.
+     */
+    public boolean isLookupCacheEnabled() {
+        return lookupCacheEnabled;
+    }
+
+    public LookupCache.Statistics getUserCacheStatistics() {
+        return userCache.getStatistics();
+    }
+
+    public LookupCache.Statistics getTaskCacheStatistics() {
+        return taskCache.getStatistics();
+    }
+
+    public void invalidateLookupCaches() {
+        userCache.invalidateAll();
+        taskCache.invalidateAll();
+    }
+
+    /**
+     * {@code false} while the circuit breaker is open after repeated connection failures.
+     */
+    public boolean isDatabaseAvailable() {
+        return queryExecutor.getResilience().isDatabaseAvailable();
+    }
+
+    public void warmUpConnectionPool(int connections) throws SQLException {
+        connectionPool.warmUp(connections);
+    }
+
+    public PoolMetrics getPoolMetrics() {
+        return connectionPool.getMetrics();
+    }
+
+    public void closeConnectionPool() {
+        testDataCleanup.close();
+        connectionPool.close();
+        passwordHasher.close();
+    }
+
+    public PollingAwait await(String alias) {
+        return PollingAwait.await(alias)
+                .atMost(awaitTimeout)
+                .pollInterval(awaitInitialPollInterval, awaitMaxPollInterval);
+    }
+
+    public void await(String alias, BooleanSupplier condition) {
+        await(alias).until(condition);
+    }
+
+    @Step("Wait until user with such email appears in the database")
+    public boolean awaitThatUserWithSuchEmailExistsInDatabase(String userEmail) {
+        try {
+            await("user " + userEmail + " exists", () -> findUserRecord(userEmail, true).isPresent());
+            return true;
+        } catch (ConditionTimeoutException ex) {
+            rethrowDatabaseError(ex);
+            System.err.println(ex.getMessage());
+            return false;
         }
+    }
 
-        String query = "UPDATE users SET email_confirmed = 'true' WHERE email = '" + userEmail + "'";
+    @Step("Wait until task with such taskName appears in the database")
+    public boolean awaitThatTaskWithSuchNameExistsInDatabase(String taskName) {
+        try {
+            await("task '" + taskName + "' exists", () -> findTaskRecord(taskName, true).isPresent());
+            return true;
+        } catch (ConditionTimeoutException ex) {
+            rethrowDatabaseError(ex);
+            System.err.println(ex.getMessage());
+            return false;
+        }
+    }
 
-        try{
-            assert connection != null;
-            Statement st1 = connection.createStatement();
-            st1.executeUpdate(query);
+    @Step("Confirm user's email in the database")
+    public void confirmUserEmailInDatabase(String userEmail){
+        String query = queryExecutor.getDialect().sql(
+                "UPDATE users SET email_confirmed = 1 OUTPUT inserted.email_confirmed WHERE email = ?",
+                "SELECT email_confirmed FROM FINAL TABLE (UPDATE users SET email_confirmed = 1 WHERE email = ?)");
 
-            String controlQuery = "SELECT email_confirmed FROM users WHERE email = '" + userEmail + "'";
-            Statement st2 = connection.createStatement();
-            ResultSet rs  = st2.executeQuery(controlQuery);
-            rs.next();
-            boolean emailIsConfirmed = rs.getBoolean("email_confirmed");
+        try {
+            boolean emailIsConfirmed = queryExecutor.queryForOptional(query, rs -> rs.getBoolean("email_confirmed"), string(userEmail)).orElse(false);
+            userCache.invalidate(userEmail);
             if (emailIsConfirmed) {
                 System.out.println("User's email is confirmed.");
             } else {System.out.println("User's email is not confirmed!!!");}
-
-        } catch (Exception ex) {
-            System.err.println(ex);
+        } catch (SQLException ex) {
+            throw databaseError("confirm the email of " + userEmail, ex);
         }
     }
 
     @Step("Check that user with such email do not exist in the database")
     public boolean checkThatUserWithSuchEmailDoNotExistInDatabase(String userEmail) {
-        boolean result = false;
-        String query = "SELECT COUNT (id) AS 'count' FROM users WHERE email = '" + userEmail + "'";
-        try {
-            assert connection != null;
-            Statement st = connection.createStatement();
-            ResultSet rs = st.executeQuery(query);
-            rs.next();
-            int count = rs.getInt("count");
-            result = count == 0;
-        } catch (Exception ex) {
-            System.err.println(ex);
-        }
-        return result;
+        return !(useLookupCache() && userCache.contains(userEmail)) && countUsersWithEmail(userEmail) == 0;
     }
 
     @Step("Check that user with such email already exist in the database")
     public boolean checkThatUserWithSuchEmailAlreadyExistInDatabase(String userEmail) {
-        boolean result = false;
-        String query = "SELECT COUNT (id) AS 'count' FROM users WHERE email = '" + userEmail + "'";
-        try {
-            assert connection != null;
-            Statement st = connection.createStatement();
-            ResultSet rs = st.executeQuery(query);
-            rs.next();
-            int count = rs.getInt("count");
-            result = count == 1;
-        } catch (Exception ex) {
-            System.err.println(ex);
-        }
-        return result;
+        return loadUserRecord(userEmail).map(user -> user.getUsersWithEmail() == 1).orElse(false);
+    }
+
+    @Step("Load user row from the database")
+    public Optional<UserRecord> loadUserRecord(String userEmail) {
+        return findUserRecord(userEmail, !useLookupCache());
+    }
+
+    @Step("Check volunteer data in the database")
+    public void checkVolunteerDataInDatabase(String userEmail, String firstName, String lastName) {
+        getUserRecord(userEmail).verify()
+                .firstName(firstName)
+                .lastName(lastName)
+                .assertMatches();
+    }
+
+    @Step("Check partner data in the database")
+    public void checkPartnerDataInDatabase(String userEmail, String firstName, String lastName, String position, String organizationName) {
+        getUserRecord(userEmail).verify()
+                .firstName(firstName)
+                .lastName(lastName)
+                .positionInOrganization(position)
+                .partnerOrganizationName(organizationName)
+                .assertMatches();
     }
 
     @Step("Check user's first name in the database")
     public void checkUserFirstNameInDatabase(String userEmail, String firstName){
-        String query = "SELECT * FROM users WHERE email = '" + userEmail + "'";
-
-        try{
-            assert connection != null;
-            Statement st = connection.createStatement();
-            ResultSet rs = st.executeQuery(query);
-            rs.next();
-            String firstNameInDatabase = rs.getString("first_name");
-            Assert.isTrue(firstNameInDatabase.equals(firstName), "Users first name in the database is different, but must be the same.");
-        } catch (Exception ex) {
-            System.err.println(ex);
-        }
+        getUserRecord(userEmail).verify().firstName(firstName).assertMatches();
     }
 
     @Step("Check user's last name in the database")
     public void checkUserLastNameInDatabase(String userEmail, String lastName){
-        String query = "SELECT * FROM users WHERE email = '" + userEmail + "'";
-
-        try{
-            assert connection != null;
-            Statement st = connection.createStatement();
-            ResultSet rs = st.executeQuery(query);
-            rs.next();
-            String lastNameInDatabase = rs.getString("last_name");
-            Assert.isTrue(lastNameInDatabase.equals(lastName), "Users last name in the database is different, but must be the same");
-        } catch (Exception ex) {
-            System.err.println(ex);
-        }
+        getUserRecord(userEmail).verify().lastName(lastName).assertMatches();
     }
 
     @Step("Check user's position in organization in the database")
     public void checkUserPositionInOrganizationInDatabase(String userEmail, String position){
-        String query = "SELECT * FROM users WHERE email = '" + userEmail + "'";
-
-        try{
-            assert connection != null;
-            Statement st = connection.createStatement();
-            ResultSet rs = st.executeQuery(query);
-            rs.next();
-            String positionInOrganizationInDatabase = rs.getString("position_in_organization");
-            Assert.isTrue(positionInOrganizationInDatabase.equals(position), "Users position in organization in the database is different, but must be the same");
-        } catch (Exception ex) {
-            System.err.println(ex);
-        }
+        getUserRecord(userEmail).verify().positionInOrganization(position).assertMatches();
     }
 
     @Step("Check partner's organization name in the database")
     public void checkPartnerOrganisationNameInDatabase(String userEmail, String organizationName){
-        String query = "SELECT name FROM partners JOIN users ON partners.id = users.organization_id WHERE email = '" + userEmail + "'";
-
-        try{
-            assert connection != null;
-            Statement st = connection.createStatement();
-            ResultSet rs = st.executeQuery(query);
-            rs.next();
-            String organizationNameInDatabase = rs.getString("name");
-            Assert.isTrue(organizationNameInDatabase.equals(organizationName), "Users organization name in the database is different, but must be the same");
-        } catch (Exception ex) {
-            System.err.println(ex);
-        }
+        getUserRecord(userEmail).verify().partnerOrganizationName(organizationName).assertMatches();
     }
 
     @Step("Approve NGO in the database")
     public boolean approveNgoInDatabase(String userEmail){
-        String query = "UPDATE ngos SET confirmed = 'true' FROM ngos JOIN users ON ngos.id = users.organization_id WHERE email = '" + userEmail + "'";
+        String query = queryExecutor.getDialect().sql(
+                "UPDATE ngos SET confirmed = 1 OUTPUT inserted.confirmed FROM ngos JOIN users ON ngos.id = users.organization_id WHERE users.email = ?",
+                "SELECT confirmed FROM FINAL TABLE (UPDATE ngos SET confirmed = 1 WHERE id IN (SELECT organization_id FROM users WHERE email = ?))");
         boolean ngoIsApproved = false;
-        try{
-            assert connection != null;
-            Statement st1 = connection.createStatement();
-            st1.executeUpdate(query);
-
-            String controlQuery = "SELECT confirmed FROM ngos JOIN users ON ngos.id = users.organization_id WHERE email = '" + userEmail + "'";
-            Statement st2 = connection.createStatement();
-            ResultSet rs  = st2.executeQuery(controlQuery);
-            rs.next();
-            ngoIsApproved = rs.getBoolean("confirmed");
+        try {
+            ngoIsApproved = queryExecutor.queryForOptional(query, rs -> rs.getBoolean("confirmed"), string(userEmail)).orElse(false);
+            userCache.invalidate(userEmail);
             if (ngoIsApproved) {
                 System.out.println("NGO is approved in the database.");
             } else {System.out.println("NGO is not approved in the database!!!");}
-
-        } catch (Exception ex) {
-            System.err.println(ex);
+        } catch (SQLException ex) {
+            throw databaseError("approve the NGO of " + userEmail, ex);
         }
         return ngoIsApproved;
     }
 
     @Step("Check that task with such taskName exists in the database")
     public boolean checkThatTaskWithSuchNameExistsInDatabase(String taskName) {
-        boolean result = false;
-        String query = "SELECT COUNT (id) AS 'count' FROM volunteer_tasks WHERE name = '" + taskName + "'";
-        try {
-            assert connection != null;
-            Statement st = connection.createStatement();
-            ResultSet rs = st.executeQuery(query);
-            rs.next();
-            int count = rs.getInt("count");
-            result = count == 1;
-        } catch (Exception ex) {
-            System.err.println(ex);
-        }
-        return result;
+        return loadTaskRecord(taskName).isPresent();
+    }
+
+    @Step("Load task row from the database")
+    public Optional<TaskRecord> loadTaskRecord(String taskName) {
+        return findTaskRecord(taskName, !useLookupCache());
     }
 
     @Step("Check task data in the database")
     public void checkTaskDataInDatabase(String taskName, String taskDescription, String expectedOutcome, String volunteerBenefit){
-        String query = "SELECT * FROM volunteer_tasks WHERE name = '" + taskName + "'";
+        getTaskRecord(taskName).verify()
+                .description(taskDescription)
+                .expectedOutcome(expectedOutcome)
+                .benefit(volunteerBenefit)
+                .assertMatches();
+    }
 
-        try{
-            assert connection != null;
-            Statement st = connection.createStatement();
-            ResultSet rs = st.executeQuery(query);
-            rs.next();
+    @Step("Check current task status in the database")
+    public String checkCurrentTaskStatusInDatabase(String taskName){
+        return loadTaskRecord(taskName).map(TaskRecord::getStatus).orElse("");
+    }
 
-            String taskDescriptionInDatabase = rs.getString("description");
-            Assert.isTrue(taskDescriptionInDatabase.equals(taskDescription), "Task description in the database is different, but must be the same");
+    @Step("Set task status in the database")
+    public void setTaskStatusInDatabase(String taskName, String newStatus){
+        String query = "UPDATE volunteer_tasks SET status = ? WHERE name = ?";
+        try {
+            queryExecutor.update(query, string(newStatus), string(taskName));
+            taskCache.invalidate(taskName);
+        } catch (SQLException ex) {
+            throw databaseError("set the status of task '" + taskName + "'", ex);
+        }
+    }
 
-            String expectedOutcomeInDatabase = rs.getString("expected_outcome");
-            Assert.isTrue(expectedOutcomeInDatabase.equals(expectedOutcome), "Expected outcome in the database is different, but must be the same");
+    /**
+     * Moves the named tasks to {@code toStatus} in one set-based statement (one per 256 names) and returns
+     * every changed row with its status before and after. With a {@code fromStatus}, only tasks currently in
+     * that status are changed; {@code null} changes tasks in any status.
+     */
+    @Step("Transition task statuses in the database")
+    public List<TaskStatusTransition> transitionTaskStatusesInDatabase(Collection<String> taskNames, String fromStatus, String toStatus) {
+        try {
+            return transitionTaskStatuses("name", new ArrayList<>(new LinkedHashSet<>(taskNames)), fromStatus, toStatus);
+        } catch (SQLException ex) {
+            throw databaseError("transition task statuses", ex);
+        }
+    }
 
-            String volunteerBenefitInDatabase = rs.getString("benefit");
-            Assert.isTrue(volunteerBenefitInDatabase.equals(volunteerBenefit), "Volunteer benefit in the database is different, but must be the same");
+    @Step("Transition task statuses by id in the database")
+    public List<TaskStatusTransition> transitionTaskStatusesByIdInDatabase(Collection<Long> taskIds, String fromStatus, String toStatus) {
+        try {
+            return transitionTaskStatuses("id", new ArrayList<>(new LinkedHashSet<>(taskIds)), fromStatus, toStatus);
+        } catch (SQLException ex) {
+            throw databaseError("transition task statuses", ex);
+        }
+    }
 
-        } catch (Exception ex) {
-            System.err.println(ex);
+    private int countUsersWithEmail(String userEmail) {
+        String query = "SELECT COUNT(id) AS user_count FROM users WHERE email = ?";
+        try {
+            return queryExecutor.queryForOptional(query, rs -> rs.getInt("user_count"), string(userEmail)).orElse(0);
+        } catch (SQLException ex) {
+            throw databaseError("count users with email " + userEmail, ex);
         }
     }
 
-    @Step("Check current task status in the database")
-    public String checkCurrentTaskStatusInDatabase(String taskName){
-        String query = "SELECT status FROM volunteer_tasks WHERE name = '" + taskName + "'";
-        String statusInDatabase = "";
-
-        try{
-            assert connection != null;
-            Statement st = connection.createStatement();
-            ResultSet rs = st.executeQuery(query);
-            rs.next();
-            statusInDatabase = rs.getString("status");
-        } catch (Exception ex) {
-            System.err.println(ex);
+    private List<TaskStatusTransition> transitionTaskStatuses(String keyColumn, List<?> keys, String fromStatus, String toStatus) throws SQLException {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
         }
-        return statusInDatabase;
+        String fromFilter = fromStatus == null ? "" : " AND status = ?";
+        return queryExecutor.execute(pooledConnection -> {
+            Connection connection = pooledConnection.getConnection();
+            connection.setAutoCommit(false);
+            try {
+                List<TaskStatusTransition> transitions = new ArrayList<>();
+                for (List<?> chunk : SqlInList.chunks(keys, MAX_TRANSITION_CHUNK_SIZE)) {
+                    int size = SqlInList.bucketSize(chunk.size(), MAX_TRANSITION_CHUNK_SIZE);
+                    List<SqlParameter> parameters = new ArrayList<>();
+                    String sql;
+                    if (queryExecutor.getDialect() == SqlDialect.H2) {
+                        sql = String.format(TRANSITION_TASK_STATUSES_H2, keyColumn, SqlInList.placeholders(size), fromFilter);
+                        parameters.add(string(toStatus));
+                    } else {
+                        sql = String.format(TRANSITION_TASK_STATUSES, keyColumn, SqlInList.placeholders(size), fromFilter);
+                    }
+                    parameters.add(string(toStatus));
+                    parameters.addAll(Arrays.asList(SqlInList.padded(chunk, size)));
+                    if (fromStatus != null) {
+                        parameters.add(string(fromStatus));
+                    }
+                    transitions.addAll(QueryExecutor.queryForList(pooledConnection, sql, TaskStatusTransition.ROW_MAPPER, parameters.toArray(new SqlParameter[0])));
+                }
+                connection.commit();
+                transitions.forEach(transition -> taskCache.invalidate(transition.getName()));
+                return transitions;
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
     }
 
-    @Step("Set task status in the database")
-    public void setTaskStatusInDatabase(String taskName, String newStatus){
-        String query = "UPDATE volunteer_tasks SET status = '" + newStatus +"' WHERE name = '" + taskName + "'";
-        try{
-            assert connection != null;
-            Statement st1 = connection.createStatement();
-            st1.executeUpdate(query);
-        } catch (Exception ex) {
-            System.err.println(ex);
+    private boolean useLookupCache() {
+        return lookupCacheEnabled && freshReadScopes.get() == 0;
+    }
+
+    private Optional<UserRecord> findUserRecord(String userEmail, boolean fresh) {
+        try {
+            LookupCache.Loader<String, UserRecord> loader = email -> queryExecutor.queryForOptional(UserRecord.SELECT_BY_EMAIL, UserRecord.ROW_MAPPER, string(email));
+            return lookupCacheEnabled ? userCache.get(userEmail, loader, fresh) : loader.load(userEmail);
+        } catch (SQLException ex) {
+            throw databaseError("load user " + userEmail, ex);
         }
     }
-}
 
+    private Optional<TaskRecord> findTaskRecord(String taskName, boolean fresh) {
+        try {
+            LookupCache.Loader<String, TaskRecord> loader = name -> queryExecutor.queryForOptional(TaskRecord.SELECT_BY_NAME, TaskRecord.ROW_MAPPER, string(name));
+            return lookupCacheEnabled ? taskCache.get(taskName, loader, fresh) : loader.load(taskName);
+        } catch (SQLException ex) {
+            throw databaseError("load task '" + taskName + "'", ex);
+        }
+    }
+
+    private UserRecord getUserRecord(String userEmail) {
+        return loadUserRecord(userEmail)
+                .orElseThrow(() -> new AssertionError("There is no user with email " + userEmail + " in the database."));
+    }
+
+    private TaskRecord getTaskRecord(String taskName) {
+        return loadTaskRecord(taskName)
+                .orElseThrow(() -> new AssertionError("There is no task with name '" + taskName + "' in the database."));
+    }
+
+    /**
+     * Wraps a failed query, so that tests fail on the database error instead of treating it as a missing row.
+     */
+    private static IllegalStateException databaseError(String action, SQLException ex) {
+        return new IllegalStateException("Unable to " + action + " in the database.", ex);
+    }
+
+    /**
+     * Rethrows the database error that kept a wait from succeeding, e.g. the {@link DatabaseUnavailableException}
+     * of an open circuit breaker, so that it is not reported as a mere timeout.
+     */
+    private static void rethrowDatabaseError(ConditionTimeoutException timeout) {
+        if (timeout.getCause() instanceof IllegalStateException && timeout.getCause().getCause() instanceof SQLException) {
+            throw (IllegalStateException) timeout.getCause();
+        }
+    }
+}
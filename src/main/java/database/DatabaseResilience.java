@@ -0,0 +1,138 @@
+package database;
+
+import dev.failsafe.CircuitBreaker;
+import dev.failsafe.CircuitBreakerOpenException;
+import dev.failsafe.Failsafe;
+import dev.failsafe.FailsafeException;
+import dev.failsafe.FailsafeExecutor;
+import dev.failsafe.RetryPolicy;
+import dev.failsafe.function.CheckedSupplier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.TestConfiguration;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Retry policy and circuit breaker around database calls. Transient errors (lost connections, deadlock
+ * victims, throttling) are retried with exponential backoff within an attempt and time budget. Connection
+ * failures also count towards the circuit breaker; once it opens, calls fail with
+ * {@link DatabaseUnavailableException} without touching the database until a trial call is allowed again.
+ */
+public final class DatabaseResilience {
+
+    private static final Logger logger = LogManager.getLogger(DatabaseResilience.class);
+
+    /**
+     * SQL Server error numbers of errors that go away on their own: deadlock victim, lock request timeout,
+     * transport-level errors and the Azure SQL throttling/failover family.
+     */
+    private static final Set<Integer> TRANSIENT_ERROR_CODES = new HashSet<>(Arrays.asList(
+            1205, 1222, 233, 64, 10053, 10054, 10060, 10928, 10929, 40143, 40197, 40501, 40613, 49918, 49919, 49920));
+
+    private final CircuitBreaker<Object> circuitBreaker;
+    private final FailsafeExecutor<Object> retryingExecutor;
+    private final FailsafeExecutor<Object> singleAttemptExecutor;
+
+    public DatabaseResilience(int maxAttempts, Duration initialRetryDelay, Duration maxRetryDelay, Duration retryBudget,
+                              int circuitFailureThreshold, Duration circuitOpenDelay) {
+        RetryPolicy<Object> retryPolicy = RetryPolicy.builder()
+                .handleIf(DatabaseResilience::isTransient)
+                .abortOn(CircuitBreakerOpenException.class)
+                .withMaxAttempts(maxAttempts)
+                .withBackoff(initialRetryDelay, maxRetryDelay)
+                .withJitter(0.25)
+                .withMaxDuration(retryBudget)
+                .onRetry(event -> logger.warn("Retrying database call (attempt {}) after transient error: {}",
+                        event.getAttemptCount() + 1, event.getLastException().toString()))
+                .build();
+        this.circuitBreaker = CircuitBreaker.builder()
+                .handleIf(DatabaseResilience::isConnectionFailure)
+                .withFailureThreshold(circuitFailureThreshold)
+                .withDelay(circuitOpenDelay)
+                .onOpen(event -> logger.error("Database circuit breaker opened, failing fast for {} ms.", circuitOpenDelay.toMillis()))
+                .onHalfOpen(event -> logger.info("Database circuit breaker half-open, allowing a trial call."))
+                .onClose(event -> logger.info("Database circuit breaker closed, database is reachable again."))
+                .build();
+        this.retryingExecutor = Failsafe.with(retryPolicy, circuitBreaker);
+        this.singleAttemptExecutor = Failsafe.with(circuitBreaker);
+    }
+
+    public static DatabaseResilience fromConfiguration(TestConfiguration configuration) {
+        return new DatabaseResilience(
+                configuration.getInt("db_retry_max_attempts", 3),
+                configuration.getMillis("db_retry_initial_delay_ms", 100),
+                configuration.getMillis("db_retry_max_delay_ms", 2000),
+                configuration.getMillis("db_retry_budget_ms", 10000),
+                configuration.getInt("db_circuit_failure_threshold", 5),
+                configuration.getMillis("db_circuit_open_ms", 30000));
+    }
+
+    /**
+     * Runs the call, retrying it on transient errors. Only for calls that can safely run again from the
+     * start, e.g. a single statement or a transaction that is rolled back on failure.
+     */
+    <T> T callWithRetry(CheckedSupplier<T> call) throws SQLException {
+        return call(retryingExecutor, call);
+    }
+
+    /**
+     * Runs the call once through the circuit breaker, for calls that consume their input and cannot be
+     * repeated, such as streamed inserts and exports.
+     */
+    <T> T callOnce(CheckedSupplier<T> call) throws SQLException {
+        return call(singleAttemptExecutor, call);
+    }
+
+    public boolean isDatabaseAvailable() {
+        return !circuitBreaker.isOpen();
+    }
+
+    public Duration getRemainingOpenDelay() {
+        return circuitBreaker.getRemainingDelay();
+    }
+
+    static boolean isConnectionFailure(Throwable throwable) {
+        if (!(throwable instanceof SQLException) || throwable instanceof DatabaseUnavailableException) {
+            return false;
+        }
+        SQLException ex = (SQLException) throwable;
+        String sqlState = ex.getSQLState();
+        return ex instanceof SQLRecoverableException || ex instanceof SQLTransientConnectionException
+                || (sqlState != null && sqlState.startsWith("08"));
+    }
+
+    static boolean isTransient(Throwable throwable) {
+        if (!(throwable instanceof SQLException) || throwable instanceof SQLTimeoutException) {
+            return false;
+        }
+        for (SQLException ex = (SQLException) throwable; ex != null; ex = ex.getNextException()) {
+            if (isConnectionFailure(ex) || ex instanceof SQLTransientException
+                    || "40001".equals(ex.getSQLState()) || TRANSIENT_ERROR_CODES.contains(ex.getErrorCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> T call(FailsafeExecutor<Object> executor, CheckedSupplier<T> call) throws SQLException {
+        try {
+            return executor.get(call);
+        } catch (CircuitBreakerOpenException ex) {
+            throw new DatabaseUnavailableException(circuitBreaker.getRemainingDelay(), ex);
+        } catch (FailsafeException ex) {
+            if (ex.getCause() instanceof SQLException) {
+                throw (SQLException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+}
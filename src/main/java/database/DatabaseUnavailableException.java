@@ -0,0 +1,15 @@
+package database;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.time.Duration;
+
+/**
+ * Thrown without touching the database while the circuit breaker of {@link DatabaseResilience} is open,
+ * i.e. after repeated connection failures and until the next trial call is allowed.
+ */
+public final class DatabaseUnavailableException extends SQLNonTransientConnectionException {
+
+    public DatabaseUnavailableException(Duration remainingDelay, Throwable cause) {
+        super("Database is unavailable, failing fast for another " + remainingDelay.toMillis() + " ms after repeated connection failures.", "08001", cause);
+    }
+}
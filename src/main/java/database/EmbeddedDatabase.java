@@ -0,0 +1,54 @@
+package database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * In-process H2 database in SQL Server compatibility mode with the tables used by the database layer,
+ * so seeders, verifications and benchmarks can run without the remote Skarb database.
+ */
+final class EmbeddedDatabase {
+
+    static final String DEFAULT_URL = "jdbc:h2:mem:skarb;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=FALSE;CASE_INSENSITIVE_IDENTIFIERS=TRUE";
+
+    private static final String SCHEMA_RESOURCE = "db/embedded-schema.sql";
+
+    private EmbeddedDatabase() {
+    }
+
+    /**
+     * Creates the schema if it is missing and returns a factory of connections to the database.
+     */
+    static ConnectionFactory start(String url) throws SQLException, IOException {
+        ConnectionFactory connectionFactory = () -> DriverManager.getConnection(url, "sa", "");
+        try (Connection connection = connectionFactory.createConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : readSchema().split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+        return connectionFactory;
+    }
+
+    private static String readSchema() throws IOException {
+        try (InputStream schema = EmbeddedDatabase.class.getClassLoader().getResourceAsStream(SCHEMA_RESOURCE)) {
+            if (schema == null) {
+                throw new IOException("Schema resource " + SCHEMA_RESOURCE + " is not on the classpath.");
+            }
+            StringBuilder sql = new StringBuilder();
+            for (String line : new String(schema.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                if (!line.trim().startsWith("--")) {
+                    sql.append(line).append('\n');
+                }
+            }
+            return sql.toString();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package database;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Line formats written by {@link ResultSetExporter}. Each row is written as soon as it is read.
+ */
+public enum ExportFormat {
+
+    CSV("csv") {
+        @Override
+        void writeHeader(Writer writer, List<String> columns) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(writer, columns.get(i));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        void writeRow(Writer writer, List<String> columns, Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeCsvValue(writer, values[i].toString());
+                }
+            }
+            writer.write('\n');
+        }
+    },
+
+    JSON_LINES("jsonl") {
+        @Override
+        void writeHeader(Writer writer, List<String> columns) {
+        }
+
+        @Override
+        void writeRow(Writer writer, List<String> columns, Object[] values) throws IOException {
+            writer.write('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(JsonStrings.quote(columns.get(i)));
+                writer.write(':');
+                Object value = values[i];
+                if (value == null) {
+                    writer.write("null");
+                } else if (value instanceof Number || value instanceof Boolean) {
+                    writer.write(value.toString());
+                } else {
+                    writer.write(JsonStrings.quote(value.toString()));
+                }
+            }
+            writer.write("}\n");
+        }
+    };
+
+    private final String fileExtension;
+
+    ExportFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    abstract void writeHeader(Writer writer, List<String> columns) throws IOException;
+
+    abstract void writeRow(Writer writer, List<String> columns, Object[] values) throws IOException;
+
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
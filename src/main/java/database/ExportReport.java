@@ -0,0 +1,39 @@
+package database;
+
+import java.nio.file.Path;
+
+public final class ExportReport {
+
+    private final Path target;
+    private final ExportFormat format;
+    private final long rows;
+    private final long elapsedMillis;
+
+    ExportReport(Path target, ExportFormat format, long rows, long elapsedMillis) {
+        this.target = target;
+        this.format = format;
+        this.rows = rows;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d rows as %s in %d ms", target, rows, format, elapsedMillis);
+    }
+}
@@ -0,0 +1,245 @@
+package database;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks every statement and result set opened on connections created through {@link #tracking(ConnectionFactory)}
+ * together with the stack that opened it. Resources still open when a test scope ends are reported as leaks and
+ * closed. Statements owned by the {@link StatementCache} are long-lived by design and never reported, but result
+ * sets opened on them are.
+ */
+public final class JdbcLeakDetector {
+
+    private static final Set<TrackedResource> openResources = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<Object> testScope = new ThreadLocal<>();
+    private static final AtomicLong leakCount = new AtomicLong();
+
+    private JdbcLeakDetector() {
+    }
+
+    public static final class Leak {
+        private final String kind;
+        private final String sql;
+        private final String threadName;
+        private final Throwable creationStack;
+
+        private Leak(TrackedResource resource) {
+            this.kind = resource.kind;
+            this.sql = resource.sql;
+            this.threadName = resource.threadName;
+            this.creationStack = resource.creationStack;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public String getCreationStackTrace() {
+            StringWriter stackTrace = new StringWriter();
+            creationStack.printStackTrace(new PrintWriter(stackTrace));
+            return stackTrace.toString();
+        }
+
+        @Override
+        public String toString() {
+            return kind + " opened on thread '" + threadName + "'" + (sql == null ? "" : " for: " + sql);
+        }
+    }
+
+    static ConnectionFactory tracking(ConnectionFactory connectionFactory) {
+        return () -> {
+            Connection connection = connectionFactory.createConnection();
+            return proxy(Connection.class, connection, new TrackedResource("Connection", null, null));
+        };
+    }
+
+    /**
+     * Excludes a statement kept open on purpose, e.g. by the statement cache, from the leak reports.
+     */
+    static void markPooled(Statement statement) {
+        TrackedResource resource = trackedResourceOf(statement);
+        if (resource != null) {
+            resource.pooled = true;
+        }
+    }
+
+    /**
+     * Starts a leak scope for the calling thread; statements and result sets it opens from now on belong to the scope.
+     */
+    public static void beginTest() {
+        testScope.set(new Object());
+    }
+
+    /**
+     * Ends the scope started by {@link #beginTest()}, closes the resources of the scope that are still open and
+     * returns them as leaks.
+     */
+    public static List<Leak> endTest() {
+        Object scope = testScope.get();
+        testScope.remove();
+        if (scope == null) {
+            return Collections.emptyList();
+        }
+        List<TrackedResource> leaked = openResources.stream()
+                .filter(resource -> resource.scope == scope && !resource.pooled)
+                .collect(Collectors.toList());
+        List<Leak> leaks = new ArrayList<>();
+        for (TrackedResource resource : leaked) {
+            leaks.add(new Leak(resource));
+        }
+        leaked.forEach(TrackedResource::closeDelegate);
+        leakCount.addAndGet(leaks.size());
+        return leaks;
+    }
+
+    /**
+     * Statements and result sets that are open right now, regardless of scope, except pooled statements.
+     */
+    public static List<Leak> getOpenResources() {
+        return openResources.stream().filter(resource -> !resource.pooled).map(Leak::new).collect(Collectors.toList());
+    }
+
+    public static long getLeakCount() {
+        return leakCount.get();
+    }
+
+    private static TrackedResource trackedResourceOf(Object object) {
+        if (object != null && Proxy.isProxyClass(object.getClass()) && Proxy.getInvocationHandler(object) instanceof TrackingHandler) {
+            return ((TrackingHandler) Proxy.getInvocationHandler(object)).resource;
+        }
+        return null;
+    }
+
+    private static <T> T proxy(Class<T> type, T delegate, TrackedResource resource) {
+        resource.delegate = (AutoCloseable) delegate;
+        return type.cast(Proxy.newProxyInstance(JdbcLeakDetector.class.getClassLoader(), new Class<?>[]{type}, new TrackingHandler(delegate, resource)));
+    }
+
+    private static Object track(Object result, TrackedResource parent, String sql) {
+        if (result instanceof CallableStatement) {
+            return proxy(CallableStatement.class, (CallableStatement) result, TrackedResource.open("CallableStatement", sql, parent));
+        }
+        if (result instanceof PreparedStatement) {
+            return proxy(PreparedStatement.class, (PreparedStatement) result, TrackedResource.open("PreparedStatement", sql, parent));
+        }
+        if (result instanceof Statement) {
+            return proxy(Statement.class, (Statement) result, TrackedResource.open("Statement", sql, parent));
+        }
+        if (result instanceof ResultSet) {
+            return proxy(ResultSet.class, (ResultSet) result, TrackedResource.open("ResultSet", sql, parent));
+        }
+        return result;
+    }
+
+    private static final class TrackedResource {
+        private final String kind;
+        private final String sql;
+        private final TrackedResource parent;
+        private final String threadName = Thread.currentThread().getName();
+        private final Object scope = testScope.get();
+        private final Throwable creationStack = new Throwable("Opened here");
+        private volatile AutoCloseable delegate;
+        private volatile boolean pooled;
+
+        private TrackedResource(String kind, String sql, TrackedResource parent) {
+            this.kind = kind;
+            this.sql = sql;
+            this.parent = parent;
+        }
+
+        private static TrackedResource open(String kind, String sql, TrackedResource parent) {
+            TrackedResource resource = new TrackedResource(kind, sql, parent);
+            openResources.add(resource);
+            return resource;
+        }
+
+        /**
+         * Forgets this resource and everything opened from it; JDBC closes those together with their parent.
+         */
+        private void closed() {
+            openResources.remove(this);
+            if (!"ResultSet".equals(kind)) {
+                for (TrackedResource resource : openResources) {
+                    if (resource.parent == this) {
+                        resource.closed();
+                    }
+                }
+            }
+        }
+
+        private void closeDelegate() {
+            try {
+                delegate.close();
+            } catch (Exception ignored) {
+                // the resource leaked, closing it is best effort
+            }
+            closed();
+        }
+    }
+
+    private static final class TrackingHandler implements InvocationHandler {
+        private final Object delegate;
+        private final TrackedResource resource;
+
+        private TrackingHandler(Object delegate, TrackedResource resource) {
+            this.delegate = delegate;
+            this.resource = resource;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Tracked" + resource.kind + "[" + delegate + "]";
+                default:
+                    break;
+            }
+            Object result;
+            try {
+                result = method.invoke(delegate, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            switch (method.getName()) {
+                case "close":
+                    resource.closed();
+                    return result;
+                case "createStatement":
+                case "prepareStatement":
+                case "prepareCall":
+                case "executeQuery":
+                case "getResultSet":
+                case "getGeneratedKeys":
+                    String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : resource.sql;
+                    return track(result, resource, sql);
+                default:
+                    return result;
+            }
+        }
+    }
+}
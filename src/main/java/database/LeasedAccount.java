@@ -0,0 +1,57 @@
+package database;
+
+/**
+ * A ready-to-login account leased from {@link AccountPool}. Closing it returns the account to the pool.
+ */
+public final class LeasedAccount implements AutoCloseable {
+
+    private final AccountPool accountPool;
+    private final long id;
+    private final String email;
+    private final String password;
+    private final AccountRole role;
+    private final String leaseId;
+    private boolean released;
+
+    LeasedAccount(AccountPool accountPool, long id, String email, String password, AccountRole role, String leaseId) {
+        this.accountPool = accountPool;
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.role = role;
+        this.leaseId = leaseId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public AccountRole getRole() {
+        return role;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    String getLeaseId() {
+        return leaseId;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!released) {
+            released = true;
+            accountPool.release(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return role + " " + email;
+    }
+}
@@ -0,0 +1,136 @@
+package database;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded, thread-safe LRU read-through cache of rows looked up by key. Only rows that exist are cached,
+ * so a lookup of a row that is still missing always goes to the database. A load that overlaps with an
+ * invalidation is returned but not cached, so a write can never be hidden by a read that started before it.
+ */
+public final class LookupCache<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        Optional<V> load(K key) throws SQLException;
+    }
+
+    public static final class Statistics {
+        private final String name;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int size;
+
+        private Statistics(String name, long hits, long misses, long evictions, long invalidations, int size) {
+            this.name = name;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.size = size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public double getHitRate() {
+            return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: hits=%d, misses=%d, hitRate=%.0f%%, evictions=%d, invalidations=%d, size=%d",
+                    name, hits, misses, getHitRate() * 100, evictions, invalidations, size);
+        }
+    }
+
+    private final String name;
+    private final LinkedHashMap<K, V> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public LookupCache(String name, int capacity) {
+        this.name = name;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached row, or loads it and caches it if it exists. With {@code fresh} the cached row is
+     * ignored and replaced by the loaded one; such a load is not a lookup and counts neither as hit nor as miss.
+     */
+    public Optional<V> get(K key, Loader<K, V> loader, boolean fresh) throws SQLException {
+        long invalidationsBeforeLoad;
+        synchronized (this) {
+            if (!fresh) {
+                V cached = entries.get(key);
+                if (cached != null) {
+                    hits++;
+                    return Optional.of(cached);
+                }
+                misses++;
+            }
+            invalidationsBeforeLoad = invalidations;
+        }
+        Optional<V> loaded = loader.load(key);
+        synchronized (this) {
+            if (invalidations == invalidationsBeforeLoad) {
+                if (loaded.isPresent()) {
+                    entries.put(key, loaded.get());
+                } else {
+                    entries.remove(key);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+    }
+
+    public synchronized Statistics getStatistics() {
+        return new Statistics(name, hits, misses, evictions, invalidations, entries.size());
+    }
+}
@@ -0,0 +1,100 @@
+package database;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Produces BCrypt password hashes in the format the Skarb application stores in {@code users.password}.
+ * BCrypt is deliberately slow, so hashes are computed on a worker pool, and hashes of shared fixture
+ * passwords are computed only once per run.
+ */
+public final class PasswordHasher implements AutoCloseable {
+
+    private final int cost;
+    private final int threads;
+    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<String>> sharedHashes = new ConcurrentHashMap<>();
+
+    public PasswordHasher(int cost, int threads) {
+        this.cost = cost;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "password-hasher-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public String hash(String password) {
+        return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+    }
+
+    public CompletableFuture<String> hashAsync(String password) {
+        return CompletableFuture.supplyAsync(() -> hash(password), executor);
+    }
+
+    public String hashShared(String password) {
+        return sharedHashes.computeIfAbsent(password, this::hashAsync).join();
+    }
+
+    public static boolean matches(String password, String hash) {
+        return BCrypt.checkpw(password, hash);
+    }
+
+    /**
+     * Pairs every item of the stream with the hash of its password. Items are read ahead in windows of a few
+     * items per worker thread, so hashing runs in parallel while the stream is still consumed lazily and in order.
+     */
+    public <T> Stream<Map.Entry<T, String>> hashAll(Stream<T> items, Function<T, String> passwordOf) {
+        Iterator<T> source = items.iterator();
+        int window = threads * 4;
+        Iterator<Map.Entry<T, String>> hashed = new Iterator<>() {
+            private final Deque<Map.Entry<T, CompletableFuture<String>>> pending = new ArrayDeque<>();
+
+            @Override
+            public boolean hasNext() {
+                fill();
+                return !pending.isEmpty();
+            }
+
+            @Override
+            public Map.Entry<T, String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<T, CompletableFuture<String>> entry = pending.pollFirst();
+                return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().join());
+            }
+
+            private void fill() {
+                while (pending.size() < window && source.hasNext()) {
+                    T item = source.next();
+                    pending.addLast(new AbstractMap.SimpleImmutableEntry<>(item, hashAsync(passwordOf.apply(item))));
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(hashed, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,41 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+final class PhysicalConnection {
+
+    private final Connection connection;
+    private final StatementCache statementCache;
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    PhysicalConnection(Connection connection, int statementCacheSize) {
+        this.connection = connection;
+        this.statementCache = new StatementCache(connection, statementCacheSize);
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    long getLastUsedNanos() {
+        return lastUsedNanos;
+    }
+
+    void markUsed() {
+        lastUsedNanos = System.nanoTime();
+    }
+
+    void close() {
+        statementCache.clear();
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // the connection is being discarded anyway
+        }
+    }
+}
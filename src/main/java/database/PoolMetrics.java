@@ -0,0 +1,54 @@
+package database;
+
+public final class PoolMetrics {
+
+    private final int activeConnections;
+    private final int idleConnections;
+    private final long createdConnections;
+    private final long borrowCount;
+    private final long totalWaitMillis;
+    private final long maxWaitMillis;
+
+    PoolMetrics(int activeConnections, int idleConnections, long createdConnections, long borrowCount, long totalWaitMillis, long maxWaitMillis) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.createdConnections = createdConnections;
+        this.borrowCount = borrowCount;
+        this.totalWaitMillis = totalWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public long getCreatedConnections() {
+        return createdConnections;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getTotalWaitMillis() {
+        return totalWaitMillis;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public double getAverageWaitMillis() {
+        return borrowCount == 0 ? 0 : (double) totalWaitMillis / borrowCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("active=%d, idle=%d, created=%d, borrowed=%d, waitTotal=%dms, waitAvg=%.2fms, waitMax=%dms",
+                activeConnections, idleConnections, createdConnections, borrowCount, totalWaitMillis, getAverageWaitMillis(), maxWaitMillis);
+    }
+}
@@ -0,0 +1,59 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A connection leased from {@link ConnectionPool}. Closing it returns the underlying connection to the pool.
+ */
+public final class PooledConnection implements AutoCloseable {
+
+    private final ConnectionPool pool;
+    private final PhysicalConnection physicalConnection;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+    private volatile boolean broken;
+
+    PooledConnection(ConnectionPool pool, PhysicalConnection physicalConnection) {
+        this.pool = pool;
+        this.physicalConnection = physicalConnection;
+    }
+
+    public Connection getConnection() {
+        if (released.get()) {
+            throw new IllegalStateException("Connection has already been returned to the pool.");
+        }
+        return physicalConnection.getConnection();
+    }
+
+    /**
+     * Returns a cached prepared statement for the given SQL. The statement belongs to the connection's
+     * statement cache and must not be closed by the caller; only its result sets should be closed.
+     */
+    public PreparedStatement prepareCached(String sql) throws SQLException {
+        if (released.get()) {
+            throw new IllegalStateException("Connection has already been returned to the pool.");
+        }
+        return physicalConnection.getStatementCache().prepare(sql);
+    }
+
+    public void markBroken() {
+        broken = true;
+    }
+
+    PhysicalConnection getPhysicalConnection() {
+        return physicalConnection;
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            pool.release(this);
+        }
+    }
+}
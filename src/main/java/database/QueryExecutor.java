@@ -0,0 +1,125 @@
+package database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Runs parameterized SQL on connections borrowed from the pool. Statements come from the per-connection
+ * statement cache, so repeated queries reuse both the client-side statement and the server-side plan.
+ * Every round trip is timed and recorded in {@link QueryStatistics}. Calls go through {@link DatabaseResilience}:
+ * transient errors are retried on a fresh connection and a circuit breaker fails fast while the database is down.
+ */
+public final class QueryExecutor {
+
+    @FunctionalInterface
+    public interface ConnectionCallback<T> {
+        T doInConnection(PooledConnection connection) throws SQLException;
+    }
+
+    private final ConnectionPool connectionPool;
+    private final SqlDialect dialect;
+    private final DatabaseResilience resilience;
+
+    public QueryExecutor(ConnectionPool connectionPool, SqlDialect dialect, DatabaseResilience resilience) {
+        this.connectionPool = connectionPool;
+        this.dialect = dialect;
+        this.resilience = resilience;
+    }
+
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
+    public <T> List<T> queryForList(String sql, RowMapper<T> rowMapper, SqlParameter... parameters) throws SQLException {
+        return execute(connection -> queryForList(connection, sql, rowMapper, parameters));
+    }
+
+    public <T> Optional<T> queryForOptional(String sql, RowMapper<T> rowMapper, SqlParameter... parameters) throws SQLException {
+        return execute(connection -> queryForOptional(connection, sql, rowMapper, parameters));
+    }
+
+    public int update(String sql, SqlParameter... parameters) throws SQLException {
+        return execute(connection -> update(connection, sql, parameters));
+    }
+
+    public DatabaseResilience getResilience() {
+        return resilience;
+    }
+
+    /**
+     * Runs the callback on a pooled connection and retries it on transient errors, so the callback must be
+     * safe to run again from the start (a single statement, or a transaction it rolls back on failure).
+     */
+    public <T> T execute(ConnectionCallback<T> callback) throws SQLException {
+        return resilience.callWithRetry(() -> executeOnConnection(callback));
+    }
+
+    /**
+     * Runs the callback once, for callbacks that consume a stream or write output and cannot be repeated.
+     */
+    public <T> T executeOnce(ConnectionCallback<T> callback) throws SQLException {
+        return resilience.callOnce(() -> executeOnConnection(callback));
+    }
+
+    public static <T> List<T> queryForList(PooledConnection connection, String sql, RowMapper<T> rowMapper, SqlParameter... parameters) throws SQLException {
+        PreparedStatement statement = connection.prepareCached(sql);
+        SqlParameter.bindAll(statement, parameters);
+        long start = System.nanoTime();
+        List<T> rows = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows.add(rowMapper.mapRow(resultSet));
+            }
+        } finally {
+            QueryStatistics.record(sql, System.nanoTime() - start, rows.size());
+        }
+        return rows;
+    }
+
+    public static <T> Optional<T> queryForOptional(PooledConnection connection, String sql, RowMapper<T> rowMapper, SqlParameter... parameters) throws SQLException {
+        PreparedStatement statement = connection.prepareCached(sql);
+        SqlParameter.bindAll(statement, parameters);
+        long start = System.nanoTime();
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) {
+                return Optional.empty();
+            }
+            rows = 1;
+            return Optional.ofNullable(rowMapper.mapRow(resultSet));
+        } finally {
+            QueryStatistics.record(sql, System.nanoTime() - start, rows);
+        }
+    }
+
+    public static int update(PooledConnection connection, String sql, SqlParameter... parameters) throws SQLException {
+        PreparedStatement statement = connection.prepareCached(sql);
+        SqlParameter.bindAll(statement, parameters);
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            rows = statement.executeUpdate();
+            return rows;
+        } finally {
+            QueryStatistics.record(sql, System.nanoTime() - start, rows);
+        }
+    }
+
+    private <T> T executeOnConnection(ConnectionCallback<T> callback) throws SQLException {
+        try (PooledConnection connection = connectionPool.borrow()) {
+            try {
+                return callback.doInConnection(connection);
+            } catch (SQLException ex) {
+                if (DatabaseResilience.isConnectionFailure(ex)) {
+                    connection.markBroken();
+                    connectionPool.discardIdleConnections();
+                }
+                throw ex;
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package database;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Run-wide and per-test record of every SQL round trip made through the database layer, grouped by query
+ * fingerprint (the SQL text with literals and {@code IN} lists collapsed). A test scope is bound to the
+ * thread that calls {@link #beginTest()}, so queries of background threads only count for the run.
+ */
+public final class QueryStatistics {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, Entry> runEntries = new ConcurrentHashMap<>();
+    private static final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Map<String, Entry>> testEntries = new ThreadLocal<>();
+
+    private QueryStatistics() {
+    }
+
+    /**
+     * Calls, rows and latencies of one query fingerprint. Latencies go into a fixed log-scaled histogram with 16
+     * buckets per power of two, so an entry takes the same memory however many calls it records, and its
+     * percentiles are within about 3% of the exact ones; the total and the maximum are exact.
+     */
+    public static final class Entry {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+        private long calls;
+        private long rows;
+        private long totalNanos;
+        private long maxNanos;
+        private final long[] buckets = new long[BUCKETS];
+
+        private synchronized void record(long nanos, long rowCount) {
+            long latency = Math.max(0, nanos);
+            buckets[bucketOf(latency)]++;
+            calls++;
+            rows += rowCount;
+            totalNanos += latency;
+            maxNanos = Math.max(maxNanos, latency);
+        }
+
+        public synchronized long getCalls() {
+            return calls;
+        }
+
+        public synchronized long getRows() {
+            return rows;
+        }
+
+        public synchronized double getTotalMillis() {
+            return toMillis(totalNanos);
+        }
+
+        /**
+         * Nearest-rank percentile of the recorded latencies, e.g. {@code 0.95} for p95, taken as the middle of
+         * the histogram bucket it falls into; {@code 1.0} returns the exact maximum.
+         */
+        public synchronized double getPercentileMillis(double percentile) {
+            if (calls == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, Math.min(calls, (long) Math.ceil(percentile * calls)));
+            if (rank == calls) {
+                return toMillis(maxNanos);
+            }
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += buckets[bucket];
+                if (seen >= rank) {
+                    return toMillis(Math.min(maxNanos, bucketMiddle(bucket)));
+                }
+            }
+            return toMillis(maxNanos);
+        }
+
+        /**
+         * Latencies below 16 ns get a bucket each; above, every power of two is split into 16 equal buckets.
+         */
+        private static int bucketOf(long nanos) {
+            if (nanos < SUB_BUCKETS) {
+                return (int) nanos;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        private static long bucketMiddle(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+            return lowerBound + ((1L << shift) >> 1);
+        }
+
+        synchronized String toJson(String fingerprint) {
+            return String.format(Locale.ROOT,
+                    "{\"fingerprint\":%s,\"calls\":%d,\"rows\":%d,\"totalMs\":%.3f,\"p50Ms\":%.3f,\"p95Ms\":%.3f,\"p99Ms\":%.3f,\"maxMs\":%.3f}",
+                    JsonStrings.quote(fingerprint), calls, rows, getTotalMillis(),
+                    getPercentileMillis(0.50), getPercentileMillis(0.95), getPercentileMillis(0.99), getPercentileMillis(1.0));
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format(Locale.ROOT, "calls=%d, rows=%d, p50=%.2fms, p95=%.2fms, p99=%.2fms, max=%.2fms",
+                    calls, rows, getPercentileMillis(0.50), getPercentileMillis(0.95), getPercentileMillis(0.99), getPercentileMillis(1.0));
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+    static void record(String sql, long nanos, long rows) {
+        String fingerprint = fingerprints.computeIfAbsent(sql, QueryStatistics::fingerprint);
+        runEntries.computeIfAbsent(fingerprint, key -> new Entry()).record(nanos, rows);
+        Map<String, Entry> test = testEntries.get();
+        if (test != null) {
+            test.computeIfAbsent(fingerprint, key -> new Entry()).record(nanos, rows);
+        }
+    }
+
+    static String fingerprint(String sql) {
+        String fingerprint = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = IN_LIST.matcher(fingerprint).replaceAll("IN (?...)");
+        return WHITESPACE.matcher(fingerprint).replaceAll(" ").trim();
+    }
+
+    /**
+     * Starts recording the queries of the calling thread for one test, replacing any unfinished scope.
+     */
+    public static void beginTest() {
+        testEntries.set(new LinkedHashMap<>());
+    }
+
+    /**
+     * Ends the scope started by {@link #beginTest()} and returns its queries by fingerprint.
+     */
+    public static Map<String, Entry> endTest() {
+        Map<String, Entry> test = testEntries.get();
+        testEntries.remove();
+        return test == null ? Collections.emptyMap() : Collections.unmodifiableMap(new TreeMap<>(test));
+    }
+
+    public static long countRoundTrips(Map<String, Entry> entries) {
+        return entries.values().stream().mapToLong(Entry::getCalls).sum();
+    }
+
+    public static Map<String, Entry> snapshot() {
+        return Collections.unmodifiableMap(new TreeMap<>(runEntries));
+    }
+
+    public static String toJson(String scope, Map<String, Entry> entries) {
+        StringBuilder json = new StringBuilder("{\"scope\":").append(JsonStrings.quote(scope))
+                .append(",\"roundTrips\":").append(countRoundTrips(entries))
+                .append(",\"queries\":[");
+        boolean first = true;
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            json.append(entry.getValue().toJson(entry.getKey()));
+            first = false;
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Writes the run-wide statistics followed by the given per-test statistics as one JSON document.
+     */
+    public static void writeJson(Path target, Map<String, Map<String, Entry>> tests) throws IOException {
+        StringBuilder json = new StringBuilder("{\"run\":").append(toJson("run", snapshot())).append(",\"tests\":[");
+        boolean first = true;
+        for (Map.Entry<String, Map<String, Entry>> test : tests.entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            json.append(toJson(test.getKey(), test.getValue()));
+            first = false;
+        }
+        json.append("]}\n");
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(target, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static void reset() {
+        runEntries.clear();
+    }
+}
@@ -0,0 +1,85 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Collects column mismatches between expected values and a database row snapshot,
+ * so that every wrong column is reported at once.
+ */
+public final class RecordDiff {
+
+    public static final class Mismatch {
+        private final String column;
+        private final Object expected;
+        private final Object actual;
+
+        private Mismatch(String column, Object expected, Object actual) {
+            this.column = column;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        public Object getExpected() {
+            return expected;
+        }
+
+        public Object getActual() {
+            return actual;
+        }
+
+        @Override
+        public String toString() {
+            return column + ": expected <" + expected + "> but was <" + actual + ">";
+        }
+    }
+
+    private final String recordDescription;
+    private final List<Mismatch> mismatches = new ArrayList<>();
+
+    public RecordDiff(String recordDescription) {
+        this.recordDescription = recordDescription;
+    }
+
+    public RecordDiff compare(String column, Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) {
+            mismatches.add(new Mismatch(column, expected, actual));
+        }
+        return this;
+    }
+
+    public List<Mismatch> getMismatches() {
+        return Collections.unmodifiableList(mismatches);
+    }
+
+    public boolean hasMismatches() {
+        return !mismatches.isEmpty();
+    }
+
+    public void assertNoMismatches() {
+        if (hasMismatches()) {
+            throw new AssertionError(toString());
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (mismatches.isEmpty()) {
+            return recordDescription + " matches the expected data.";
+        }
+        StringBuilder report = new StringBuilder(recordDescription)
+                .append(" differs from the expected data in ")
+                .append(mismatches.size())
+                .append(" column(s):");
+        for (Mismatch mismatch : mismatches) {
+            report.append(System.lineSeparator()).append("  - ").append(mismatch);
+        }
+        return report.toString();
+    }
+}
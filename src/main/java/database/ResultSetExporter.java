@@ -0,0 +1,97 @@
+package database;
+
+import com.microsoft.sqlserver.jdbc.SQLServerStatement;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams query results into a file. The query runs on a forward-only, read-only cursor with the
+ * configured fetch size, and on SQL Server with adaptive response buffering, so the driver holds one
+ * fetch of rows at a time and memory stays flat whatever the size of the table.
+ */
+public final class ResultSetExporter {
+
+    private final QueryExecutor queryExecutor;
+    private final int fetchSize;
+
+    public ResultSetExporter(QueryExecutor queryExecutor, int fetchSize) {
+        this.queryExecutor = queryExecutor;
+        this.fetchSize = fetchSize;
+    }
+
+    public ExportReport export(String sql, Path target, ExportFormat format, SqlParameter... parameters) throws SQLException, IOException {
+        long startNanos = System.nanoTime();
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            long rows = queryExecutor.executeOnce(connection -> {
+                try (PreparedStatement statement = connection.getConnection().prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    statement.setFetchSize(fetchSize);
+                    if (statement.isWrapperFor(SQLServerStatement.class)) {
+                        statement.unwrap(SQLServerStatement.class).setResponseBuffering("adaptive");
+                    }
+                    SqlParameter.bindAll(statement, parameters);
+                    long start = System.nanoTime();
+                    long rowCount = 0;
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        rowCount = writeRows(resultSet, writer, format);
+                        return rowCount;
+                    } finally {
+                        QueryStatistics.record(sql, System.nanoTime() - start, rowCount);
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            return new ExportReport(target, format, rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static long writeRows(ResultSet resultSet, Writer writer, ExportFormat format) throws SQLException, IOException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        List<String> columns = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            columns.add(metaData.getColumnLabel(i));
+        }
+        format.writeHeader(writer, columns);
+        Object[] values = new Object[columnCount];
+        long rows = 0;
+        while (resultSet.next()) {
+            for (int i = 0; i < columnCount; i++) {
+                values[i] = toExportValue(resultSet.getObject(i + 1));
+            }
+            format.writeRow(writer, columns, values);
+            rows++;
+        }
+        return rows;
+    }
+
+    private static Object toExportValue(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        }
+        if (value instanceof byte[]) {
+            return Base64.getEncoder().encodeToString((byte[]) value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,51 @@
+package database;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class SeedingReport {
+
+    private final String table;
+    private final String strategy;
+    private final long rows;
+    private final long elapsedMillis;
+
+    public SeedingReport(String table, String strategy, long rows, long elapsedMillis) {
+        this.table = table;
+        this.strategy = strategy;
+        this.rows = rows;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public static SeedingReport combine(String table, List<SeedingReport> reports) {
+        long rows = reports.stream().mapToLong(SeedingReport::getRows).sum();
+        long elapsedMillis = reports.stream().mapToLong(SeedingReport::getElapsedMillis).sum();
+        String strategy = reports.stream().map(SeedingReport::getStrategy).distinct().collect(Collectors.joining(" + "));
+        return new SeedingReport(table, strategy, rows, elapsedMillis);
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rows * 1000.0 : rows * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d rows in %d ms via %s (%.0f rows/sec)", table, rows, elapsedMillis, strategy, getRowsPerSecond());
+    }
+}
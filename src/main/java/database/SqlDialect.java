@@ -0,0 +1,15 @@
+package database;
+
+/**
+ * SQL flavour of the database behind the pool. Queries that rely on SQL Server only syntax
+ * ({@code OUTPUT}, {@code OBJECT_ID}, {@code SYSUTCDATETIME}) keep an equivalent for the embedded H2 database.
+ */
+public enum SqlDialect {
+
+    SQL_SERVER,
+    H2;
+
+    public String sql(String sqlServerSql, String h2Sql) {
+        return this == H2 ? h2Sql : sqlServerSql;
+    }
+}
@@ -0,0 +1,52 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fixed-size {@code IN (?, ?, ...)} lists. A short list of keys is padded by repeating its last key, which
+ * does not change the result of an {@code IN} predicate but keeps the SQL text, and so the cached
+ * statement and the server plan, the same for every list of that size.
+ */
+final class SqlInList {
+
+    private SqlInList() {
+    }
+
+    static String placeholders(int size) {
+        return String.join(", ", Collections.nCopies(size, "?"));
+    }
+
+    /**
+     * Binds {@code keys} (strings or longs) to {@code size} parameters.
+     */
+    static SqlParameter[] padded(List<?> keys, int size) {
+        SqlParameter[] parameters = new SqlParameter[size];
+        for (int i = 0; i < size; i++) {
+            Object key = keys.get(Math.min(i, keys.size() - 1));
+            parameters[i] = key instanceof Long ? SqlParameter.longValue((Long) key) : SqlParameter.string((String) key);
+        }
+        return parameters;
+    }
+
+    static <T> List<List<T>> chunks(List<T> keys, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i += size) {
+            chunks.add(keys.subList(i, Math.min(i + size, keys.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Smallest power of two that fits {@code count} keys, capped at {@code maxSize}, so lists of varying
+     * length map to a handful of distinct statements.
+     */
+    static int bucketSize(int count, int maxSize) {
+        int size = 1;
+        while (size < count && size < maxSize) {
+            size <<= 1;
+        }
+        return Math.min(size, maxSize);
+    }
+}
@@ -0,0 +1,87 @@
+package database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+/**
+ * A typed value bound to a {@code ?} placeholder of a prepared statement.
+ */
+public final class SqlParameter {
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement statement, int index) throws SQLException;
+    }
+
+    private final Object value;
+    private final Binder binder;
+
+    private SqlParameter(Object value, Binder binder) {
+        this.value = value;
+        this.binder = binder;
+    }
+
+    public static SqlParameter string(String value) {
+        return new SqlParameter(value, (statement, index) -> {
+            if (value == null) {
+                statement.setNull(index, Types.NVARCHAR);
+            } else {
+                statement.setString(index, value);
+            }
+        });
+    }
+
+    public static SqlParameter integer(int value) {
+        return new SqlParameter(value, (statement, index) -> statement.setInt(index, value));
+    }
+
+    public static SqlParameter longValue(long value) {
+        return new SqlParameter(value, (statement, index) -> statement.setLong(index, value));
+    }
+
+    public static SqlParameter bool(boolean value) {
+        return new SqlParameter(value, (statement, index) -> statement.setBoolean(index, value));
+    }
+
+    public static SqlParameter timestamp(LocalDateTime value) {
+        return new SqlParameter(value, (statement, index) -> {
+            if (value == null) {
+                statement.setNull(index, Types.TIMESTAMP);
+            } else {
+                statement.setTimestamp(index, Timestamp.valueOf(value));
+            }
+        });
+    }
+
+    public static SqlParameter typed(Object value, int sqlType) {
+        return new SqlParameter(value, (statement, index) -> {
+            if (value == null) {
+                statement.setNull(index, sqlType);
+            } else {
+                statement.setObject(index, value, sqlType);
+            }
+        });
+    }
+
+    public void bindTo(PreparedStatement statement, int index) throws SQLException {
+        binder.bind(statement, index);
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    static void bindAll(PreparedStatement statement, SqlParameter... parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i].bindTo(statement, i + 1);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,100 @@
+package database;
+
+/**
+ * Snapshot of a row of the {@code volunteer_tasks} table.
+ */
+public final class TaskRecord {
+
+    static final String SELECT_BY_NAME = "SELECT id, name, description, expected_outcome, benefit, status FROM volunteer_tasks WHERE name = ?";
+
+    static final RowMapper<TaskRecord> ROW_MAPPER = rs -> new TaskRecord(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("description"),
+            rs.getString("expected_outcome"),
+            rs.getString("benefit"),
+            rs.getString("status"));
+
+    private final long id;
+    private final String name;
+    private final String description;
+    private final String expectedOutcome;
+    private final String benefit;
+    private final String status;
+
+    TaskRecord(long id, String name, String description, String expectedOutcome, String benefit, String status) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.expectedOutcome = expectedOutcome;
+        this.benefit = benefit;
+        this.status = status;
+    }
+
+    public Verification verify() {
+        return new Verification(this);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getExpectedOutcome() {
+        return expectedOutcome;
+    }
+
+    public String getBenefit() {
+        return benefit;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public static final class Verification {
+
+        private final TaskRecord record;
+        private final RecordDiff diff;
+
+        private Verification(TaskRecord record) {
+            this.record = record;
+            this.diff = new RecordDiff("Task '" + record.name + "'");
+        }
+
+        public Verification description(String expected) {
+            diff.compare("description", expected, record.description);
+            return this;
+        }
+
+        public Verification expectedOutcome(String expected) {
+            diff.compare("expected_outcome", expected, record.expectedOutcome);
+            return this;
+        }
+
+        public Verification benefit(String expected) {
+            diff.compare("benefit", expected, record.benefit);
+            return this;
+        }
+
+        public Verification status(String expected) {
+            diff.compare("status", expected, record.status);
+            return this;
+        }
+
+        public RecordDiff getDiff() {
+            return diff;
+        }
+
+        public void assertMatches() {
+            diff.assertNoMismatches();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Status of one {@code volunteer_tasks} row before and after a bulk status transition.
+ */
+public final class TaskStatusTransition {
+
+    static final RowMapper<TaskStatusTransition> ROW_MAPPER = TaskStatusTransition::new;
+
+    private final long id;
+    private final String name;
+    private final String previousStatus;
+    private final String newStatus;
+
+    private TaskStatusTransition(ResultSet rs) throws SQLException {
+        this.id = rs.getLong("id");
+        this.name = rs.getString("name");
+        this.previousStatus = rs.getString("previous_status");
+        this.newStatus = rs.getString("new_status");
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public String getNewStatus() {
+        return newStatus;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("'%s' (id %d): %s -> %s", name, id, previousStatus, newStatus);
+    }
+}
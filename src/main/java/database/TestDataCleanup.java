@@ -0,0 +1,353 @@
+package database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static database.SqlParameter.integer;
+import static database.SqlParameter.string;
+import static database.SqlParameter.timestamp;
+
+/**
+ * Deletes the users, organizations and tasks created by one test run. Tests register what they create; while
+ * a {@link Scope} is open on the thread, e.g. the one of a test class, the entities are registered in that
+ * scope and {@link Scope#cleanupAsync()} deletes only them, so classes running in parallel do not delete each
+ * other's rows. {@link #cleanupAsync()} drains everything registered so far, in any scope. Deletes run on a
+ * background thread in FK-safe order (tasks, users, then their partner/NGO rows), one chunk per transaction.
+ * The run id only labels the log and the reports; it is not stored in the database.
+ * Every chunk is bound to the same fixed-size {@code IN} list (the last chunk is padded with its own last
+ * key), so all chunks reuse one cached statement per table.
+ * {@link #sweep} removes leftovers of earlier runs that were never tracked or never cleaned up.
+ */
+public final class TestDataCleanup implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(TestDataCleanup.class);
+
+    // SQL Server accepts at most 2100 parameters per statement.
+    private static final int MAX_CHUNK_SIZE = 2000;
+
+    private static final String DELETE_TASKS_BY_NAME = "DELETE FROM volunteer_tasks WHERE name IN (%s)";
+
+    private static final String SELECT_ORGANIZATIONS = "SELECT organization_id, role FROM users WHERE organization_id IS NOT NULL AND email IN (%s)";
+
+    private static final String DELETE_TASKS_BY_ORGANIZATION = "DELETE FROM volunteer_tasks WHERE organization_id IN (%s)";
+
+    private static final String DELETE_USERS = "DELETE FROM users WHERE email IN (%s)";
+
+    private static final String DELETE_ORGANIZATIONS = "DELETE FROM %s WHERE id IN (%s) "
+            + "AND NOT EXISTS (SELECT 1 FROM users u WHERE u.organization_id = %s.id AND u.role = ?)";
+
+    private static final String ACCOUNT_POOL_EXISTS = "SELECT CASE WHEN OBJECT_ID('test_account_pool', 'U') IS NULL THEN 0 ELSE 1 END AS pool_exists";
+
+    private static final String ACCOUNT_POOL_EXISTS_H2 = "SELECT COUNT(*) AS pool_exists FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'test_account_pool'";
+
+    private static final String SELECT_LEFTOVERS = "SELECT TOP (?) email FROM users WHERE email LIKE ? AND created_date < ?";
+
+    private static final String EXCLUDE_ACCOUNT_POOL = " AND NOT EXISTS (SELECT 1 FROM test_account_pool p WHERE p.email = users.email)";
+
+    private final String runId = UUID.randomUUID().toString();
+    private final QueryExecutor queryExecutor;
+    private final int chunkSize;
+    private final Runnable afterDelete;
+    private final Set<String> userEmails = ConcurrentHashMap.newKeySet();
+    private final Set<String> taskNames = ConcurrentHashMap.newKeySet();
+    private final Set<Scope> openScopes = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
+    private final List<CompletableFuture<CleanupReport>> pendingCleanups = new CopyOnWriteArrayList<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "test-data-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param afterDelete called after every cleanup and sweep, e.g. to drop cached copies of deleted rows
+     */
+    public TestDataCleanup(QueryExecutor queryExecutor, int chunkSize, Runnable afterDelete) {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Cleanup chunk size must be between 1 and " + MAX_CHUNK_SIZE + ": " + chunkSize);
+        }
+        this.queryExecutor = queryExecutor;
+        this.chunkSize = chunkSize;
+        this.afterDelete = afterDelete;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public void trackUser(String email) {
+        Scope scope = currentScope.get();
+        (scope == null ? userEmails : scope.userEmails).add(email);
+    }
+
+    public void trackUsers(Collection<String> emails) {
+        Scope scope = currentScope.get();
+        (scope == null ? userEmails : scope.userEmails).addAll(emails);
+    }
+
+    public void trackTask(String taskName) {
+        Scope scope = currentScope.get();
+        (scope == null ? taskNames : scope.taskNames).add(taskName);
+    }
+
+    public int getTrackedCount() {
+        int count = userEmails.size() + taskNames.size();
+        for (Scope scope : openScopes) {
+            count += scope.userEmails.size() + scope.taskNames.size();
+        }
+        return count;
+    }
+
+    /**
+     * Opens a scope on the calling thread: until it is closed or cleaned up, what the thread tracks belongs
+     * to it. A scope opened while another one is open on the thread hides it until it ends.
+     */
+    public Scope openScope(String name) {
+        Scope scope = new Scope(name, currentScope.get());
+        openScopes.add(scope);
+        currentScope.set(scope);
+        return scope;
+    }
+
+    /**
+     * Deletes everything tracked so far, in any scope, on the cleanup thread. Entities tracked after this
+     * call are left for the next one.
+     */
+    public CompletableFuture<CleanupReport> cleanupAsync() {
+        List<String> emails = drain(userEmails);
+        List<String> tasks = drain(taskNames);
+        for (Scope scope : openScopes) {
+            emails.addAll(drain(scope.userEmails));
+            tasks.addAll(drain(scope.taskNames));
+        }
+        return startCleanup(runId, emails, tasks);
+    }
+
+    /**
+     * Waits for all cleanups started by {@link #cleanupAsync()}. Failed cleanups are logged and skipped.
+     */
+    public List<CleanupReport> awaitPendingCleanups(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<CleanupReport> reports = new ArrayList<>();
+        for (CompletableFuture<CleanupReport> cleanup : pendingCleanups) {
+            try {
+                reports.add(cleanup.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (ExecutionException ex) {
+                logger.error("Test data cleanup failed.", ex.getCause());
+            } catch (TimeoutException ex) {
+                logger.warn("Test data cleanup of run {} did not finish within {}.", runId, timeout);
+                break;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        pendingCleanups.removeIf(CompletableFuture::isDone);
+        return reports;
+    }
+
+    /**
+     * Deletes users whose email matches one of the {@code LIKE} patterns and that were created before
+     * {@code createdBefore}, together with their organizations and tasks. Accounts of the account pool and
+     * the {@code keepEmails} are never deleted. Runs synchronously, one chunk at a time.
+     */
+    public CleanupReport sweep(List<String> emailPatterns, LocalDateTime createdBefore, Collection<String> keepEmails) throws SQLException {
+        long startNanos = System.nanoTime();
+        boolean accountPoolExists = queryExecutor.queryForOptional(queryExecutor.getDialect().sql(ACCOUNT_POOL_EXISTS, ACCOUNT_POOL_EXISTS_H2), rs -> rs.getInt("pool_exists") == 1).orElse(false);
+        String selectLeftovers = accountPoolExists ? SELECT_LEFTOVERS + EXCLUDE_ACCOUNT_POOL : SELECT_LEFTOVERS;
+        int tasks = 0;
+        int users = 0;
+        int organizations = 0;
+        for (String pattern : emailPatterns) {
+            while (true) {
+                List<String> candidates = queryExecutor.queryForList(selectLeftovers, rs -> rs.getString("email"),
+                        integer(chunkSize + keepEmails.size()), string(pattern), timestamp(createdBefore));
+                candidates.removeAll(keepEmails);
+                if (candidates.isEmpty()) {
+                    break;
+                }
+                List<String> emails = candidates.subList(0, Math.min(chunkSize, candidates.size()));
+                int[] deleted = queryExecutor.execute(connection -> deleteUserChunk(connection, emails));
+                tasks += deleted[0];
+                users += deleted[1];
+                organizations += deleted[2];
+                logger.debug("Swept {} user(s) matching {}.", deleted[1], pattern);
+                if (deleted[1] == 0) {
+                    break;
+                }
+            }
+        }
+        afterDelete.run();
+        CleanupReport report = new CleanupReport("sweep", tasks, users, organizations, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        logger.info("Test data sweep finished: {}", report);
+        return report;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private CompletableFuture<CleanupReport> startCleanup(String name, List<String> emails, List<String> tasks) {
+        CompletableFuture<CleanupReport> cleanup = CompletableFuture.supplyAsync(() -> {
+            try {
+                return delete(name, emails, tasks);
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Cleanup of " + name + " failed.", ex);
+            }
+        }, executor);
+        pendingCleanups.add(cleanup);
+        return cleanup;
+    }
+
+    private CleanupReport delete(String name, List<String> emails, List<String> tasks) throws SQLException {
+        long startNanos = System.nanoTime();
+        int deletedTasks = 0;
+        int deletedUsers = 0;
+        int deletedOrganizations = 0;
+        for (List<String> chunk : chunks(tasks)) {
+            deletedTasks += queryExecutor.update(inList(DELETE_TASKS_BY_NAME), padded(chunk));
+        }
+        for (List<String> chunk : chunks(emails)) {
+            int[] deleted = queryExecutor.execute(connection -> deleteUserChunk(connection, chunk));
+            deletedTasks += deleted[0];
+            deletedUsers += deleted[1];
+            deletedOrganizations += deleted[2];
+        }
+        afterDelete.run();
+        CleanupReport report = new CleanupReport(name, deletedTasks, deletedUsers, deletedOrganizations,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        logger.info("Test data cleanup finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Deletes one chunk of users in a single transaction and returns the number of deleted tasks, users
+     * and organizations.
+     */
+    private int[] deleteUserChunk(PooledConnection pooledConnection, List<String> emails) throws SQLException {
+        Connection connection = pooledConnection.getConnection();
+        connection.setAutoCommit(false);
+        try {
+            List<Long> partnerIds = new ArrayList<>();
+            List<Long> ngoIds = new ArrayList<>();
+            for (Object[] organization : QueryExecutor.queryForList(pooledConnection, inList(SELECT_ORGANIZATIONS),
+                    rs -> new Object[]{rs.getLong("organization_id"), rs.getString("role")}, padded(emails))) {
+                if (AccountRole.NGO.getDatabaseRole().equals(organization[1])) {
+                    ngoIds.add((Long) organization[0]);
+                } else if (AccountRole.PARTNER.getDatabaseRole().equals(organization[1])) {
+                    partnerIds.add((Long) organization[0]);
+                }
+            }
+            int tasks = ngoIds.isEmpty() ? 0
+                    : QueryExecutor.update(pooledConnection, inList(DELETE_TASKS_BY_ORGANIZATION), padded(ngoIds));
+            int users = QueryExecutor.update(pooledConnection, inList(DELETE_USERS), padded(emails));
+            int organizations = deleteOrganizations(pooledConnection, "partners", AccountRole.PARTNER, partnerIds)
+                    + deleteOrganizations(pooledConnection, "ngos", AccountRole.NGO, ngoIds);
+            connection.commit();
+            return new int[]{tasks, users, organizations};
+        } catch (SQLException | RuntimeException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private int deleteOrganizations(PooledConnection connection, String table, AccountRole role, List<Long> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        SqlParameter[] parameters = new SqlParameter[chunkSize + 1];
+        System.arraycopy(padded(ids), 0, parameters, 0, chunkSize);
+        parameters[chunkSize] = string(role.getDatabaseRole());
+        String sql = String.format(DELETE_ORGANIZATIONS, table, SqlInList.placeholders(chunkSize), table);
+        return QueryExecutor.update(connection, sql, parameters);
+    }
+
+    private String inList(String template) {
+        return String.format(template, SqlInList.placeholders(chunkSize));
+    }
+
+    private SqlParameter[] padded(List<?> keys) {
+        return SqlInList.padded(keys, chunkSize);
+    }
+
+    private List<List<String>> chunks(List<String> keys) {
+        return SqlInList.chunks(keys, chunkSize);
+    }
+
+    /**
+     * Entities tracked by one thread between {@link #openScope} and the end of the scope, e.g. by one test class.
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final String name;
+        private final Scope enclosing;
+        private final Set<String> userEmails = ConcurrentHashMap.newKeySet();
+        private final Set<String> taskNames = ConcurrentHashMap.newKeySet();
+
+        private Scope(String name, Scope enclosing) {
+            this.name = name;
+            this.enclosing = enclosing;
+        }
+
+        /**
+         * Ends the scope and deletes what was tracked in it on the cleanup thread.
+         */
+        public CompletableFuture<CleanupReport> cleanupAsync() {
+            end();
+            return startCleanup(runId + " " + name, drain(userEmails), drain(taskNames));
+        }
+
+        /**
+         * Ends the scope without deleting anything; what was tracked in it is left to {@link TestDataCleanup#cleanupAsync()}.
+         */
+        @Override
+        public void close() {
+            end();
+            TestDataCleanup.this.userEmails.addAll(drain(userEmails));
+            TestDataCleanup.this.taskNames.addAll(drain(taskNames));
+        }
+
+        private void end() {
+            openScopes.remove(this);
+            if (currentScope.get() == this) {
+                if (enclosing == null) {
+                    currentScope.remove();
+                } else {
+                    currentScope.set(enclosing);
+                }
+            }
+        }
+    }
+
+    private static List<String> drain(Set<String> keys) {
+        List<String> drained = new ArrayList<>();
+        Iterator<String> iterator = keys.iterator();
+        while (iterator.hasNext()) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+}
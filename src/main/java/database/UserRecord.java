@@ -0,0 +1,178 @@
+package database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Snapshot of a row of the {@code users} table together with the name of the partner or NGO organization it belongs to.
+ * Partners and NGOs share the id range of {@code organization_id}, so each organization table is joined only for users
+ * of its role. The snapshot also records how many users have the email, as the email is not unique in the schema.
+ */
+public final class UserRecord {
+
+    static final String SELECT_BY_EMAIL = "SELECT u.id, u.email, u.first_name, u.last_name, u.position_in_organization, u.email_confirmed, u.role, u.organization_id, "
+            + "p.name AS partner_name, n.name AS ngo_name, n.confirmed AS ngo_confirmed, COUNT(*) OVER () AS users_with_email "
+            + "FROM users u "
+            + "LEFT JOIN partners p ON p.id = u.organization_id AND u.role = 'ROLE_PARTNER' "
+            + "LEFT JOIN ngos n ON n.id = u.organization_id AND u.role = 'ROLE_NGO' "
+            + "WHERE u.email = ? "
+            + "ORDER BY u.id";
+
+    static final RowMapper<UserRecord> ROW_MAPPER = rs -> new UserRecord(
+            rs.getLong("id"),
+            rs.getString("email"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getString("position_in_organization"),
+            rs.getBoolean("email_confirmed"),
+            rs.getString("role"),
+            getNullableLong(rs, "organization_id"),
+            rs.getString("partner_name"),
+            rs.getString("ngo_name"),
+            rs.getBoolean("ngo_confirmed"),
+            rs.getInt("users_with_email"));
+
+    private final long id;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final String positionInOrganization;
+    private final boolean emailConfirmed;
+    private final String role;
+    private final Long organizationId;
+    private final String partnerOrganizationName;
+    private final String ngoOrganizationName;
+    private final boolean ngoConfirmed;
+    private final int usersWithEmail;
+
+    UserRecord(long id, String email, String firstName, String lastName, String positionInOrganization, boolean emailConfirmed,
+               String role, Long organizationId, String partnerOrganizationName, String ngoOrganizationName, boolean ngoConfirmed,
+               int usersWithEmail) {
+        this.id = id;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.positionInOrganization = positionInOrganization;
+        this.emailConfirmed = emailConfirmed;
+        this.role = role;
+        this.organizationId = organizationId;
+        this.partnerOrganizationName = partnerOrganizationName;
+        this.ngoOrganizationName = ngoOrganizationName;
+        this.ngoConfirmed = ngoConfirmed;
+        this.usersWithEmail = usersWithEmail;
+    }
+
+    public Verification verify() {
+        return new Verification(this);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getPositionInOrganization() {
+        return positionInOrganization;
+    }
+
+    public boolean isEmailConfirmed() {
+        return emailConfirmed;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Long getOrganizationId() {
+        return organizationId;
+    }
+
+    public String getPartnerOrganizationName() {
+        return partnerOrganizationName;
+    }
+
+    public String getNgoOrganizationName() {
+        return ngoOrganizationName;
+    }
+
+    public boolean isNgoConfirmed() {
+        return ngoConfirmed;
+    }
+
+    /**
+     * Number of rows of {@code users} with the email of this one, including it; the snapshot is the one with the lowest id.
+     */
+    public int getUsersWithEmail() {
+        return usersWithEmail;
+    }
+
+    private static Long getNullableLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    public static final class Verification {
+
+        private final UserRecord record;
+        private final RecordDiff diff;
+
+        private Verification(UserRecord record) {
+            this.record = record;
+            this.diff = new RecordDiff("User " + record.email);
+        }
+
+        public Verification firstName(String expected) {
+            diff.compare("first_name", expected, record.firstName);
+            return this;
+        }
+
+        public Verification lastName(String expected) {
+            diff.compare("last_name", expected, record.lastName);
+            return this;
+        }
+
+        public Verification positionInOrganization(String expected) {
+            diff.compare("position_in_organization", expected, record.positionInOrganization);
+            return this;
+        }
+
+        public Verification emailConfirmed(boolean expected) {
+            diff.compare("email_confirmed", expected, record.emailConfirmed);
+            return this;
+        }
+
+        public Verification partnerOrganizationName(String expected) {
+            diff.compare("partners.name", expected, record.partnerOrganizationName);
+            return this;
+        }
+
+        public Verification ngoOrganizationName(String expected) {
+            diff.compare("ngos.name", expected, record.ngoOrganizationName);
+            return this;
+        }
+
+        public Verification ngoConfirmed(boolean expected) {
+            diff.compare("ngos.confirmed", expected, record.ngoConfirmed);
+            return this;
+        }
+
+        public RecordDiff getDiff() {
+            return diff;
+        }
+
+        public void assertMatches() {
+            diff.assertNoMismatches();
+        }
+    }
+}
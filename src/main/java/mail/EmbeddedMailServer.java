@@ -0,0 +1,95 @@
+package mail;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utils.TestConfiguration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+
+/**
+ * In-process stand-in for the MailHog instance of the test environment: an SMTP server that the application
+ * under test can deliver to, an in-memory {@link MailStore}, and the MailHog JSON API over that store. Used
+ * instead of {@code URL_MailHog} when {@code mail_mode = EMBEDDED}, which makes email assertions independent
+ * of the remote server, e.g. for a locally started Skarb configured with
+ * {@code spring.mail.host=localhost} and {@code spring.mail.port=<mail_embedded_smtp_port>}.
+ */
+public final class EmbeddedMailServer implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(EmbeddedMailServer.class);
+
+    private final MailStore store;
+    private final SmtpServer smtpServer;
+    private final MailHogApiServer apiServer;
+
+    private EmbeddedMailServer(MailStore store, SmtpServer smtpServer, MailHogApiServer apiServer) {
+        this.store = store;
+        this.smtpServer = smtpServer;
+        this.apiServer = apiServer;
+    }
+
+    /**
+     * Starts the servers on the loopback interface; port 0 picks a free port.
+     */
+    public static EmbeddedMailServer start(int smtpPort, int apiPort, int maxMessages) throws IOException {
+        MailStore store = new MailStore(maxMessages);
+        SmtpServer smtpServer = new SmtpServer(smtpPort, store);
+        try {
+            EmbeddedMailServer server = new EmbeddedMailServer(store, smtpServer, new MailHogApiServer(apiPort, store));
+            logger.info("Embedded mail server: SMTP on port {}, MailHog API on {}, keeping up to {} messages.", server.getSmtpPort(), server.getApiUri(), maxMessages);
+            return server;
+        } catch (IOException ex) {
+            smtpServer.close();
+            throw ex;
+        }
+    }
+
+    private static final class InstanceHolder {
+        private static final EmbeddedMailServer INSTANCE = fromConfiguration(TestConfiguration.get());
+    }
+
+    /**
+     * Returns the server of the run, started on first use with the ports of the test configuration.
+     */
+    public static EmbeddedMailServer getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    static EmbeddedMailServer fromConfiguration(TestConfiguration configuration) {
+        try {
+            return start(
+                    configuration.getInt("mail_embedded_smtp_port", 2525),
+                    configuration.getInt("mail_embedded_api_port", 8025),
+                    configuration.getInt("mail_embedded_max_messages", 10000));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Embedded mail server could not be started.", ex);
+        }
+    }
+
+    /**
+     * Returns whether the test configuration selects the embedded server ({@code mail_mode = EMBEDDED}) instead
+     * of the MailHog instance at {@code URL_MailHog}.
+     */
+    public static boolean isSelected(TestConfiguration configuration) {
+        return "EMBEDDED".equalsIgnoreCase(configuration.getString("mail_mode", "MAILHOG"));
+    }
+
+    public MailStore getStore() {
+        return store;
+    }
+
+    public int getSmtpPort() {
+        return smtpServer.getPort();
+    }
+
+    public URI getApiUri() {
+        return apiServer.getUri();
+    }
+
+    @Override
+    public void close() throws IOException {
+        apiServer.close();
+        smtpServer.close();
+    }
+}
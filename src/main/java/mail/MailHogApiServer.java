@@ -0,0 +1,234 @@
+package mail;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves the messages of a {@link MailStore} in the JSON format of the MailHog API, so {@link MailHogClient}
+ * works against the {@link EmbeddedMailServer} unchanged. Supported are {@code GET /api/v2/messages},
+ * {@code GET /api/v2/search} with {@code kind} {@code to}, {@code from} or {@code containing}, and
+ * {@code DELETE /api/v1/messages}. Unlike MailHog, {@code kind=to} matches whole addresses, which lets the
+ * search use the recipient index of the store.
+ */
+final class MailHogApiServer implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(MailHogApiServer.class);
+
+    private static final Pattern BOUNDARY = Pattern.compile("boundary=\"?([^\";]+)\"?", Pattern.CASE_INSENSITIVE);
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final MailStore store;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Json json = new Json();
+
+    MailHogApiServer(int port, MailStore store) throws IOException {
+        this.store = store;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "embedded-mailhog-api-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/api/v2/messages", exchange -> handle(exchange, "GET", () -> page(store.findAll(), exchange.getRequestURI())));
+        server.createContext("/api/v2/search", exchange -> handle(exchange, "GET", () -> page(search(exchange.getRequestURI()), exchange.getRequestURI())));
+        server.createContext("/api/v1/messages", exchange -> handle(exchange, "DELETE", () -> {
+            store.clear();
+            return null;
+        }));
+        server.start();
+    }
+
+    URI getUri() {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/");
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange, String method, ResponseBody body) throws IOException {
+        try (exchange) {
+            if (!method.equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            Object response;
+            try {
+                response = body.get();
+            } catch (RuntimeException ex) {
+                logger.warn("Rejected {} {}: {}", method, exchange.getRequestURI(), ex.toString());
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            if (response == null) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            byte[] bytes = json.toJson(response).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private List<MailStore.StoredMail> search(URI uri) {
+        Map<String, String> parameters = parameters(uri);
+        String kind = parameters.getOrDefault("kind", "");
+        String query = parameters.getOrDefault("query", "");
+        String lowerCaseQuery = query.toLowerCase(Locale.ROOT);
+        switch (kind) {
+            case "to":
+                return store.findByRecipient(query);
+            case "from":
+                return store.find(mail -> mail.getSender().toLowerCase(Locale.ROOT).contains(lowerCaseQuery));
+            case "containing":
+                return store.find(mail -> mail.getData().toLowerCase(Locale.ROOT).contains(lowerCaseQuery));
+            default:
+                throw new IllegalArgumentException("Unsupported search kind '" + kind + "'.");
+        }
+    }
+
+    private Map<String, Object> page(List<MailStore.StoredMail> messages, URI uri) {
+        Map<String, String> parameters = parameters(uri);
+        int start = Math.min(messages.size(), Integer.parseInt(parameters.getOrDefault("start", "0")));
+        int limit = Integer.parseInt(parameters.getOrDefault("limit", String.valueOf(DEFAULT_LIMIT)));
+        List<Object> items = new ArrayList<>();
+        for (MailStore.StoredMail mail : messages.subList(start, Math.min(messages.size(), start + limit))) {
+            items.add(item(mail));
+        }
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("total", messages.size());
+        page.put("count", items.size());
+        page.put("start", start);
+        page.put("items", items);
+        return page;
+    }
+
+    private static Map<String, Object> item(MailStore.StoredMail mail) {
+        List<Object> to = new ArrayList<>();
+        for (String recipient : mail.getRecipients()) {
+            to.add(path(recipient));
+        }
+        Map<String, Object> content = part(mail.getData());
+        Map<String, Object> raw = new LinkedHashMap<>();
+        raw.put("From", mail.getSender());
+        raw.put("To", mail.getRecipients());
+        raw.put("Data", mail.getData());
+        raw.put("Helo", "localhost");
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("ID", mail.getId());
+        item.put("From", path(mail.getSender()));
+        item.put("To", to);
+        item.put("Content", content);
+        item.put("Created", mail.getReceived().toString());
+        item.put("MIME", content.get("MIME"));
+        item.put("Raw", raw);
+        return item;
+    }
+
+    /**
+     * Splits a message or body part into headers and body, and a multipart body into its parts.
+     */
+    private static Map<String, Object> part(String data) {
+        int separator = data.indexOf("\r\n\r\n");
+        String head = separator < 0 ? data : data.substring(0, separator);
+        String body = separator < 0 ? "" : data.substring(separator + 4);
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        String name = null;
+        for (String line : head.split("\r\n")) {
+            if ((line.startsWith(" ") || line.startsWith("\t")) && name != null) {
+                List<String> values = headers.get(name);
+                values.set(values.size() - 1, values.get(values.size() - 1) + " " + line.trim());
+            } else if (line.indexOf(':') > 0) {
+                name = line.substring(0, line.indexOf(':')).trim();
+                headers.computeIfAbsent(name, ignored -> new ArrayList<>()).add(line.substring(line.indexOf(':') + 1).trim());
+            }
+        }
+        Map<String, Object> part = new LinkedHashMap<>();
+        part.put("Headers", headers);
+        part.put("Body", body);
+        part.put("Size", body.length());
+        part.put("MIME", null);
+        String contentType = headers.entrySet().stream()
+                .filter(header -> header.getKey().equalsIgnoreCase("Content-Type"))
+                .map(header -> header.getValue().get(0))
+                .findFirst().orElse("");
+        Matcher boundary = BOUNDARY.matcher(contentType);
+        if (contentType.toLowerCase(Locale.ROOT).startsWith("multipart/") && boundary.find()) {
+            List<Object> parts = new ArrayList<>();
+            String delimiter = "--" + boundary.group(1);
+            String[] sections = body.split("(?m)^" + Pattern.quote(delimiter));
+            for (int i = 1; i < sections.length; i++) {
+                String section = sections[i];
+                if (section.startsWith("--")) {
+                    break;
+                }
+                section = section.startsWith("\r\n") ? section.substring(2) : section;
+                section = section.endsWith("\r\n") ? section.substring(0, section.length() - 2) : section;
+                parts.add(part(section));
+            }
+            Map<String, Object> mime = new HashMap<>();
+            mime.put("Parts", parts);
+            part.put("MIME", mime);
+        }
+        return part;
+    }
+
+    private static Map<String, Object> path(String address) {
+        int at = address.lastIndexOf('@');
+        Map<String, Object> path = new LinkedHashMap<>();
+        path.put("Relays", null);
+        path.put("Mailbox", at < 0 ? address : address.substring(0, at));
+        path.put("Domain", at < 0 ? "" : address.substring(at + 1));
+        path.put("Params", "");
+        return path;
+    }
+
+    private static Map<String, String> parameters(URI uri) {
+        Map<String, String> parameters = new HashMap<>();
+        if (uri.getRawQuery() != null) {
+            for (String parameter : uri.getRawQuery().split("&")) {
+                int equals = parameter.indexOf('=');
+                if (equals > 0) {
+                    parameters.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                            URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    @FunctionalInterface
+    private interface ResponseBody {
+        Object get();
+    }
+}
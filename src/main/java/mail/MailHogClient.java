@@ -0,0 +1,132 @@
+package mail;
+
+import io.qameta.allure.Step;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import utils.PollingAwait;
+import utils.TestConfiguration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Reads the test mailbox through the MailHog JSON API instead of its web UI. A search by recipient is one HTTP
+ * request; waiting for a letter polls that search with backoff until {@code mailhog_timeout_ms}. Set
+ * {@code mailhog_user} and {@code mailhog_password} if the MailHog instance requires basic authentication.
+ * With {@code mail_mode = EMBEDDED} the client reads the {@link EmbeddedMailServer} instead of {@code URL_MailHog}.
+ */
+public final class MailHogClient {
+
+    private static final Logger logger = LogManager.getLogger(MailHogClient.class);
+
+    private static final String CONFIRMATION_LINK = "registration/confirm";
+    private static final int SEARCH_LIMIT = 50;
+
+    private final URI baseUri;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final Duration awaitTimeout;
+    private final String authorization;
+
+    public MailHogClient(URI baseUri, Duration requestTimeout, Duration awaitTimeout, String user, String password) {
+        this.baseUri = baseUri.toString().endsWith("/") ? baseUri : URI.create(baseUri + "/");
+        this.requestTimeout = requestTimeout;
+        this.awaitTimeout = awaitTimeout;
+        this.authorization = user == null ? null
+                : "Basic " + Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(requestTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    private static final class InstanceHolder {
+        private static final MailHogClient INSTANCE = fromConfiguration(TestConfiguration.get());
+    }
+
+    public static MailHogClient getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    static MailHogClient fromConfiguration(TestConfiguration configuration) {
+        return new MailHogClient(
+                EmbeddedMailServer.isSelected(configuration) ? EmbeddedMailServer.getInstance().getApiUri() : URI.create(configuration.getMailHogUrl()),
+                configuration.getMillis("mailhog_request_timeout_ms", 5000),
+                configuration.getMillis("mailhog_timeout_ms", 60000),
+                configuration.hasValue("mailhog_user") ? configuration.getString("mailhog_user") : null,
+                configuration.getString("mailhog_password", ""));
+    }
+
+    public URI getBaseUri() {
+        return baseUri;
+    }
+
+    /**
+     * Returns the messages addressed to the recipient, newest first, with one request.
+     */
+    @SuppressWarnings("unchecked")
+    public List<MailMessage> search(String recipient) {
+        URI uri = baseUri.resolve("api/v2/search?kind=to&limit=" + SEARCH_LIMIT + "&query=" + URLEncoder.encode(recipient, StandardCharsets.UTF_8));
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(requestTimeout).header("Accept", "application/json").GET();
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("MailHog search for " + recipient + " failed.", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching MailHog.", ex);
+        }
+        if (response.statusCode() != 200) {
+            throw new UncheckedIOException(new IOException("MailHog search for " + recipient + " returned HTTP " + response.statusCode() + "."));
+        }
+        Map<String, Object> result = new Json().toType(response.body(), Json.MAP_TYPE);
+        List<MailMessage> messages = new ArrayList<>();
+        for (Object item : (List<Object>) result.getOrDefault("items", List.of())) {
+            MailMessage message = MailMessage.fromApiItem((Map<String, Object>) item);
+            if (message.isAddressedTo(recipient)) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Waits for the newest message to the recipient that matches the filter.
+     */
+    public MailMessage awaitMessage(String recipient, Predicate<MailMessage> filter) {
+        List<MailMessage> messages = PollingAwait.await("MailHog message to " + recipient)
+                .atMost(awaitTimeout)
+                .pollInterval(Duration.ofMillis(250), Duration.ofSeconds(2))
+                .until(() -> search(recipient), found -> found.stream().anyMatch(filter));
+        MailMessage message = messages.stream().filter(filter).findFirst().orElseThrow();
+        logger.info("Found {} in MailHog.", message);
+        return message;
+    }
+
+    /**
+     * Waits for the registration letter to the recipient and returns its email confirmation link.
+     */
+    @Step("Get the email confirmation link sent to {recipient} from MailHog")
+    public String awaitConfirmationLink(String recipient) {
+        return awaitMessage(recipient, message -> message.findLink(CONFIRMATION_LINK).isPresent())
+                .findLink(CONFIRMATION_LINK)
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,247 @@
+package mail;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A message as returned by the MailHog JSON API, with the subject and the text and HTML bodies already decoded
+ * from their MIME transfer encodings and charsets.
+ */
+public final class MailMessage {
+
+    private static final Pattern ENCODED_WORD = Pattern.compile("=\\?([^?]+)\\?([BbQq])\\?([^?]*)\\?=");
+    private static final Pattern WHITESPACE_BETWEEN_ENCODED_WORDS = Pattern.compile("(\\?=)\\s+(=\\?)");
+    private static final Pattern CHARSET = Pattern.compile("charset=\"?([^\";\\s]+)\"?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LINK = Pattern.compile("https?://[^\\s\"'<>]+");
+
+    private final String id;
+    private final String from;
+    private final List<String> recipients;
+    private final String subject;
+    private final String textBody;
+    private final String htmlBody;
+    private final Instant created;
+
+    public MailMessage(String id, String from, List<String> recipients, String subject, String textBody, String htmlBody, Instant created) {
+        this.id = id;
+        this.from = from;
+        this.recipients = Collections.unmodifiableList(new ArrayList<>(recipients));
+        this.subject = subject;
+        this.textBody = textBody;
+        this.htmlBody = htmlBody;
+        this.created = created;
+    }
+
+    /**
+     * Builds the message from one element of the {@code items} array of {@code /api/v2/messages} or
+     * {@code /api/v2/search}.
+     */
+    @SuppressWarnings("unchecked")
+    static MailMessage fromApiItem(Map<String, Object> item) {
+        Map<String, Object> content = (Map<String, Object>) item.get("Content");
+        Map<String, Object> headers = (Map<String, Object>) content.get("Headers");
+        List<String> recipients = new ArrayList<>();
+        for (Object path : (List<Object>) item.getOrDefault("To", List.of())) {
+            recipients.add(address((Map<String, Object>) path));
+        }
+        String[] bodies = new String[2];
+        Map<String, Object> mime = (Map<String, Object>) item.get("MIME");
+        if (mime != null) {
+            collectBodies(mime, bodies);
+        } else {
+            collectBody(headers, (String) content.get("Body"), bodies);
+        }
+        return new MailMessage(
+                (String) item.get("ID"),
+                item.get("From") == null ? null : address((Map<String, Object>) item.get("From")),
+                recipients,
+                decodeHeader(header(headers, "Subject")),
+                bodies[0],
+                bodies[1],
+                parseCreated((String) item.get("Created")));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public List<String> getRecipients() {
+        return recipients;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getTextBody() {
+        return textBody;
+    }
+
+    public String getHtmlBody() {
+        return htmlBody;
+    }
+
+    public Instant getCreated() {
+        return created;
+    }
+
+    public boolean isAddressedTo(String recipient) {
+        return recipients.stream().anyMatch(recipient::equalsIgnoreCase);
+    }
+
+    /**
+     * Returns the first link of the HTML body, or of the text body, whose URL contains the given fragment, e.g.
+     * {@code registration/confirm}.
+     */
+    public Optional<String> findLink(String urlFragment) {
+        for (String body : new String[]{htmlBody, textBody}) {
+            if (body == null) {
+                continue;
+            }
+            Matcher matcher = LINK.matcher(body);
+            while (matcher.find()) {
+                String link = matcher.group().replace("&amp;", "&");
+                if (link.contains(urlFragment)) {
+                    return Optional.of(link);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public String toString() {
+        return "MailMessage{id=" + id + ", from=" + from + ", to=" + recipients + ", subject='" + subject + "', created=" + created + "}";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void collectBodies(Map<String, Object> mime, String[] bodies) {
+        for (Object part : (List<Object>) mime.getOrDefault("Parts", List.of())) {
+            Map<String, Object> mimePart = (Map<String, Object>) part;
+            Map<String, Object> nested = (Map<String, Object>) mimePart.get("MIME");
+            if (nested != null) {
+                collectBodies(nested, bodies);
+            } else {
+                collectBody((Map<String, Object>) mimePart.get("Headers"), (String) mimePart.get("Body"), bodies);
+            }
+        }
+    }
+
+    private static void collectBody(Map<String, Object> headers, String body, String[] bodies) {
+        String contentType = header(headers, "Content-Type");
+        String type = contentType == null ? "text/plain" : contentType.toLowerCase(Locale.ROOT);
+        int index = type.startsWith("text/plain") ? 0 : type.startsWith("text/html") ? 1 : -1;
+        if (index >= 0 && bodies[index] == null && body != null) {
+            bodies[index] = decodeBody(body, header(headers, "Content-Transfer-Encoding"), charsetOf(contentType));
+        }
+    }
+
+    static String decodeBody(String body, String transferEncoding, Charset charset) {
+        String encoding = transferEncoding == null ? "" : transferEncoding.trim().toLowerCase(Locale.ROOT);
+        switch (encoding) {
+            case "base64":
+                return new String(Base64.getMimeDecoder().decode(body), charset);
+            case "quoted-printable":
+                return new String(decodeQuotedPrintable(body.replaceAll("=\r?\n", ""), false), charset);
+            default:
+                return body;
+        }
+    }
+
+    /**
+     * Decodes RFC 2047 encoded words, e.g. {@code =?UTF-8?B?...?=}, as used for non-ASCII subjects.
+     */
+    static String decodeHeader(String value) {
+        if (value == null || !value.contains("=?")) {
+            return value;
+        }
+        Matcher matcher = ENCODED_WORD.matcher(WHITESPACE_BETWEEN_ENCODED_WORDS.matcher(value).replaceAll("$1$2"));
+        StringBuilder decoded = new StringBuilder();
+        while (matcher.find()) {
+            Charset charset = Charset.forName(matcher.group(1));
+            byte[] bytes = matcher.group(2).equalsIgnoreCase("B")
+                    ? Base64.getDecoder().decode(matcher.group(3))
+                    : decodeQuotedPrintable(matcher.group(3), true);
+            matcher.appendReplacement(decoded, Matcher.quoteReplacement(new String(bytes, charset)));
+        }
+        matcher.appendTail(decoded);
+        return decoded.toString();
+    }
+
+    private static byte[] decodeQuotedPrintable(String text, boolean underscoreIsSpace) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '=' && i + 2 < text.length() && isHex(text.charAt(i + 1)) && isHex(text.charAt(i + 2))) {
+                bytes.write(Integer.parseInt(text.substring(i + 1, i + 3), 16));
+                i += 2;
+            } else if (c == '_' && underscoreIsSpace) {
+                bytes.write(' ');
+            } else {
+                byte[] encoded = String.valueOf(c).getBytes(StandardCharsets.UTF_8);
+                bytes.write(encoded, 0, encoded.length);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static boolean isHex(char c) {
+        return Character.digit(c, 16) >= 0;
+    }
+
+    private static Charset charsetOf(String contentType) {
+        if (contentType != null) {
+            Matcher matcher = CHARSET.matcher(contentType);
+            if (matcher.find() && Charset.isSupported(matcher.group(1))) {
+                return Charset.forName(matcher.group(1));
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String header(Map<String, Object> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, Object> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                List<Object> values = (List<Object>) header.getValue();
+                return values == null || values.isEmpty() ? null : (String) values.get(0);
+            }
+        }
+        return null;
+    }
+
+    private static String address(Map<String, Object> path) {
+        return path.get("Mailbox") + "@" + path.get("Domain");
+    }
+
+    private static Instant parseCreated(String created) {
+        if (created == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(created).toInstant();
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
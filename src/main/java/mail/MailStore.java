@@ -0,0 +1,139 @@
+package mail;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe in-memory mailbox of the {@link EmbeddedMailServer}. Messages are indexed by recipient, so looking
+ * up the letters of one user does not scan the whole mailbox, and only the newest {@code maxMessages} messages
+ * are kept.
+ */
+public final class MailStore {
+
+    private final int maxMessages;
+    private final LinkedHashMap<String, StoredMail> messages = new LinkedHashMap<>();
+    private final Map<String, Deque<StoredMail>> messagesByRecipient = new HashMap<>();
+
+    public MailStore(int maxMessages) {
+        if (maxMessages < 1) {
+            throw new IllegalArgumentException("maxMessages must be positive, but was " + maxMessages + ".");
+        }
+        this.maxMessages = maxMessages;
+    }
+
+    public synchronized StoredMail add(String sender, List<String> recipients, String data) {
+        StoredMail mail = new StoredMail(UUID.randomUUID() + "@skarb-tests", sender, recipients, data, Instant.now());
+        messages.put(mail.getId(), mail);
+        for (String recipient : mail.getRecipients()) {
+            messagesByRecipient.computeIfAbsent(key(recipient), ignored -> new ArrayDeque<>()).addFirst(mail);
+        }
+        Iterator<StoredMail> oldest = messages.values().iterator();
+        while (messages.size() > maxMessages) {
+            evict(oldest.next());
+            oldest.remove();
+        }
+        return mail;
+    }
+
+    /**
+     * Returns the messages to the recipient, newest first.
+     */
+    public synchronized List<StoredMail> findByRecipient(String recipient) {
+        Deque<StoredMail> found = messagesByRecipient.get(key(recipient));
+        return found == null ? List.of() : new ArrayList<>(found);
+    }
+
+    /**
+     * Returns the messages that match the filter, newest first.
+     */
+    public synchronized List<StoredMail> find(Predicate<StoredMail> filter) {
+        List<StoredMail> found = new ArrayList<>();
+        for (StoredMail mail : messages.values()) {
+            if (filter.test(mail)) {
+                found.add(mail);
+            }
+        }
+        Collections.reverse(found);
+        return found;
+    }
+
+    public synchronized List<StoredMail> findAll() {
+        return find(mail -> true);
+    }
+
+    public synchronized int size() {
+        return messages.size();
+    }
+
+    public synchronized void clear() {
+        messages.clear();
+        messagesByRecipient.clear();
+    }
+
+    private void evict(StoredMail mail) {
+        for (String recipient : mail.getRecipients()) {
+            Deque<StoredMail> found = messagesByRecipient.get(key(recipient));
+            if (found != null) {
+                found.removeLastOccurrence(mail);
+                if (found.isEmpty()) {
+                    messagesByRecipient.remove(key(recipient));
+                }
+            }
+        }
+    }
+
+    private static String key(String recipient) {
+        return recipient.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A message as received over SMTP: the envelope and the raw data of the DATA command.
+     */
+    public static final class StoredMail {
+
+        private final String id;
+        private final String sender;
+        private final List<String> recipients;
+        private final String data;
+        private final Instant received;
+
+        private StoredMail(String id, String sender, List<String> recipients, String data, Instant received) {
+            this.id = id;
+            this.sender = sender;
+            this.recipients = List.copyOf(recipients);
+            this.data = data;
+            this.received = received;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getSender() {
+            return sender;
+        }
+
+        public List<String> getRecipients() {
+            return recipients;
+        }
+
+        public String getData() {
+            return data;
+        }
+
+        public Instant getReceived() {
+            return received;
+        }
+    }
+}
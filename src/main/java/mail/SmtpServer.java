@@ -0,0 +1,173 @@
+package mail;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal SMTP server that accepts every message and puts it into a {@link MailStore}. It speaks just enough of
+ * RFC 5321 for mail libraries and application servers to deliver to it: HELO/EHLO, MAIL, RCPT, DATA, RSET, NOOP
+ * and QUIT, without authentication or TLS. Listens on the loopback interface only.
+ */
+final class SmtpServer implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(SmtpServer.class);
+
+    private final MailStore store;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+
+    SmtpServer(int port, MailStore store) throws IOException {
+        this.store = store;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "embedded-smtp-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::acceptConnections);
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> handle(socket));
+            } catch (SocketException ex) {
+                return;
+            } catch (IOException ex) {
+                logger.warn("Failed to accept an SMTP connection: {}", ex.toString());
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 localhost ESMTP embedded mail server");
+            String sender = null;
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() < 4 ? line.toUpperCase(Locale.ROOT) : line.substring(0, 4).toUpperCase(Locale.ROOT);
+                switch (command) {
+                    case "HELO":
+                        reply(out, "250 localhost");
+                        break;
+                    case "EHLO":
+                        reply(out, "250-localhost\r\n250-8BITMIME\r\n250 SMTPUTF8");
+                        break;
+                    case "MAIL":
+                        sender = address(line);
+                        recipients.clear();
+                        reply(out, "250 OK");
+                        break;
+                    case "RCPT":
+                        if (sender == null) {
+                            reply(out, "503 MAIL first");
+                        } else {
+                            recipients.add(address(line));
+                            reply(out, "250 OK");
+                        }
+                        break;
+                    case "DATA":
+                        if (recipients.isEmpty()) {
+                            reply(out, "503 RCPT first");
+                            break;
+                        }
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        String data = readData(in);
+                        if (data == null) {
+                            return;
+                        }
+                        MailStore.StoredMail mail = store.add(sender, recipients, data);
+                        logger.debug("Received message {} from {} to {}.", mail.getId(), sender, recipients);
+                        reply(out, "250 OK queued as " + mail.getId());
+                        sender = null;
+                        recipients.clear();
+                        break;
+                    case "RSET":
+                        sender = null;
+                        recipients.clear();
+                        reply(out, "250 OK");
+                        break;
+                    case "NOOP":
+                        reply(out, "250 OK");
+                        break;
+                    case "VRFY":
+                        reply(out, "252 Cannot verify user");
+                        break;
+                    case "QUIT":
+                        reply(out, "221 Bye");
+                        return;
+                    default:
+                        reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException ex) {
+            logger.debug("SMTP connection closed: {}", ex.toString());
+        }
+    }
+
+    /**
+     * Reads the message up to the line with a single dot and removes the dot stuffing.
+     */
+    private static String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.equals(".")) {
+                return data.toString();
+            }
+            data.append(line.startsWith(".") ? line.substring(1) : line).append("\r\n");
+        }
+        return null;
+    }
+
+    /**
+     * Extracts the address of {@code MAIL FROM:<address> PARAMS} or {@code RCPT TO:<address>}.
+     */
+    private static String address(String line) {
+        int colon = line.indexOf(':');
+        String argument = colon < 0 ? "" : line.substring(colon + 1).trim();
+        int start = argument.indexOf('<');
+        int end = argument.indexOf('>');
+        if (start >= 0 && end > start) {
+            return argument.substring(start + 1, end);
+        }
+        int space = argument.indexOf(' ');
+        return space < 0 ? argument : argument.substring(0, space);
+    }
+
+    private static void reply(OutputStream out, String reply) throws IOException {
+        out.write((reply + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+}
@@ -2,9 +2,10 @@ package pageobjects;
 
 import com.codeborne.selenide.SelenideElement;
 import io.qameta.allure.Step;
+import utils.FormFiller;
+import utils.Locator;
 import utils.WebElementUtils;
 import static com.codeborne.selenide.Condition.*;
-import static com.codeborne.selenide.Selectors.by;
 import static com.codeborne.selenide.Selectors.byXpath;
 import static com.codeborne.selenide.Selenide.$;
 import static utils.ScreenshotMethods.attachScreenshotToAllureReport;
@@ -14,33 +15,33 @@ import java.time.format.DateTimeFormatter;
 
 public class CreatingNewTaskForVolunteerPage {
 
-    SelenideElement taskNameInput = $(by("name","name"));
-    SelenideElement selectCategoryField = $("#categoryIds");
-    SelenideElement deadlineInput = $(by("name","deadline"));
-    SelenideElement taskDescriptionInput = $(by("name","description"));
-    SelenideElement expectedOutcomeInput = $(by("name","expectedOutcome"));
-    SelenideElement volunteerBenefitInput = $(by("name","benefit"));
-    SelenideElement requirementsToVolunteerInput = $("input[id='requirements[0]']");
-    SelenideElement interviewRequiredCheckBox = $(by("name","interviewRequired"));
-    SelenideElement savedMoneyInput = $(by("name","savedMoney"));
-    SelenideElement firstWorkStageNameInput = $(byXpath("(//input[@name='stages[0].name'])[1]"));
-    SelenideElement firstWorkStageDurationInput = $(byXpath("(//input[@name='stages[0].duration'])[1]"));
-    SelenideElement firstWorkStageDescriptionInput = $("textarea[name='stages[0].description']");
-    SelenideElement secondWorkStageNameInput = $(byXpath("(//input[@name='stages[1].name'])[1]"));
-    SelenideElement secondWorkStageDurationInput = $(byXpath("(//input[@name='stages[1].duration'])[1]"));
-    SelenideElement secondWorkStageDescriptionInput = $("textarea[name='stages[1].description']");
+    Locator taskNameInput = Locator.name("name");
+    Locator selectCategoryField = Locator.css("#categoryIds");
+    Locator deadlineInput = Locator.name("deadline");
+    Locator taskDescriptionInput = Locator.name("description");
+    Locator expectedOutcomeInput = Locator.name("expectedOutcome");
+    Locator volunteerBenefitInput = Locator.name("benefit");
+    Locator requirementsToVolunteerInput = Locator.css("input[id='requirements[0]']");
+    Locator interviewRequiredCheckBox = Locator.name("interviewRequired");
+    Locator savedMoneyInput = Locator.name("savedMoney");
+    Locator firstWorkStageNameInput = Locator.xpath("(//input[@name='stages[0].name'])[1]");
+    Locator firstWorkStageDurationInput = Locator.xpath("(//input[@name='stages[0].duration'])[1]");
+    Locator firstWorkStageDescriptionInput = Locator.css("textarea[name='stages[0].description']");
+    Locator secondWorkStageNameInput = Locator.xpath("(//input[@name='stages[1].name'])[1]");
+    Locator secondWorkStageDurationInput = Locator.xpath("(//input[@name='stages[1].duration'])[1]");
+    Locator secondWorkStageDescriptionInput = Locator.css("textarea[name='stages[1].description']");
     SelenideElement createAndPublishTaskButton = $("button[value='PUBLISHED']");
     SelenideElement successMessage = $(byXpath("//h4[contains(text(),'Нове завдання було успішно зареєстровано та опублі')]"));
     SelenideElement taskDescriptionInPublishedTask = $(byXpath("//div[@name='task-description']"));
     SelenideElement volunteerBenefitInPublishedTask = $(byXpath("//div[@name='volunteer-benefit']"));
 
     public CreatingNewTaskForVolunteerPage enterTaskName (String taskName) {
-        WebElementUtils.enterText(taskNameInput, taskName);
+        FormFiller.enterText(taskNameInput, taskName);
         return this;
     }
 
     public CreatingNewTaskForVolunteerPage selectCategory (String category) {
-        WebElementUtils.selectCategory(selectCategoryField, category);
+        FormFiller.select(selectCategoryField, category);
         return this;
     }
 
@@ -48,73 +49,67 @@ public class CreatingNewTaskForVolunteerPage {
         LocalDate deadLine = LocalDate.now().plusDays(taskDuration);
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
         String text = deadLine.format(formatter);
-        WebElementUtils.enterText(deadlineInput, text);
+        FormFiller.enterText(deadlineInput, text);
         return this;
     }
 
     public CreatingNewTaskForVolunteerPage enterTaskDescription (String taskDescription) {
-        WebElementUtils.enterText(taskDescriptionInput, taskDescription);
+        FormFiller.enterText(taskDescriptionInput, taskDescription);
         return this;
     }
 
     public CreatingNewTaskForVolunteerPage enterExpectedOutcome (String expectedOutcome) {
-        WebElementUtils.enterText(expectedOutcomeInput, expectedOutcome);
+        FormFiller.enterText(expectedOutcomeInput, expectedOutcome);
         return this;
     }
 
     public CreatingNewTaskForVolunteerPage enterVolunteerBenefit (String volunteerBenefit) {
-        WebElementUtils.enterText(volunteerBenefitInput, volunteerBenefit);
+        FormFiller.enterText(volunteerBenefitInput, volunteerBenefit);
         return this;
     }
 
     public CreatingNewTaskForVolunteerPage enterRequirementsToVolunteer (String requirementsToVolunteer) {
-        WebElementUtils.enterText(requirementsToVolunteerInput, requirementsToVolunteer);
+        FormFiller.enterText(requirementsToVolunteerInput, requirementsToVolunteer);
         return this;
     }
 
     public CreatingNewTaskForVolunteerPage clickOnInterviewRequiredCheckBox () {
-        WebElementUtils.clickOnButton(interviewRequiredCheckBox);
+        FormFiller.click(interviewRequiredCheckBox);
         return this;
     }
 
     public CreatingNewTaskForVolunteerPage enterSavedMoney (String savedMoney) {
-        WebElementUtils.enterText(savedMoneyInput, savedMoney);
+        FormFiller.enterText(savedMoneyInput, savedMoney);
         return this;
     }
 
     public CreatingNewTaskForVolunteerPage enterFirstWorkStageName (String firstWorkStageName) {
-        firstWorkStageNameInput.clear();
-        WebElementUtils.enterText(firstWorkStageNameInput, firstWorkStageName);
+        FormFiller.enterText(firstWorkStageNameInput, firstWorkStageName);
         return this;
     }
 
     public CreatingNewTaskForVolunteerPage enterFirstWorkStageDuration (String firstWorkStageDuration) {
-        firstWorkStageDurationInput.clear();
-        WebElementUtils.enterText(firstWorkStageDurationInput, firstWorkStageDuration);
+        FormFiller.enterText(firstWorkStageDurationInput, firstWorkStageDuration);
         return this;
     }
 
     public CreatingNewTaskForVolunteerPage enterFirstWorkStageDescription (String firstWorkStageDescription) {
-        firstWorkStageDescriptionInput.clear();
-        WebElementUtils.enterText(firstWorkStageDescriptionInput, firstWorkStageDescription);
+        FormFiller.enterText(firstWorkStageDescriptionInput, firstWorkStageDescription);
         return this;
     }
 
     public CreatingNewTaskForVolunteerPage enterSecondWorkStageName (String secondWorkStageName) {
-        secondWorkStageNameInput.clear();
-        WebElementUtils.enterText(secondWorkStageNameInput, secondWorkStageName);
+        FormFiller.enterText(secondWorkStageNameInput, secondWorkStageName);
         return this;
     }
 
     public CreatingNewTaskForVolunteerPage enterSecondWorkStageDuration (String secondWorkStageDuration) {
-        secondWorkStageDurationInput.clear();
-        WebElementUtils.enterText(secondWorkStageDurationInput, secondWorkStageDuration);
+        FormFiller.enterText(secondWorkStageDurationInput, secondWorkStageDuration);
         return this;
     }
 
     public CreatingNewTaskForVolunteerPage enterSecondWorkStageDescription (String secondWorkStageDescription) {
-        secondWorkStageDescriptionInput.clear();
-        WebElementUtils.enterText(secondWorkStageDescriptionInput, secondWorkStageDescription);
+        FormFiller.enterText(secondWorkStageDescriptionInput, secondWorkStageDescription);
         return this;
     }
 
@@ -136,7 +131,7 @@ public class CreatingNewTaskForVolunteerPage {
     }
 
     public SelenideElement getSelectCategoryField() {
-        return selectCategoryField;
+        return selectCategoryField.find();
     }
 
     public SelenideElement getSuccessMessage() {
@@ -4,11 +4,9 @@ import com.codeborne.selenide.ElementsCollection;
 import com.codeborne.selenide.SelenideElement;
 import dev.failsafe.internal.util.Assert;
 import io.qameta.allure.Step;
+import mail.MailHogClient;
 import utils.WebElementUtils;
 
-import java.io.IOException;
-import java.util.Properties;
-
 import static com.codeborne.selenide.Condition.visible;
 import static com.codeborne.selenide.Selectors.byPartialLinkText;
 import static com.codeborne.selenide.Selectors.byXpath;
@@ -28,10 +26,8 @@ public class MailHogPage {
         WebElementUtils.clickOnButton(linkForEmailConfirmation);
     }
 
-    public String getMailHogURL () throws IOException {
-        utils.ReadPropertiesFileMethod.readProperties("src/test/resources/testdata/config.properties");
-        Properties properties = utils.ReadPropertiesFileMethod.getProperties();
-        return properties.getProperty("URL_MailHog");
+    public String getMailHogURL () {
+        return MailHogClient.getInstance().getBaseUri().toString();
     }
 
     @Step("Check if successfully navigated to MailHog service webpage")
@@ -2,95 +2,97 @@ package pageobjects;
 
 import com.codeborne.selenide.SelenideElement;
 import io.qameta.allure.Step;
+import utils.ElementSnapshot;
+import utils.FormFiller;
+import utils.Locator;
 import utils.WebElementUtils;
 
 import static com.codeborne.selenide.Condition.*;
-import static com.codeborne.selenide.Selectors.byXpath;
 import static com.codeborne.selenide.Selenide.$;
 import static utils.ScreenshotMethods.attachScreenshotToAllureReport;
 
 public class NGO_RegistrationPage {
 
-    SelenideElement firstNameInput = $("#firstName");
-    SelenideElement lastNameInput = $("#lastName");
-    SelenideElement genderField = $("div[name='sex']");
-    SelenideElement emailInput = $("#email");
-    SelenideElement phoneNumberInput = $("#phoneNumber");
-    SelenideElement passwordInput = $("#password");
-    SelenideElement confPasswordInput = $("#confirmPassword");
-    SelenideElement organizationNameInput = $("#organizationName");
-    SelenideElement selectCategoryField = $("#categoryIds");
-    SelenideElement selectedCategory = $(".filter-option-inner-inner");
-    SelenideElement positionInput = $(byXpath("//input[@id='positionInOrganization']"));
-    SelenideElement organizationLinkInput = $("#organizationSiteUrl");
-    SelenideElement aboutInput = $("#aboutOrganization");
-    SelenideElement organizationRegistrationUrlInput = $("#organizationRegistrationUrl");
-    SelenideElement submitButton = $("button[name='submit']");
+    Locator firstNameInput = Locator.css("#firstName");
+    Locator lastNameInput = Locator.css("#lastName");
+    Locator genderField = Locator.css("div[name='sex']");
+    Locator emailInput = Locator.css("#email");
+    Locator phoneNumberInput = Locator.css("#phoneNumber");
+    Locator passwordInput = Locator.css("#password");
+    Locator confPasswordInput = Locator.css("#confirmPassword");
+    Locator organizationNameInput = Locator.css("#organizationName");
+    Locator selectCategoryField = Locator.css("#categoryIds");
+    Locator selectedCategory = Locator.css(".filter-option-inner-inner");
+    Locator positionInput = Locator.xpath("//input[@id='positionInOrganization']");
+    Locator organizationLinkInput = Locator.css("#organizationSiteUrl");
+    Locator aboutInput = Locator.css("#aboutOrganization");
+    Locator organizationRegistrationUrlInput = Locator.css("#organizationRegistrationUrl");
+    Locator submitButton = Locator.css("button[name='submit']");
     SelenideElement successMessage = $(".display-3.text-center");
 
     public NGO_RegistrationPage enterFirstName(String firstName) {
-        WebElementUtils.enterText(firstNameInput, firstName);
+        FormFiller.enterText(firstNameInput, firstName);
         return this;
     }
 
     public NGO_RegistrationPage enterLastName(String lastName) {
-        WebElementUtils.enterText(lastNameInput, lastName);
+        FormFiller.enterText(lastNameInput, lastName);
         return this;
     }
 
     public NGO_RegistrationPage enterEmail(String email) {
-        WebElementUtils.enterText(emailInput, email);
+        FormFiller.enterText(emailInput, email);
         return this;
     }
 
     public NGO_RegistrationPage enterPhoneNumber(String phoneNumber) {
-        WebElementUtils.enterText(phoneNumberInput, phoneNumber);
+        FormFiller.enterText(phoneNumberInput, phoneNumber);
         return this;
     }
 
     public NGO_RegistrationPage enterPassword(String password) {
-        WebElementUtils.enterText(passwordInput, password);
+        FormFiller.enterText(passwordInput, password);
         return this;
     }
 
     public NGO_RegistrationPage enterConfirmPassword(String confirmPassword) {
-        WebElementUtils.enterText(confPasswordInput, confirmPassword);
+        FormFiller.enterText(confPasswordInput, confirmPassword);
         return this;
     }
 
     public NGO_RegistrationPage enterOrganizationName(String organizationName) {
-        WebElementUtils.enterText(organizationNameInput, organizationName);
+        FormFiller.enterText(organizationNameInput, organizationName);
         return this;
     }
 
     public NGO_RegistrationPage selectCategory(String category) {
-        WebElementUtils.selectCategory(selectCategoryField, category);
+        FormFiller.select(selectCategoryField, category);
         return this;
     }
 
     public NGO_RegistrationPage enterPosition(String position) {
-        WebElementUtils.enterText(positionInput, position);
+        FormFiller.enterText(positionInput, position);
         return this;
     }
 
     public NGO_RegistrationPage enterOrganizationLink(String organizationLink) {
-        WebElementUtils.enterText(organizationLinkInput, organizationLink);
+        FormFiller.enterText(organizationLinkInput, organizationLink);
         return this;
     }
 
     public NGO_RegistrationPage enterAbout(String about) {
-        WebElementUtils.enterText(aboutInput, about);
+        FormFiller.enterText(aboutInput, about);
         return this;
     }
 
     public NGO_RegistrationPage enterOrganizationRegistrationUrl(String organizationRegistrationUrl) {
-        WebElementUtils.enterText(organizationRegistrationUrlInput, organizationRegistrationUrl);
+        FormFiller.enterText(organizationRegistrationUrlInput, organizationRegistrationUrl);
         return this;
     }
 
     @Step("Enter NGO data and click on 'Sign up' button")
     public NGO_RegistrationPage clickOnSubmitButton() {
-        WebElementUtils.clickOnButton(submitButton);
+        WebElementUtils.clickOnButton(submitButton.find());
         return this;
     }
 
@@ -101,91 +103,115 @@ public class NGO_RegistrationPage {
     }
 
     public NGO_RegistrationPage populateNGOregistrationForm(String firstName, String lastName, String email, String phoneNumber, String password, String confirmPassword, String organizationName, String category, String position, String organizationLink, String about, String organizationRegistrationUrl){
-        WebElementUtils.enterText(firstNameInput, firstName);
-        WebElementUtils.enterText(lastNameInput, lastName);
-        WebElementUtils.enterText(emailInput, email);
-        WebElementUtils.enterText(phoneNumberInput, phoneNumber);
-        WebElementUtils.enterText(passwordInput, password);
-        WebElementUtils.enterText(confPasswordInput, confirmPassword);
-        WebElementUtils.enterText(organizationNameInput, organizationName);
-        WebElementUtils.selectCategory(selectCategoryField, category);
-        WebElementUtils.enterText(positionInput, position);
-        WebElementUtils.enterText(organizationLinkInput, organizationLink);
-        WebElementUtils.enterText(aboutInput, about);
-        WebElementUtils.enterText(organizationRegistrationUrlInput, organizationRegistrationUrl);
+        FormFiller.enterText(firstNameInput, firstName);
+        FormFiller.enterText(lastNameInput, lastName);
+        FormFiller.enterText(emailInput, email);
+        FormFiller.enterText(phoneNumberInput, phoneNumber);
+        FormFiller.enterText(passwordInput, password);
+        FormFiller.enterText(confPasswordInput, confirmPassword);
+        FormFiller.enterText(organizationNameInput, organizationName);
+        FormFiller.select(selectCategoryField, category);
+        FormFiller.enterText(positionInput, position);
+        FormFiller.enterText(organizationLinkInput, organizationLink);
+        FormFiller.enterText(aboutInput, about);
+        FormFiller.enterText(organizationRegistrationUrlInput, organizationRegistrationUrl);
+        FormFiller.fill();
+        return this;
+    }
+
+    @Step("Verify the registration form is loaded")
+    public NGO_RegistrationPage verifyRegistrationFormLoaded(){
+        ElementSnapshot.expect("NGO registration form is loaded")
+                .visible(firstNameInput)
+                .visible(lastNameInput)
+                .enabled(genderField)
+                .visible(emailInput)
+                .visible(phoneNumberInput)
+                .visible(passwordInput)
+                .visible(confPasswordInput)
+                .visible(organizationNameInput)
+                .enabled(selectCategoryField)
+                .visible(positionInput)
+                .visible(organizationLinkInput)
+                .visible(aboutInput)
+                .visible(organizationRegistrationUrlInput)
+                .visible(submitButton)
+                .verify();
         return this;
     }
 
     public NGO_RegistrationPage verifyNGOregistrationFormPopulatedCorrectly(String firstName, String lastName, String email, String phoneNumber, String password, String confirmPassword, String organizationName, String category, String position, String organizationLink, String about, String organizationRegistrationUrl){
-        firstNameInput.shouldHave(value(firstName));
-        lastNameInput.shouldHave(value(lastName));
-        emailInput.shouldHave(value(email));
-        phoneNumberInput.shouldHave(value(phoneNumber));
-        passwordInput.shouldHave(value(password));
-        confPasswordInput.shouldHave(value(confirmPassword));
-        organizationNameInput.shouldHave(value(organizationName));
-        selectedCategory.shouldHave(text(category));
-        positionInput.shouldHave(value(position));
-        organizationLinkInput.shouldHave(value(organizationLink));
-        aboutInput.shouldHave(value(about));
-        organizationRegistrationUrlInput.shouldHave(value(organizationRegistrationUrl));
+        ElementSnapshot.expect("NGO registration form is populated correctly")
+                .hasValue(firstNameInput, firstName)
+                .hasValue(lastNameInput, lastName)
+                .hasValue(emailInput, email)
+                .hasValue(phoneNumberInput, phoneNumber)
+                .hasValue(passwordInput, password)
+                .hasValue(confPasswordInput, confirmPassword)
+                .hasValue(organizationNameInput, organizationName)
+                .hasText(selectedCategory, category)
+                .hasValue(positionInput, position)
+                .hasValue(organizationLinkInput, organizationLink)
+                .hasValue(aboutInput, about)
+                .hasValue(organizationRegistrationUrlInput, organizationRegistrationUrl)
+                .verify();
         return this;
     }
 
     public SelenideElement getFirstNameInput() {
-        return firstNameInput;
+        return firstNameInput.find();
     }
 
     public SelenideElement getLastNameInput() {
-        return lastNameInput;
+        return lastNameInput.find();
     }
 
     public SelenideElement getEmailInput() {
-        return emailInput;
+        return emailInput.find();
     }
 
     public SelenideElement getGenderField() {
-        return genderField;
+        return genderField.find();
     }
 
     public SelenideElement getPhoneNumberInput() {
-        return phoneNumberInput;
+        return phoneNumberInput.find();
     }
 
     public SelenideElement getPasswordInput() {
-        return passwordInput;
+        return passwordInput.find();
     }
 
     public SelenideElement getConfPasswordInput() {
-        return confPasswordInput;
+        return confPasswordInput.find();
     }
 
     public SelenideElement getOrganizationNameInput() {
-        return organizationNameInput;
+        return organizationNameInput.find();
     }
 
     public SelenideElement getSelectCategoryField() {
-        return selectCategoryField;
+        return selectCategoryField.find();
     }
 
     public SelenideElement getPositionInput() {
-        return positionInput;
+        return positionInput.find();
     }
 
     public SelenideElement getOrganizationLinkInput() {
-        return organizationLinkInput;
+        return organizationLinkInput.find();
     }
 
     public SelenideElement getAboutInput() {
-        return aboutInput;
+        return aboutInput.find();
     }
 
     public SelenideElement getOrganizationRegistrationUrlInput() {
-        return organizationRegistrationUrlInput;
+        return organizationRegistrationUrlInput.find();
     }
 
     public SelenideElement getSubmitButton() {
-        return submitButton;
+        return submitButton.find();
     }
 
     public SelenideElement getSuccessMessage() {
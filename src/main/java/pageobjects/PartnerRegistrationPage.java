@@ -5,29 +5,31 @@ import com.codeborne.selenide.SelenideElement;
 import dev.failsafe.internal.util.Assert;
 import io.qameta.allure.Step;
 import org.openqa.selenium.JavascriptExecutor;
+import utils.ElementSnapshot;
+import utils.FormFiller;
+import utils.Locator;
 import utils.WebElementUtils;
 
 import static com.codeborne.selenide.Condition.exactText;
 import static com.codeborne.selenide.Condition.visible;
-import static com.codeborne.selenide.Selectors.byXpath;
 import static com.codeborne.selenide.Selenide.$;
 import static utils.ScreenshotMethods.attachScreenshotToAllureReport;
 
 public class PartnerRegistrationPage {
 
-    SelenideElement firstNameInput = $("#firstName");
-    SelenideElement lastNameInput = $("#lastName");
-    SelenideElement genderField = $("div[name='sex']");
-    SelenideElement emailInput = $("#email");
-    SelenideElement phoneNumberInput = $("#phoneNumber");
-    SelenideElement passwordInput = $("#password");
-    SelenideElement confPasswordInput = $("#confirmPassword");
-    SelenideElement organizationNameInput = $("#organizationName");
-    SelenideElement selectCategoryField = $("#categoryIds");
-    SelenideElement positionInput = $(byXpath("//input[@id='positionInOrganization']"));
-    SelenideElement organizationLinkInput = $("#organizationSiteUrl");
-    SelenideElement aboutInput = $("#aboutOrganization");
-    SelenideElement submitButton = $("button[name='submit']");
+    Locator firstNameInput = Locator.css("#firstName");
+    Locator lastNameInput = Locator.css("#lastName");
+    Locator genderField = Locator.css("div[name='sex']");
+    Locator emailInput = Locator.css("#email");
+    Locator phoneNumberInput = Locator.css("#phoneNumber");
+    Locator passwordInput = Locator.css("#password");
+    Locator confPasswordInput = Locator.css("#confirmPassword");
+    Locator organizationNameInput = Locator.css("#organizationName");
+    Locator selectCategoryField = Locator.css("#categoryIds");
+    Locator positionInput = Locator.xpath("//input[@id='positionInOrganization']");
+    Locator organizationLinkInput = Locator.css("#organizationSiteUrl");
+    Locator aboutInput = Locator.css("#aboutOrganization");
+    Locator submitButton = Locator.css("button[name='submit']");
     SelenideElement successMessage = $(".display-3.text-center");
     SelenideElement errorMessageUnderFirstNameField = $("div[name='first-name'] small[class='text-danger']");
     SelenideElement errorMessageUnderLastNameField = $("div[name='last-name'] small[class='text-danger']");
@@ -40,63 +42,63 @@ public class PartnerRegistrationPage {
     SelenideElement errorMessageUnderPhoneNumberField = $("div[name='phone'] small[class='text-danger']");
 
     public PartnerRegistrationPage enterFirstName(String firstName) {
-        WebElementUtils.enterText(firstNameInput, firstName);
+        FormFiller.enterText(firstNameInput, firstName);
         return this;
     }
 
     public PartnerRegistrationPage enterLastName(String lastName) {
-        WebElementUtils.enterText(lastNameInput, lastName);
+        FormFiller.enterText(lastNameInput, lastName);
         return this;
     }
 
     public PartnerRegistrationPage enterEmail(String email) {
-        WebElementUtils.enterText(emailInput, email);
+        FormFiller.enterText(emailInput, email);
         return this;
     }
 
     public PartnerRegistrationPage enterPhoneNumber(String phoneNumber) {
-        WebElementUtils.enterText(phoneNumberInput, phoneNumber);
+        FormFiller.enterText(phoneNumberInput, phoneNumber);
         return this;
     }
 
     public PartnerRegistrationPage enterPassword(String password) {
-        WebElementUtils.enterText(passwordInput, password);
+        FormFiller.enterText(passwordInput, password);
         return this;
     }
 
     public PartnerRegistrationPage enterConfirmPassword(String confirmPassword) {
-        WebElementUtils.enterText(confPasswordInput, confirmPassword);
+        FormFiller.enterText(confPasswordInput, confirmPassword);
         return this;
     }
 
     public PartnerRegistrationPage enterOrganizationName(String organizationName) {
-        WebElementUtils.enterText(organizationNameInput, organizationName);
+        FormFiller.enterText(organizationNameInput, organizationName);
         return this;
     }
 
     public PartnerRegistrationPage selectCategory(String category) {
-        WebElementUtils.selectCategory(selectCategoryField, category);
+        FormFiller.select(selectCategoryField, category);
         return this;
     }
 
     public PartnerRegistrationPage enterPosition(String position) {
-        WebElementUtils.enterText(positionInput, position);
+        FormFiller.enterText(positionInput, position);
         return this;
     }
 
     public PartnerRegistrationPage enterOrganizationLink(String organizationLink) {
-        WebElementUtils.enterText(organizationLinkInput, organizationLink);
+        FormFiller.enterText(organizationLinkInput, organizationLink);
         return this;
     }
 
     public PartnerRegistrationPage enterAbout(String about) {
-        WebElementUtils.enterText(aboutInput, about);
+        FormFiller.enterText(aboutInput, about);
         return this;
     }
 
     @Step("Enter partner data and click on 'Sign up' button")
     public void clickOnSubmitButton() {
-        WebElementUtils.clickOnButton(submitButton);
+        WebElementUtils.clickOnButton(submitButton.find());
     }
 
     @Step("Verify successful registration message")
@@ -105,6 +107,26 @@ public class PartnerRegistrationPage {
         attachScreenshotToAllureReport("Successful registration message");
     }
 
+    @Step("Verify the registration form is loaded")
+    public PartnerRegistrationPage verifyRegistrationFormLoaded(){
+        ElementSnapshot.expect("Partner registration form is loaded")
+                .visible(firstNameInput)
+                .visible(lastNameInput)
+                .enabled(genderField)
+                .visible(emailInput)
+                .visible(phoneNumberInput)
+                .visible(passwordInput)
+                .visible(confPasswordInput)
+                .visible(organizationNameInput)
+                .enabled(selectCategoryField)
+                .visible(positionInput)
+                .visible(organizationLinkInput)
+                .visible(aboutInput)
+                .visible(submitButton)
+                .verify();
+        return this;
+    }
+
     @Step("Verify error message when first name field left blank or with invalid input")
     public PartnerRegistrationPage verifyErrorMessageUnderFirstNameField(){
         errorMessageUnderFirstNameField.shouldHave(exactText("Імя не може містити символи та розділові знаки"));
@@ -186,55 +208,55 @@ public class PartnerRegistrationPage {
     }
 
     public SelenideElement getFirstNameInput() {
-        return firstNameInput;
+        return firstNameInput.find();
     }
 
     public SelenideElement getLastNameInput() {
-        return lastNameInput;
+        return lastNameInput.find();
     }
 
     public SelenideElement getGenderField() {
-        return genderField;
+        return genderField.find();
     }
 
     public SelenideElement getEmailInput() {
-        return emailInput;
+        return emailInput.find();
     }
 
     public SelenideElement getPhoneNumberInput() {
-        return phoneNumberInput;
+        return phoneNumberInput.find();
     }
 
     public SelenideElement getPasswordInput() {
-        return passwordInput;
+        return passwordInput.find();
     }
 
     public SelenideElement getConfPasswordInput() {
-        return confPasswordInput;
+        return confPasswordInput.find();
     }
 
     public SelenideElement getOrganizationNameInput() {
-        return organizationNameInput;
+        return organizationNameInput.find();
     }
 
     public SelenideElement getSelectCategoryField() {
-        return selectCategoryField;
+        return selectCategoryField.find();
     }
 
     public SelenideElement getPositionInput() {
-        return positionInput;
+        return positionInput.find();
     }
 
     public SelenideElement getOrganizationLinkInput() {
-        return organizationLinkInput;
+        return organizationLinkInput.find();
     }
 
     public SelenideElement getAboutInput() {
-        return aboutInput;
+        return aboutInput.find();
     }
 
     public SelenideElement getSubmitButton() {
-        return submitButton;
+        return submitButton.find();
     }
 
     public SelenideElement getSuccessMessage() {
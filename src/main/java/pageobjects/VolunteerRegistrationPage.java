@@ -2,24 +2,26 @@ package pageobjects;
 
 import com.codeborne.selenide.SelenideElement;
 import static com.codeborne.selenide.Condition.*;
-import static com.codeborne.selenide.Selectors.by;
 import static com.codeborne.selenide.Selenide.$;
 import static utils.ScreenshotMethods.attachScreenshotToAllureReport;
 
 import io.qameta.allure.Step;
+import utils.ElementSnapshot;
+import utils.FormFiller;
+import utils.Locator;
 import utils.WebElementUtils;
 
 public class VolunteerRegistrationPage {
 
-    SelenideElement firstNameInput = $(by("name","firstName"));
-    SelenideElement lastNameInput = $(by("name","lastName"));
-    SelenideElement emailInput = $("#email");
-    SelenideElement phoneNumberInput = $("#phoneNumber");
-    SelenideElement passwordInput = $("#password");
-    SelenideElement confPasswordInput = $("#confirmPassword");
-    SelenideElement aboutInput = $("#about");
-    SelenideElement selectCategoryField = $(by("name","categoryIds"));
-    SelenideElement submitButton = $(by("name","submit"));
+    Locator firstNameInput = Locator.name("firstName");
+    Locator lastNameInput = Locator.name("lastName");
+    Locator emailInput = Locator.css("#email");
+    Locator phoneNumberInput = Locator.css("#phoneNumber");
+    Locator passwordInput = Locator.css("#password");
+    Locator confPasswordInput = Locator.css("#confirmPassword");
+    Locator aboutInput = Locator.css("#about");
+    Locator selectCategoryField = Locator.name("categoryIds");
+    Locator submitButton = Locator.name("submit");
     SelenideElement successMessage = $(".display-3.text-center");
     SelenideElement errorMessageUnderFirstNameField = $("div[name='first-name'] small[class='text-danger']");
     SelenideElement errorMessageUnderLastNameField = $("div[name='last-name'] small[class='text-danger']");
@@ -29,48 +31,48 @@ public class VolunteerRegistrationPage {
     SelenideElement errorMessageUnderPhoneNumberField = $("div[name='phone'] small[class='text-danger']");
 
     public VolunteerRegistrationPage enterFirstName(String firstName) {
-        WebElementUtils.enterText(firstNameInput, firstName);
+        FormFiller.enterText(firstNameInput, firstName);
         return this;
     }
 
     public VolunteerRegistrationPage enterLastName(String lastName) {
-        WebElementUtils.enterText(lastNameInput, lastName);
+        FormFiller.enterText(lastNameInput, lastName);
         return this;
     }
 
     public VolunteerRegistrationPage enterEmail(String email) {
-        WebElementUtils.enterText(emailInput, email);
+        FormFiller.enterText(emailInput, email);
         return this;
     }
 
     public VolunteerRegistrationPage enterPhoneNumber(String phoneNumber) {
-        WebElementUtils.enterText(phoneNumberInput, phoneNumber);
+        FormFiller.enterText(phoneNumberInput, phoneNumber);
         return this;
     }
 
     public VolunteerRegistrationPage enterPassword(String password) {
-        WebElementUtils.enterText(passwordInput, password);
+        FormFiller.enterText(passwordInput, password);
         return this;
     }
 
     public VolunteerRegistrationPage enterConfirmPassword(String confirmPassword) {
-        WebElementUtils.enterText(confPasswordInput, confirmPassword);
+        FormFiller.enterText(confPasswordInput, confirmPassword);
         return this;
     }
 
     public VolunteerRegistrationPage enterAbout(String about) {
-        WebElementUtils.enterText(aboutInput, about);
+        FormFiller.enterText(aboutInput, about);
         return this;
     }
 
     public VolunteerRegistrationPage selectCategory(String category) {
-        WebElementUtils.selectCategory(selectCategoryField, category);
+        FormFiller.select(selectCategoryField, category);
         return this;
     }
 
     @Step("Enter volunteer data and click on 'Sign up' button")
     public void clickOnSubmitButton() {
-        WebElementUtils.clickOnButton(submitButton);
+        WebElementUtils.clickOnButton(submitButton.find());
     }
 
     @Step("Verify successful registration message")
@@ -79,6 +81,22 @@ public class VolunteerRegistrationPage {
         attachScreenshotToAllureReport("Successful registration message");
     }
 
+    @Step("Verify the registration form is loaded")
+    public VolunteerRegistrationPage verifyRegistrationFormLoaded(){
+        ElementSnapshot.expect("Volunteer registration form is loaded")
+                .visible(firstNameInput)
+                .visible(lastNameInput)
+                .visible(emailInput)
+                .visible(phoneNumberInput)
+                .visible(passwordInput)
+                .visible(confPasswordInput)
+                .visible(aboutInput)
+                .enabled(selectCategoryField)
+                .visible(submitButton)
+                .verify();
+        return this;
+    }
+
     @Step("Verify error message when first name field left blank")
     public VolunteerRegistrationPage verifyErrorMessageWhenFirstNameFieldLeftBlank(){
         errorMessageUnderFirstNameField.shouldHave(exactText("Field can`t be empty"));
@@ -140,38 +158,38 @@ public class VolunteerRegistrationPage {
     }
 
     public SelenideElement getFirstNameInput() {
-        return firstNameInput;
+        return firstNameInput.find();
     }
 
     public SelenideElement getLastNameInput() {
-        return lastNameInput;
+        return lastNameInput.find();
     }
 
     public SelenideElement getEmailInput() {
-        return emailInput;
+        return emailInput.find();
     }
 
     public SelenideElement getPhoneNumberInput() {
-        return phoneNumberInput;
+        return phoneNumberInput.find();
     }
 
     public SelenideElement getPasswordInput() {
-        return passwordInput;
+        return passwordInput.find();
     }
 
     public SelenideElement getConfPasswordInput() {
-        return confPasswordInput;
+        return confPasswordInput.find();
     }
 
     public SelenideElement getAboutInput() {
-        return aboutInput;
+        return aboutInput.find();
     }
 
     public SelenideElement getSelectCategoryField() {
-        return selectCategoryField;
+        return selectCategoryField.find();
     }
 
     public SelenideElement getSubmitButton() {
-        return submitButton;
+        return submitButton.find();
     }
 }
@@ -0,0 +1,73 @@
+package utils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Run-wide record of how long each awaited condition took to become true.
+ */
+public final class AwaitStatistics {
+
+    private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private AwaitStatistics() {
+    }
+
+    public static final class Entry {
+        private long calls;
+        private long timeouts;
+        private long attempts;
+        private long totalMillis;
+        private long maxMillis;
+
+        private synchronized void record(long millis, int attemptCount, boolean satisfied) {
+            calls++;
+            attempts += attemptCount;
+            totalMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+            if (!satisfied) {
+                timeouts++;
+            }
+        }
+
+        public synchronized long getCalls() {
+            return calls;
+        }
+
+        public synchronized long getTimeouts() {
+            return timeouts;
+        }
+
+        public synchronized long getAttempts() {
+            return attempts;
+        }
+
+        public synchronized long getTotalMillis() {
+            return totalMillis;
+        }
+
+        public synchronized long getMaxMillis() {
+            return maxMillis;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("calls=%d, timeouts=%d, attempts=%d, avg=%dms, max=%dms",
+                    calls, timeouts, attempts, calls == 0 ? 0 : totalMillis / calls, maxMillis);
+        }
+    }
+
+    static void record(String alias, long millis, int attempts, boolean satisfied) {
+        entries.computeIfAbsent(alias, key -> new Entry()).record(millis, attempts, satisfied);
+    }
+
+    public static Map<String, Entry> snapshot() {
+        return Collections.unmodifiableMap(new TreeMap<>(entries));
+    }
+
+    public static void reset() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,125 @@
+package utils;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How browsers are launched. {@code browser_profile = headless} runs them without a display, for build agents;
+ * {@code headed} (the default) shows the window. Both use the same fixed viewport, so screenshots and layout
+ * do not depend on the screen of the machine.
+ */
+public final class BrowserProfile {
+
+    private final String name;
+    private final boolean headless;
+    private final Dimension windowSize;
+    private final PageLoadStrategy pageLoadStrategy;
+    private final List<String> extraArguments;
+
+    public BrowserProfile(String name, boolean headless, Dimension windowSize, PageLoadStrategy pageLoadStrategy, List<String> extraArguments) {
+        if (windowSize.getWidth() < 1 || windowSize.getHeight() < 1) {
+            throw new IllegalArgumentException("Browser window size must be positive, but was " + windowSize);
+        }
+        this.name = name;
+        this.headless = headless;
+        this.windowSize = windowSize;
+        this.pageLoadStrategy = pageLoadStrategy;
+        this.extraArguments = Collections.unmodifiableList(new ArrayList<>(extraArguments));
+    }
+
+    /**
+     * Reads {@code browser_profile}. The headless profile defaults to the {@code eager} page load strategy, as
+     * Selenide waits for the elements a test needs anyway; {@code browser_page_load_strategy} overrides it.
+     */
+    public static BrowserProfile fromConfiguration(TestConfiguration configuration) {
+        String name = configuration.getString("browser_profile", "headed").toLowerCase(Locale.ROOT);
+        boolean headless;
+        switch (name) {
+            case "headed":
+                headless = false;
+                break;
+            case "headless":
+                headless = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown browser_profile '" + name + "', expected headed or headless.");
+        }
+        return new BrowserProfile(name, headless,
+                parseWindowSize(configuration.getString("browser_window_size", "1920x1080")),
+                PageLoadStrategy.fromString(configuration.getString("browser_page_load_strategy", headless ? "eager" : "normal")),
+                configuration.getList("browser_extra_arguments"));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public Dimension getWindowSize() {
+        return windowSize;
+    }
+
+    public PageLoadStrategy getPageLoadStrategy() {
+        return pageLoadStrategy;
+    }
+
+    public List<String> getExtraArguments() {
+        return extraArguments;
+    }
+
+    /**
+     * Chrome without extensions and without throttling of timers and rendering in background tabs, which
+     * otherwise slows down tests whose window is hidden behind another one.
+     */
+    public ChromeOptions chromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.setPageLoadStrategy(pageLoadStrategy);
+        if (headless) {
+            options.addArguments("--headless=new", "--disable-gpu", "--disable-dev-shm-usage");
+        }
+        options.addArguments(
+                "--window-size=" + windowSize.getWidth() + "," + windowSize.getHeight(),
+                "--disable-extensions",
+                "--disable-background-timer-throttling",
+                "--disable-backgrounding-occluded-windows",
+                "--disable-renderer-backgrounding");
+        options.addArguments(extraArguments);
+        return options;
+    }
+
+    public FirefoxOptions firefoxOptions() {
+        FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(pageLoadStrategy);
+        if (headless) {
+            options.addArguments("-headless");
+        }
+        options.addArguments("--width=" + windowSize.getWidth(), "--height=" + windowSize.getHeight());
+        options.addPreference("extensions.update.enabled", false);
+        options.addPreference("dom.min_background_timeout_value", 0);
+        options.addArguments(extraArguments);
+        return options;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, %dx%d, page load strategy %s", name, windowSize.getWidth(), windowSize.getHeight(), pageLoadStrategy);
+    }
+
+    private static Dimension parseWindowSize(String value) {
+        String[] parts = value.toLowerCase(Locale.ROOT).split("x");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Browser window size must look like 1920x1080, but was '" + value + "'");
+        }
+        return new Dimension(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    }
+}
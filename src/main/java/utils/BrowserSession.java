@@ -0,0 +1,61 @@
+package utils;
+
+import com.codeborne.selenide.WebDriverRunner;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * A browser leased from {@link BrowserSessionPool}. Closing it returns the browser to the pool.
+ */
+public final class BrowserSession implements AutoCloseable {
+
+    private final BrowserSessionPool pool;
+    private final WebDriver driver;
+    private int uses;
+    private volatile boolean broken;
+    private boolean leased;
+
+    BrowserSession(BrowserSessionPool pool, WebDriver driver) {
+        this.pool = pool;
+        this.driver = driver;
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    /**
+     * Makes this browser the one Selenide uses on the calling thread.
+     */
+    public BrowserSession bindToCurrentThread() {
+        WebDriverRunner.setWebDriver(driver);
+        return this;
+    }
+
+    /**
+     * Quits the browser when it is returned instead of reusing it, e.g. after a test failed on a browser error.
+     */
+    public void markBroken() {
+        broken = true;
+    }
+
+    int getUses() {
+        return uses;
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    void markLeased() {
+        uses++;
+        leased = true;
+    }
+
+    @Override
+    public void close() {
+        if (leased) {
+            leased = false;
+            pool.release(this);
+        }
+    }
+}
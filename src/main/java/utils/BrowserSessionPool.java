@@ -0,0 +1,218 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps warm browser sessions and hands them out to test classes, so that the browser start-up is paid once
+ * per session instead of once per class. A returned session is reset (extra tabs closed, cookies and web
+ * storage cleared) before it is leased again; it is quit instead once it has been used {@code maxUses} times,
+ * was marked broken after an error, or the reset fails.
+ */
+public final class BrowserSessionPool implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(BrowserSessionPool.class);
+
+    private final Supplier<WebDriver> driverFactory;
+    private final int maxIdle;
+    private final int maxUses;
+    private final Set<String> resetOrigins;
+    private final Deque<BrowserSession> idleSessions = new ConcurrentLinkedDeque<>();
+    private final Deque<CompletableFuture<BrowserSession>> startingSessions = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicLong createdSessions = new AtomicLong();
+    private final AtomicLong leaseCount = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param resetOrigins origins whose cookies and storage are cleared on reset in Chromium browsers, in
+     *                     addition to the origin of the page that is open when the session is returned
+     */
+    public BrowserSessionPool(Supplier<WebDriver> driverFactory, int maxIdle, int maxUses, Set<String> resetOrigins) {
+        this.driverFactory = driverFactory;
+        this.maxIdle = maxIdle;
+        this.maxUses = maxUses;
+        this.resetOrigins = Collections.unmodifiableSet(new LinkedHashSet<>(resetOrigins));
+    }
+
+    private static final class InstanceHolder {
+        private static final BrowserSessionPool INSTANCE = fromConfiguration(TestConfiguration.get());
+    }
+
+    public static BrowserSessionPool getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    static BrowserSessionPool fromConfiguration(TestConfiguration configuration) {
+        Set<String> origins = new LinkedHashSet<>();
+        for (String key : List.of("URL_Skarb_Home_Page", "URL_MailHog", "URL")) {
+            if (configuration.hasValue(key)) {
+                origins.add(originOf(configuration.getString(key)));
+            }
+        }
+        String browser = configuration.getString("browser", "chrome");
+        return new BrowserSessionPool(() -> DriverSetUp.createDriver(browser),
+                configuration.getInt("browser_pool_max_idle", 2),
+                configuration.getInt("browser_session_max_uses", 20),
+                origins);
+    }
+
+    public BrowserSession lease() {
+        if (closed) {
+            throw new IllegalStateException("Browser session pool is closed.");
+        }
+        BrowserSession session;
+        while ((session = idleSessions.pollFirst()) != null) {
+            if (isAlive(session.getDriver())) {
+                break;
+            }
+            logger.warn("Discarding browser session that is no longer responding.");
+            quit(session);
+        }
+        if (session == null) {
+            CompletableFuture<BrowserSession> starting = startingSessions.pollFirst();
+            if (starting != null) {
+                try {
+                    session = starting.join();
+                } catch (CompletionException ex) {
+                    logger.warn("Starting a browser session in the background failed: {}", ex.getCause().toString());
+                }
+            }
+        }
+        if (session == null) {
+            session = startSession();
+        }
+        session.markLeased();
+        activeSessions.incrementAndGet();
+        leaseCount.incrementAndGet();
+        return session;
+    }
+
+    /**
+     * Starts a browser on the given executor and keeps it idle for the next lease. A lease while the browser is
+     * still starting waits for it instead of starting another one.
+     */
+    public void prewarm(Executor executor) {
+        if (closed) {
+            return;
+        }
+        CompletableFuture<BrowserSession> starting = CompletableFuture.supplyAsync(this::startSession, executor);
+        startingSessions.offerLast(starting);
+        starting.whenComplete((session, failure) -> {
+            if (!startingSessions.remove(starting)) {
+                return;
+            }
+            if (failure != null) {
+                logger.warn("Starting a browser session in the background failed: {}", failure.toString());
+                return;
+            }
+            idleSessions.offerLast(session);
+            if (closed && idleSessions.remove(session)) {
+                quit(session);
+            }
+        });
+    }
+
+    void release(BrowserSession session) {
+        activeSessions.decrementAndGet();
+        if (closed || session.isBroken() || session.getUses() >= maxUses || idleSessions.size() >= maxIdle || !reset(session.getDriver())) {
+            quit(session);
+        } else {
+            idleSessions.offerFirst(session);
+        }
+    }
+
+    public String getMetrics() {
+        return String.format("active=%d, idle=%d, starting=%d, created=%d, leases=%d",
+                activeSessions.get(), idleSessions.size(), startingSessions.size(), createdSessions.get(), leaseCount.get());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        BrowserSession session;
+        while ((session = idleSessions.pollFirst()) != null) {
+            quit(session);
+        }
+        CompletableFuture<BrowserSession> starting;
+        while ((starting = startingSessions.pollFirst()) != null) {
+            starting.thenAccept(BrowserSessionPool::quit);
+        }
+    }
+
+    private BrowserSession startSession() {
+        long start = System.nanoTime();
+        BrowserSession session = new BrowserSession(this, driverFactory.get());
+        createdSessions.incrementAndGet();
+        logger.info("Started a new browser session in {} ms.", (System.nanoTime() - start) / 1_000_000);
+        return session;
+    }
+
+    private boolean reset(WebDriver driver) {
+        try {
+            List<String> windowHandles = new ArrayList<>(driver.getWindowHandles());
+            for (String windowHandle : windowHandles.subList(1, windowHandles.size())) {
+                driver.switchTo().window(windowHandle).close();
+            }
+            driver.switchTo().window(windowHandles.get(0));
+            if (driver.getCurrentUrl().startsWith("http") && driver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) driver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+            }
+            driver.manage().deleteAllCookies();
+            if (driver instanceof ChromiumDriver) {
+                ChromiumDriver chromiumDriver = (ChromiumDriver) driver;
+                chromiumDriver.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+                for (String origin : resetOrigins) {
+                    chromiumDriver.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+                }
+            }
+            driver.get("about:blank");
+            return true;
+        } catch (WebDriverException ex) {
+            logger.warn("Resetting browser session failed, it will be recycled: {}", ex.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean isAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandles();
+            return true;
+        } catch (WebDriverException ex) {
+            return false;
+        }
+    }
+
+    private static void quit(BrowserSession session) {
+        try {
+            session.getDriver().quit();
+        } catch (WebDriverException ex) {
+            System.err.println(ex);
+        }
+    }
+
+    private static String originOf(String url) {
+        URI uri = URI.create(url.trim());
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+}
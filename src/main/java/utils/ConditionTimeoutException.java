@@ -0,0 +1,8 @@
+package utils;
+
+public class ConditionTimeoutException extends RuntimeException {
+
+    public ConditionTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,20 +1,100 @@
 package utils;
 
 import com.codeborne.selenide.Configuration;
-import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+import com.codeborne.selenide.WebDriverRunner;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.firefox.FirefoxDriver;
 
+/**
+ * Starts browsers for tests that do not lease one from {@link BrowserSessionPool}. Each thread gets its own
+ * browser, so test classes can run in parallel; the shared Selenide {@link Configuration} is written once,
+ * before the first browser starts, and only read afterwards. Browsers are launched with the
+ * {@link BrowserProfile} of the test configuration.
+ */
 public class DriverSetUp {
 
+    private static final Logger logger = LogManager.getLogger(DriverSetUp.class);
+
+    private static final ThreadLocal<WebDriver> threadDrivers = new ThreadLocal<>();
+    private static final ThreadLocal<String> threadBrowsers = new ThreadLocal<>();
+
+    private static BrowserProfile browserProfile;
+
+    /**
+     * Applies the Selenide settings and the browser profile of the test configuration. Only the first call has
+     * an effect.
+     */
+    public static synchronized void configureSelenide() {
+        if (browserProfile == null) {
+            TestConfiguration configuration = TestConfiguration.get();
+            BrowserProfile profile = BrowserProfile.fromConfiguration(configuration);
+            Configuration.timeout = configuration.getLong("selenide_timeout_ms", 10000);
+            Configuration.pageLoadTimeout = configuration.getLong("selenide_page_load_timeout_ms", 30000);
+            Configuration.headless = profile.isHeadless();
+            Configuration.browserSize = profile.getWindowSize().getWidth() + "x" + profile.getWindowSize().getHeight();
+            Configuration.pageLoadStrategy = profile.getPageLoadStrategy().toString();
+            browserProfile = profile;
+            logger.info("Browser profile: {}.", profile);
+        }
+    }
+
+    public static synchronized BrowserProfile getBrowserProfile() {
+        configureSelenide();
+        return browserProfile;
+    }
+
     public static void chromeSetUp() {
-        Configuration.browser = "chrome";
-        getWebDriver().manage().window().maximize();
-        Configuration.timeout = 10000;
+        setUp("chrome");
     }
 
     public static void firefoxSetUp() {
-        Configuration.browser = "firefox";
-        getWebDriver().manage().window().maximize();
-        Configuration.timeout = 10000;
+        setUp("firefox");
+    }
+
+    /**
+     * Quits the browser started by {@link #chromeSetUp()} or {@link #firefoxSetUp()} on the calling thread.
+     */
+    public static void tearDown() {
+        WebDriver driver = threadDrivers.get();
+        threadDrivers.remove();
+        threadBrowsers.remove();
+        if (driver != null) {
+            driver.quit();
+        }
     }
 
+    /**
+     * Starts a {@code chrome} or {@code firefox} browser with the configured profile.
+     */
+    static WebDriver createDriver(String browser) {
+        BrowserProfile profile = getBrowserProfile();
+        switch (browser.toLowerCase()) {
+            case "chrome":
+                return new ChromeDriver(profile.chromeOptions());
+            case "firefox":
+                return new FirefoxDriver(profile.firefoxOptions());
+            default:
+                throw new IllegalArgumentException("Browser '" + browser + "' is not supported.");
+        }
+    }
+
+    /**
+     * Reuses the browser of the calling thread if it is of the requested kind, and replaces it otherwise.
+     */
+    private static void setUp(String browser) {
+        if (threadDrivers.get() != null && !browser.equals(threadBrowsers.get())) {
+            logger.info("Replacing the {} browser of this thread with {}.", threadBrowsers.get(), browser);
+            tearDown();
+        }
+        WebDriver driver = threadDrivers.get();
+        if (driver == null) {
+            driver = createDriver(browser);
+            threadDrivers.set(driver);
+            threadBrowsers.set(browser);
+        }
+        WebDriverRunner.setWebDriver(driver);
+    }
 }
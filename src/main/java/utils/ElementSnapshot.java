@@ -0,0 +1,164 @@
+package utils;
+
+import com.codeborne.selenide.Configuration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+
+/**
+ * Checks several elements of a page with one script call per attempt instead of one WebDriver command (or more)
+ * per element: the script reads whether each element exists, is visible and enabled, and its value and text,
+ * and the expectations are checked in Java against that snapshot. The whole snapshot is taken again until all
+ * expectations hold or the Selenide timeout is over; then all expectations that still fail are reported
+ * together.
+ * <pre>
+ * ElementSnapshot.expect("Registration form is loaded")
+ *         .visible(firstNameInput)
+ *         .hasValue(emailInput, email)
+ *         .verify();
+ * </pre>
+ */
+public final class ElementSnapshot {
+
+    private static final Logger logger = LogManager.getLogger(ElementSnapshot.class);
+
+    private static final String SNAPSHOT_SCRIPT = ""
+            + "var locators = arguments[0], states = [];"
+            + "for (var i = 0; i < locators.length; i++) {"
+            + "  var l = locators[i];"
+            + "  var e = l.xpath ? document.evaluate(l.locator, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue"
+            + "                  : document.querySelector(l.locator);"
+            + "  if (!e) { states.push({exists: false}); continue; }"
+            + "  var style = window.getComputedStyle(e);"
+            + "  states.push({"
+            + "    exists: true,"
+            + "    visible: e.getClientRects().length > 0 && style.visibility !== 'hidden' && style.opacity !== '0',"
+            + "    enabled: !e.disabled,"
+            + "    value: e.value === undefined ? null : String(e.value),"
+            + "    text: (e.innerText || '').trim()"
+            + "  });"
+            + "}"
+            + "return states;";
+
+    private final String description;
+    private final List<Expectation> expectations = new ArrayList<>();
+
+    private ElementSnapshot(String description) {
+        this.description = description;
+    }
+
+    public static ElementSnapshot expect(String description) {
+        return new ElementSnapshot(description);
+    }
+
+    public ElementSnapshot visible(Locator locator) {
+        return add(locator, "be visible", state -> state.visible ? null : "is not visible");
+    }
+
+    public ElementSnapshot enabled(Locator locator) {
+        return add(locator, "be enabled", state -> state.enabled ? null : "is disabled");
+    }
+
+    public ElementSnapshot hasValue(Locator locator, String value) {
+        return add(locator, "have value '" + value + "'", state -> Objects.equals(state.value, value) ? null : "has value '" + state.value + "'");
+    }
+
+    /**
+     * Expects the visible text of the element to contain the given text, like Selenide's {@code text} condition.
+     */
+    public ElementSnapshot hasText(Locator locator, String text) {
+        return add(locator, "have text '" + text + "'", state -> state.text.contains(text) ? null : "has text '" + state.text + "'");
+    }
+
+    /**
+     * Takes snapshots until all expectations hold, at most for the Selenide timeout.
+     *
+     * @throws AssertionError listing every expectation that still fails
+     */
+    public void verify() {
+        FormFiller.fill();
+        List<Locator> locators = new ArrayList<>();
+        List<Map<String, Object>> arguments = new ArrayList<>();
+        for (Expectation expectation : expectations) {
+            if (!locators.contains(expectation.locator)) {
+                locators.add(expectation.locator);
+                arguments.add(Map.of("locator", expectation.locator.getExpression(), "xpath", expectation.locator.isXpath()));
+            }
+        }
+        long deadline = System.currentTimeMillis() + Configuration.timeout;
+        int attempts = 0;
+        List<String> failures;
+        while (true) {
+            attempts++;
+            List<?> states = (List<?>) ((JavascriptExecutor) getWebDriver()).executeScript(SNAPSHOT_SCRIPT, arguments);
+            failures = new ArrayList<>();
+            for (Expectation expectation : expectations) {
+                ElementState state = new ElementState((Map<?, ?>) states.get(locators.indexOf(expectation.locator)));
+                String failure = state.exists ? expectation.check.apply(state) : "does not exist";
+                if (failure != null) {
+                    failures.add(expectation.locator + " should " + expectation.expected + ", but " + failure);
+                }
+            }
+            if (failures.isEmpty() || System.currentTimeMillis() >= deadline) {
+                break;
+            }
+            sleep(Configuration.pollingInterval);
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError(description + " (" + failures.size() + " of " + expectations.size() + " checks failed after " + Configuration.timeout + " ms):\n  " + String.join("\n  ", failures));
+        }
+        logger.debug("{}: {} checks of {} elements passed after {} snapshot(s).", description, expectations.size(), locators.size(), attempts);
+    }
+
+    private ElementSnapshot add(Locator locator, String expected, Function<ElementState, String> check) {
+        expectations.add(new Expectation(locator, expected, check));
+        return this;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for page elements.", ex);
+        }
+    }
+
+    private static final class Expectation {
+
+        private final Locator locator;
+        private final String expected;
+        private final Function<ElementState, String> check;
+
+        private Expectation(Locator locator, String expected, Function<ElementState, String> check) {
+            this.locator = locator;
+            this.expected = expected;
+            this.check = check;
+        }
+    }
+
+    private static final class ElementState {
+
+        private final boolean exists;
+        private final boolean visible;
+        private final boolean enabled;
+        private final String value;
+        private final String text;
+
+        private ElementState(Map<?, ?> state) {
+            this.exists = Boolean.TRUE.equals(state.get("exists"));
+            this.visible = Boolean.TRUE.equals(state.get("visible"));
+            this.enabled = Boolean.TRUE.equals(state.get("enabled"));
+            this.value = (String) state.get("value");
+            this.text = state.get("text") == null ? "" : (String) state.get("text");
+        }
+    }
+}
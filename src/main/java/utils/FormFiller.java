@@ -0,0 +1,200 @@
+package utils;
+
+import com.codeborne.selenide.Configuration;
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.LogEventListener;
+import com.codeborne.selenide.logevents.SelenideLogger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+
+/**
+ * Fills forms with one script call instead of one WebDriver command (or more) per field. Page objects queue
+ * their fields with {@link #enterText}, {@link #select} and {@link #click}; the queue of the thread is filled
+ * right before the next Selenide command, e.g. the click on the submit button, or by {@link #fill()}. The script
+ * sets the values through the native setters and fires the {@code input}, {@code keyup}, {@code change} and
+ * {@code blur} events a user would cause, and refreshes bootstrap-select pickers. Navigating away drops fields
+ * that were never filled.
+ * <p>
+ * {@code form_fill_mode = typed} fills the fields one by one through Selenide instead, e.g. to rule the script
+ * out when a form behaves differently than with a real user.
+ */
+public final class FormFiller {
+
+    private static final Logger logger = LogManager.getLogger(FormFiller.class);
+
+    public enum InputKind { TEXT, SELECT, CLICK }
+
+    private static final String LISTENER_NAME = "form-filler";
+    private static final Set<String> NAVIGATION_COMMANDS = Set.of("open", "back", "forward", "refresh");
+    private static final boolean TYPED = "typed".equalsIgnoreCase(TestConfiguration.get().getString("form_fill_mode", "script"));
+
+    private static final String FILL_SCRIPT = ""
+            + "var fields = arguments[0], elements = [], problems = [];"
+            + "for (var i = 0; i < fields.length; i++) {"
+            + "  var f = fields[i];"
+            + "  var e = f.xpath ? document.evaluate(f.locator, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue"
+            + "                  : document.querySelector(f.locator);"
+            + "  if (!e) { problems.push(f.locator); }"
+            + "  else if (f.kind === 'SELECT' && !Array.prototype.some.call(e.options, function (o) { return o.text.trim() === f.value.trim(); })) {"
+            + "    problems.push(f.locator + ' has no option \"' + f.value + '\"');"
+            + "  }"
+            + "  elements.push(e);"
+            + "}"
+            + "if (problems.length) { return problems; }"
+            + "function fire(e, type) { e.dispatchEvent(new Event(type, {bubbles: true})); }"
+            + "for (var i = 0; i < fields.length; i++) {"
+            + "  var f = fields[i], e = elements[i];"
+            + "  if (f.kind === 'CLICK') { e.click(); continue; }"
+            + "  if (f.kind === 'SELECT') {"
+            + "    for (var j = 0; j < e.options.length; j++) {"
+            + "      var o = e.options[j];"
+            + "      if (o.text.trim() === f.value.trim()) { o.selected = true; } else if (!e.multiple) { o.selected = false; }"
+            + "    }"
+            + "    fire(e, 'change');"
+            + "    if (window.jQuery && jQuery.fn.selectpicker && jQuery(e).data('selectpicker')) { jQuery(e).selectpicker('refresh'); }"
+            + "    continue;"
+            + "  }"
+            + "  var prototype = e instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;"
+            + "  Object.getOwnPropertyDescriptor(prototype, 'value').set.call(e, f.value);"
+            + "  ['input', 'keyup', 'change', 'blur'].forEach(function (type) { fire(e, type); });"
+            + "}"
+            + "return [];";
+
+    private static final ThreadLocal<List<Field>> pendingFields = ThreadLocal.withInitial(ArrayList::new);
+
+    private FormFiller() {
+    }
+
+    public static void enterText(Locator locator, String text) {
+        queue(new Field(locator, InputKind.TEXT, text == null ? "" : text));
+    }
+
+    /**
+     * Selects the option with the given visible text; in a multiple select, options selected before stay selected.
+     */
+    public static void select(Locator locator, String optionText) {
+        queue(new Field(locator, InputKind.SELECT, optionText));
+    }
+
+    public static void click(Locator locator) {
+        queue(new Field(locator, InputKind.CLICK, ""));
+    }
+
+    /**
+     * Fills the queued fields of the calling thread now. Waits up to the Selenide timeout for fields that are not
+     * on the page yet.
+     */
+    public static void fill() {
+        List<Field> fields = new ArrayList<>(pendingFields.get());
+        pendingFields.get().clear();
+        if (fields.isEmpty()) {
+            return;
+        }
+        if (TYPED) {
+            fields.forEach(Field::fillTyped);
+            return;
+        }
+        List<Map<String, Object>> arguments = new ArrayList<>();
+        for (Field field : fields) {
+            arguments.add(Map.of("locator", field.locator.getExpression(), "xpath", field.locator.isXpath(), "kind", field.kind.name(), "value", field.value));
+        }
+        JavascriptExecutor executor = (JavascriptExecutor) getWebDriver();
+        long deadline = System.currentTimeMillis() + Configuration.timeout;
+        List<?> problems = (List<?>) executor.executeScript(FILL_SCRIPT, arguments);
+        while (!problems.isEmpty() && System.currentTimeMillis() < deadline) {
+            sleep(Configuration.pollingInterval);
+            problems = (List<?>) executor.executeScript(FILL_SCRIPT, arguments);
+        }
+        if (!problems.isEmpty()) {
+            throw new AssertionError("Form could not be filled within " + Configuration.timeout + " ms, missing: " + problems);
+        }
+        logger.debug("Filled {} form field(s) with one script call.", fields.size());
+    }
+
+    /**
+     * Drops the queued fields of the calling thread without filling them.
+     */
+    public static void discard() {
+        pendingFields.get().clear();
+    }
+
+    private static void queue(Field field) {
+        if (!SelenideLogger.hasListener(LISTENER_NAME)) {
+            SelenideLogger.addListener(LISTENER_NAME, new FillBeforeNextCommand());
+        }
+        pendingFields.get().add(field);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for form fields.", ex);
+        }
+    }
+
+    private static final class Field {
+
+        private final Locator locator;
+        private final InputKind kind;
+        private final String value;
+
+        private Field(Locator locator, InputKind kind, String value) {
+            this.locator = locator;
+            this.kind = kind;
+            this.value = value;
+        }
+
+        private void fillTyped() {
+            switch (kind) {
+                case TEXT:
+                    locator.find().clear();
+                    WebElementUtils.enterText(locator.find(), value);
+                    break;
+                case SELECT:
+                    WebElementUtils.selectCategory(locator.find(), value);
+                    break;
+                case CLICK:
+                    WebElementUtils.clickOnButton(locator.find());
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Selenide logs and ignores runtime exceptions of listeners, so a failed fill is rethrown as an
+     * {@link AssertionError} to fail the command that triggered it.
+     */
+    private static final class FillBeforeNextCommand implements LogEventListener {
+
+        @Override
+        public void beforeEvent(LogEvent event) {
+            if (pendingFields.get().isEmpty()) {
+                return;
+            }
+            if (NAVIGATION_COMMANDS.contains(event.getElement())) {
+                logger.debug("Dropping {} form field(s) that were not filled before {}.", pendingFields.get().size(), event.getElement());
+                discard();
+            } else {
+                try {
+                    fill();
+                } catch (RuntimeException ex) {
+                    throw new AssertionError("Form could not be filled before " + event.getElement() + ": " + ex.getMessage(), ex);
+                }
+            }
+        }
+
+        @Override
+        public void afterEvent(LogEvent event) {
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package utils;
+
+import com.codeborne.selenide.SelenideElement;
+
+import static com.codeborne.selenide.Selectors.byXpath;
+import static com.codeborne.selenide.Selenide.$;
+
+/**
+ * Where an element of a page is, as a CSS selector or an XPath expression. Unlike a {@link SelenideElement} the
+ * locator can be handed to a script, which is what lets {@link FormFiller} find all fields of a form in the
+ * browser at once.
+ */
+public final class Locator {
+
+    private final String css;
+    private final String xpath;
+
+    private Locator(String css, String xpath) {
+        this.css = css;
+        this.xpath = xpath;
+    }
+
+    public static Locator css(String css) {
+        return new Locator(css, null);
+    }
+
+    public static Locator xpath(String xpath) {
+        return new Locator(null, xpath);
+    }
+
+    public static Locator name(String name) {
+        return css("[name='" + name + "']");
+    }
+
+    public SelenideElement find() {
+        return css != null ? $(css) : $(byXpath(xpath));
+    }
+
+    boolean isXpath() {
+        return xpath != null;
+    }
+
+    String getExpression() {
+        return css != null ? css : xpath;
+    }
+
+    @Override
+    public String toString() {
+        return getExpression();
+    }
+}
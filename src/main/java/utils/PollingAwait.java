@@ -0,0 +1,112 @@
+package utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Re-evaluates a condition until it holds or the deadline passes. The pause between attempts grows
+ * exponentially from the initial poll interval up to the maximum one, with random jitter so that parallel
+ * tests do not poll in lockstep.
+ */
+public final class PollingAwait {
+
+    private static final Logger logger = LogManager.getLogger(PollingAwait.class);
+
+    private final String alias;
+    private Duration atMost = Duration.ofSeconds(10);
+    private Duration initialPollInterval = Duration.ofMillis(50);
+    private Duration maxPollInterval = Duration.ofSeconds(1);
+    private double backoffMultiplier = 2.0;
+    private double jitterFactor = 0.25;
+
+    private PollingAwait(String alias) {
+        this.alias = alias;
+    }
+
+    public static PollingAwait await(String alias) {
+        return new PollingAwait(alias);
+    }
+
+    public PollingAwait atMost(Duration atMost) {
+        this.atMost = atMost;
+        return this;
+    }
+
+    public PollingAwait pollInterval(Duration initialPollInterval, Duration maxPollInterval) {
+        this.initialPollInterval = initialPollInterval;
+        this.maxPollInterval = maxPollInterval;
+        return this;
+    }
+
+    public PollingAwait backoffMultiplier(double backoffMultiplier) {
+        this.backoffMultiplier = backoffMultiplier;
+        return this;
+    }
+
+    public PollingAwait jitterFactor(double jitterFactor) {
+        this.jitterFactor = jitterFactor;
+        return this;
+    }
+
+    public void until(BooleanSupplier condition) {
+        until(condition::getAsBoolean, Boolean.TRUE::equals);
+    }
+
+    public <T> T until(Callable<T> supplier, Predicate<? super T> predicate) {
+        long start = System.nanoTime();
+        long deadline = start + atMost.toNanos();
+        long pollNanos = initialPollInterval.toNanos();
+        int attempts = 0;
+        T lastValue = null;
+        Exception lastException = null;
+
+        while (true) {
+            attempts++;
+            try {
+                lastValue = supplier.call();
+                lastException = null;
+                if (predicate.test(lastValue)) {
+                    long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+                    AwaitStatistics.record(alias, elapsedMillis, attempts, true);
+                    logger.debug("Condition '{}' became true after {} ms and {} attempt(s).", alias, elapsedMillis, attempts);
+                    return lastValue;
+                }
+            } catch (Exception ex) {
+                lastException = ex;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+                AwaitStatistics.record(alias, elapsedMillis, attempts, false);
+                throw new ConditionTimeoutException(String.format("Condition '%s' was not fulfilled within %d ms (%d attempts, last value: %s).",
+                        alias, atMost.toMillis(), attempts, lastValue), lastException);
+            }
+            sleep(Math.min(remaining, withJitter(pollNanos)));
+            pollNanos = Math.min(maxPollInterval.toNanos(), (long) (pollNanos * backoffMultiplier));
+        }
+    }
+
+    private long withJitter(long nanos) {
+        if (jitterFactor <= 0) {
+            return nanos;
+        }
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-jitterFactor, jitterFactor);
+        return (long) (nanos * factor);
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a condition.", ex);
+        }
+    }
+}
@@ -1,17 +1,15 @@
 package utils;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class RandomDataGenerationMethods {
 
-    static Random random = new Random();
-
     //Generate a random string of specified length
 
     public static String generateRandomString (int length) {
         StringBuilder randomString = new StringBuilder();
         for (int i = 0; i < length; i++) {
-            char randomChar = (char) ('a' + random.nextInt(26));
+            char randomChar = (char) ('a' + ThreadLocalRandom.current().nextInt(26));
             randomString.append(randomChar);
         }
         return randomString.toString();
@@ -20,7 +18,7 @@ public class RandomDataGenerationMethods {
     public static String generateRandomCyrillicString (int length) {
         StringBuilder randomString = new StringBuilder();
         for (int i = 0; i < length; i++) {
-            char randomChar = (char) ('б' + random.nextInt(30));
+            char randomChar = (char) ('б' + ThreadLocalRandom.current().nextInt(30));
             randomString.append(randomChar);
         }
         return randomString.toString();
@@ -29,13 +27,13 @@ public class RandomDataGenerationMethods {
     //Generate a random integer within the specified range
 
     public static int generateRandomInteger (int min, int max) {
-        return random.nextInt(max - min) + min;
+        return ThreadLocalRandom.current().nextInt(max - min) + min;
     }
 
     //Generate a random boolean value
 
     public static boolean generateRandomBoolean () {
-        return random.nextBoolean();
+        return ThreadLocalRandom.current().nextBoolean();
     }
 
 }
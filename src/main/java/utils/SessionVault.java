@@ -0,0 +1,238 @@
+package utils;
+
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.ex.UIAssertionError;
+import io.qameta.allure.Step;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import pageobjects.SkarbHomePage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.codeborne.selenide.Condition.visible;
+import static com.codeborne.selenide.Selenide.page;
+import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
+
+/**
+ * Signs users in once and keeps their session cookies, so that later tests, in any browser, become that user by
+ * cookie injection instead of going through the login form. Sessions of several users are kept at the same
+ * time, which makes switching the user of a browser a matter of replacing its cookies. Sessions are stored in
+ * {@code session_vault_dir} and reused by later runs until they expire; a session the site no longer accepts is
+ * dropped and replaced by a real login.
+ * <p>
+ * All users signed in from the vault share one server session per user, so tests must not sign them out.
+ */
+public final class SessionVault {
+
+    private static final Logger logger = LogManager.getLogger(SessionVault.class);
+
+    private static final String FIELD_SEPARATOR = "\t";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final Duration maxAge;
+    private final Duration verifyTimeout;
+    private final String homePageUrl;
+    private final Map<String, StoredSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    public SessionVault(boolean enabled, Path directory, Duration maxAge, Duration verifyTimeout, String homePageUrl) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.maxAge = maxAge;
+        this.verifyTimeout = verifyTimeout;
+        this.homePageUrl = homePageUrl;
+    }
+
+    private static final class InstanceHolder {
+        private static final SessionVault INSTANCE = fromConfiguration(TestConfiguration.get());
+    }
+
+    public static SessionVault getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    static SessionVault fromConfiguration(TestConfiguration configuration) {
+        return new SessionVault(
+                configuration.getBoolean("session_vault_enabled", true),
+                Paths.get(configuration.getString("session_vault_dir", "target/session-vault")),
+                Duration.ofMinutes(configuration.getLong("session_vault_max_age_minutes", 30)),
+                configuration.getMillis("session_vault_verify_timeout_ms", 3000),
+                configuration.getSkarbHomePageUrl());
+    }
+
+    /**
+     * Makes the browser of the calling thread signed in as the given user, on the Skarb home page. Any other
+     * user signed in before is replaced.
+     */
+    @Step("Sign in as {login}")
+    public void signIn(String login, String password) {
+        synchronized (locks.computeIfAbsent(login, key -> new Object())) {
+            if (enabled) {
+                StoredSession session = sessions.computeIfAbsent(login, this::readSession);
+                if (session != null && session.isValid() && restore(session)) {
+                    logger.info("Restored the session of {} from the session vault.", login);
+                    return;
+                }
+                if (session != null) {
+                    logger.info("Stored session of {} is expired or was rejected, signing in again.", login);
+                    invalidate(login);
+                }
+            }
+            logIn(login, password);
+            if (enabled) {
+                StoredSession session = capture(login);
+                sessions.put(login, session);
+                writeSession(session);
+            }
+        }
+    }
+
+    /**
+     * Forgets the stored session of the user, e.g. after a test signed the user out.
+     */
+    public void invalidate(String login) {
+        sessions.remove(login);
+        try {
+            Files.deleteIfExists(fileOf(login));
+        } catch (IOException ex) {
+            System.err.println(ex);
+        }
+    }
+
+    private void logIn(String login, String password) {
+        WebDriver driver = getWebDriver();
+        Selenide.open(homePageUrl);
+        driver.manage().deleteAllCookies();
+        Selenide.refresh();
+        SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
+        objSkarbHomePage.clickOnSelectWebSiteLanguage()
+                        .clickOnSelectUkrLanguage()
+                        .clickOnSignInButtonOnHomePage()
+                        .checkLoadingOfLoginPage()
+                        .enterLogin(login)
+                        .enterPassword(password)
+                        .clickOnSignInButton();
+        objSkarbHomePage.getNavigateToUserProfilePageButton().shouldBe(visible);
+        logger.info("Signed in as {} through the login page.", login);
+    }
+
+    private boolean restore(StoredSession session) {
+        WebDriver driver = getWebDriver();
+        Selenide.open(homePageUrl);
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : session.cookies) {
+            driver.manage().addCookie(cookie);
+        }
+        Selenide.open(homePageUrl);
+        try {
+            page(SkarbHomePage.class).getNavigateToUserProfilePageButton().shouldBe(visible, verifyTimeout);
+            return true;
+        } catch (UIAssertionError ex) {
+            return false;
+        }
+    }
+
+    private StoredSession capture(String login) {
+        List<Cookie> cookies = new ArrayList<>(getWebDriver().manage().getCookies());
+        Instant expiresAt = Instant.now().plus(maxAge);
+        for (Cookie cookie : cookies) {
+            if (cookie.getExpiry() != null && cookie.getExpiry().toInstant().isBefore(expiresAt)) {
+                expiresAt = cookie.getExpiry().toInstant();
+            }
+        }
+        return new StoredSession(login, expiresAt, cookies);
+    }
+
+    private StoredSession readSession(String login) {
+        Path file = fileOf(login);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            Instant expiresAt = Instant.ofEpochMilli(Long.parseLong(lines.get(0)));
+            List<Cookie> cookies = new ArrayList<>();
+            for (String line : lines.subList(1, lines.size())) {
+                String[] fields = line.split(FIELD_SEPARATOR, -1);
+                cookies.add(new Cookie.Builder(fields[0], fields[1])
+                        .domain(fields[2].isEmpty() ? null : fields[2])
+                        .path(fields[3])
+                        .expiresOn(fields[4].isEmpty() ? null : new Date(Long.parseLong(fields[4])))
+                        .isSecure(Boolean.parseBoolean(fields[5]))
+                        .isHttpOnly(Boolean.parseBoolean(fields[6]))
+                        .sameSite(fields[7].isEmpty() ? null : fields[7])
+                        .build());
+            }
+            return new StoredSession(login, expiresAt, cookies);
+        } catch (IOException | RuntimeException ex) {
+            logger.warn("Ignoring unreadable session vault file {}: {}", file, ex.toString());
+            return null;
+        }
+    }
+
+    private void writeSession(StoredSession session) {
+        StringBuilder content = new StringBuilder().append(session.expiresAt.toEpochMilli()).append('\n');
+        for (Cookie cookie : session.cookies) {
+            content.append(String.join(FIELD_SEPARATOR,
+                    cookie.getName(),
+                    cookie.getValue(),
+                    cookie.getDomain() == null ? "" : cookie.getDomain(),
+                    cookie.getPath() == null ? "/" : cookie.getPath(),
+                    cookie.getExpiry() == null ? "" : String.valueOf(cookie.getExpiry().getTime()),
+                    String.valueOf(cookie.isSecure()),
+                    String.valueOf(cookie.isHttpOnly()),
+                    cookie.getSameSite() == null ? "" : cookie.getSameSite())).append('\n');
+        }
+        try {
+            Files.createDirectories(directory);
+            Path file = fileOf(session.login);
+            Path temporary = Files.createTempFile(directory, "session", ".tmp");
+            try {
+                Files.setPosixFilePermissions(temporary, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException ex) {
+                logger.debug("File system does not support POSIX permissions, {} keeps the default ones.", file);
+            }
+            Files.writeString(temporary, content, StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            System.err.println(ex);
+        }
+    }
+
+    private Path fileOf(String login) {
+        return directory.resolve(login.replaceAll("[^A-Za-z0-9._-]", "_") + ".session");
+    }
+
+    private static final class StoredSession {
+
+        private final String login;
+        private final Instant expiresAt;
+        private final List<Cookie> cookies;
+
+        private StoredSession(String login, Instant expiresAt, List<Cookie> cookies) {
+            this.login = login;
+            this.expiresAt = expiresAt;
+            this.cookies = cookies;
+        }
+
+        private boolean isValid() {
+            return Instant.now().isBefore(expiresAt) && !cookies.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package utils;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, typed view of the test configuration, loaded once per JVM. Values are resolved from, in order of
+ * precedence: JVM system properties ({@code -Ddb_mode=EMBEDDED}), environment variables named after the key in
+ * upper case with the {@code SKARB_} prefix ({@code SKARB_DB_PASSWORD}), the profile file
+ * {@code testdata/config-<profile>.properties} selected with {@code -Dconfig_profile} or {@code SKARB_CONFIG_PROFILE},
+ * and finally {@code testdata/config.properties} on the classpath. Instances never change, so they can be read
+ * from any number of threads without locking.
+ */
+public final class TestConfiguration {
+
+    private static final Logger logger = LogManager.getLogger(TestConfiguration.class);
+
+    private static final String BASE_RESOURCE = "testdata/config.properties";
+    private static final String PROFILE_RESOURCE = "testdata/config-%s.properties";
+    private static final String PROFILE_KEY = "config_profile";
+    private static final String ENVIRONMENT_PREFIX = "SKARB_";
+
+    private final Config config;
+    private final String profile;
+
+    private TestConfiguration(Config config, String profile) {
+        this.config = config;
+        this.profile = profile;
+    }
+
+    private static final class InstanceHolder {
+        private static final TestConfiguration INSTANCE = load(System.getenv());
+    }
+
+    public static TestConfiguration get() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    static TestConfiguration load(Map<String, String> environment) {
+        ClassLoader classLoader = TestConfiguration.class.getClassLoader();
+        Config base = ConfigFactory.parseResources(classLoader, BASE_RESOURCE);
+        if (base.isEmpty()) {
+            throw new IllegalStateException("Configuration " + BASE_RESOURCE + " was not found on the classpath.");
+        }
+        String profile = System.getProperty(PROFILE_KEY, environment.getOrDefault(ENVIRONMENT_PREFIX + PROFILE_KEY.toUpperCase(Locale.ROOT), ""));
+        Config layered = base;
+        if (!profile.isEmpty()) {
+            Config profileConfig = ConfigFactory.parseResources(classLoader, String.format(PROFILE_RESOURCE, profile));
+            if (profileConfig.isEmpty()) {
+                throw new IllegalStateException("Configuration profile " + String.format(PROFILE_RESOURCE, profile) + " was not found on the classpath.");
+            }
+            layered = profileConfig.withFallback(base);
+        }
+        Config environmentOverrides = ConfigFactory.empty();
+        for (String key : layered.root().keySet()) {
+            String value = environment.get(ENVIRONMENT_PREFIX + key.toUpperCase(Locale.ROOT));
+            if (value != null) {
+                environmentOverrides = environmentOverrides.withValue(key, ConfigValueFactory.fromAnyRef(value, "environment variable"));
+            }
+        }
+        Config config = ConfigFactory.systemProperties()
+                .withFallback(environmentOverrides)
+                .withFallback(layered)
+                .resolve();
+        logger.info("Loaded test configuration{}.", profile.isEmpty() ? "" : " with profile '" + profile + "'");
+        return new TestConfiguration(config, profile);
+    }
+
+    /**
+     * Returns a copy with the given values replacing the configured ones, e.g. to point a second database
+     * manager at the embedded database. This instance is not changed.
+     */
+    public TestConfiguration withOverrides(Map<String, ?> overrides) {
+        Config overridden = config;
+        for (Map.Entry<String, ?> override : overrides.entrySet()) {
+            overridden = overridden.withValue(override.getKey(), ConfigValueFactory.fromAnyRef(override.getValue(), "override"));
+        }
+        return new TestConfiguration(overridden, profile);
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public boolean hasValue(String key) {
+        return config.hasPath(key);
+    }
+
+    public String getString(String key) {
+        return config.getString(key).trim();
+    }
+
+    public String getString(String key, String defaultValue) {
+        return config.hasPath(key) ? getString(key) : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return config.hasPath(key) ? parse(key, () -> Integer.parseInt(getString(key))) : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        return config.hasPath(key) ? parse(key, () -> Long.parseLong(getString(key))) : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return config.hasPath(key) ? Boolean.parseBoolean(getString(key)) : defaultValue;
+    }
+
+    /**
+     * Reads a duration configured as a plain number of milliseconds, the convention of the {@code *_ms} keys.
+     */
+    public Duration getMillis(String key, long defaultMillis) {
+        return Duration.ofMillis(getLong(key, defaultMillis));
+    }
+
+    /**
+     * Reads a comma-separated list, skipping blank entries.
+     */
+    public List<String> getList(String key) {
+        if (!config.hasPath(key)) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(getString(key).split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    public String getLoginPageUrl() {
+        return getString("URL");
+    }
+
+    public String getSkarbHomePageUrl() {
+        return getString("URL_Skarb_Home_Page");
+    }
+
+    public String getLmsHomePageUrl() {
+        return getString("URL_LMS_Home_Page");
+    }
+
+    public String getMailHogUrl() {
+        return getString("URL_MailHog");
+    }
+
+    public String getNgoUserLogin() {
+        return getString("login_NGOuser");
+    }
+
+    public String getNgoUserPassword() {
+        return getString("password_NGOuser");
+    }
+
+    private <T> T parse(String key, Supplier<T> parser) {
+        try {
+            return parser.get();
+        } catch (NumberFormatException ex) {
+            throw new ConfigException.WrongType(config.origin(), key, "number", "'" + getString(key) + "'");
+        }
+    }
+}
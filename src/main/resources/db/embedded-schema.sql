@@ -0,0 +1,54 @@
+-- Subset of the Skarb schema used by the database layer, for the embedded H2 database (MODE=MSSQLServer).
+
+CREATE TABLE IF NOT EXISTS partners (
+    id BIGINT IDENTITY(1,1) PRIMARY KEY,
+    name NVARCHAR(255) NOT NULL,
+    site_url NVARCHAR(255) NULL,
+    about NVARCHAR(2000) NULL,
+    created_date DATETIME2 NULL,
+    updated_date DATETIME2 NULL
+);
+
+CREATE TABLE IF NOT EXISTS ngos (
+    id BIGINT IDENTITY(1,1) PRIMARY KEY,
+    name NVARCHAR(255) NOT NULL,
+    site_url NVARCHAR(255) NULL,
+    about NVARCHAR(2000) NULL,
+    confirmed BIT NOT NULL DEFAULT 0,
+    created_date DATETIME2 NULL,
+    updated_date DATETIME2 NULL
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT IDENTITY(1,1) PRIMARY KEY,
+    first_name NVARCHAR(255) NULL,
+    last_name NVARCHAR(255) NULL,
+    email NVARCHAR(255) NOT NULL,
+    sex NVARCHAR(10) NULL,
+    phone NVARCHAR(20) NULL,
+    password NVARCHAR(255) NULL,
+    role NVARCHAR(50) NOT NULL,
+    status NVARCHAR(50) NULL,
+    created_date DATETIME2 NULL,
+    updated_date DATETIME2 NULL,
+    locale NVARCHAR(10) NULL,
+    email_confirmed BIT NOT NULL DEFAULT 0,
+    position_in_organization NVARCHAR(255) NULL,
+    organization_id BIGINT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_users_email ON users (email);
+
+CREATE TABLE IF NOT EXISTS volunteer_tasks (
+    id BIGINT IDENTITY(1,1) PRIMARY KEY,
+    name NVARCHAR(255) NOT NULL,
+    description NVARCHAR(4000) NULL,
+    expected_outcome NVARCHAR(4000) NULL,
+    benefit NVARCHAR(4000) NULL,
+    status NVARCHAR(50) NULL,
+    organization_id BIGINT NULL REFERENCES ngos (id),
+    created_date DATETIME2 NULL,
+    updated_date DATETIME2 NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_volunteer_tasks_name ON volunteer_tasks (name);
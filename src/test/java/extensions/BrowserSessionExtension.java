@@ -0,0 +1,72 @@
+package extensions;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import utils.BrowserSession;
+import utils.BrowserSessionPool;
+
+/**
+ * Leases a warm browser from {@link BrowserSessionPool} for each test class and makes it the Selenide browser of
+ * the class. A lost or unreachable browser in a test recycles the session instead of handing it to the next
+ * class. The pool is closed at the end of the run.
+ */
+public class BrowserSessionExtension implements BeforeAllCallback, AfterAllCallback, TestExecutionExceptionHandler {
+
+    private static final Logger logger = LogManager.getLogger(BrowserSessionExtension.class);
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(BrowserSessionExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        BrowserSessionPool pool = context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(RunSessions.class, key -> new RunSessions(), RunSessions.class).pool;
+        context.getStore(NAMESPACE).put(BrowserSession.class, pool.lease().bindToCurrentThread());
+    }
+
+    @Override
+    public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+        if (isBrowserError(throwable)) {
+            BrowserSession session = context.getStore(NAMESPACE).get(BrowserSession.class, BrowserSession.class);
+            if (session != null) {
+                logger.warn("Browser error in {}, the browser session will be recycled.", context.getDisplayName());
+                session.markBroken();
+            }
+        }
+        throw throwable;
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        BrowserSession session = context.getStore(NAMESPACE).remove(BrowserSession.class, BrowserSession.class);
+        if (session != null) {
+            session.close();
+        }
+    }
+
+    private static boolean isBrowserError(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof NoSuchSessionException || cause instanceof NoSuchWindowException || cause instanceof UnreachableBrowserException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class RunSessions implements ExtensionContext.Store.CloseableResource {
+
+        private final BrowserSessionPool pool = BrowserSessionPool.getInstance();
+
+        @Override
+        public void close() {
+            logger.info("Browser session pool metrics: {}", pool.getMetrics());
+            pool.close();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package extensions;
+
+import database.DatabaseConnectionManager;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
+import org.opentest4j.TestAbortedException;
+
+/**
+ * Aborts database tests while the circuit breaker of the shared {@link DatabaseConnectionManager} is open,
+ * so that an unreachable database shows up as aborted tests carrying the connection error instead of every
+ * test failing on its own timeout.
+ */
+public class DatabaseAvailabilityExtension implements BeforeEachCallback, TestExecutionExceptionHandler {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (!DatabaseConnectionManager.getInstance().isDatabaseAvailable()) {
+            throw new TestAbortedException("Database is unavailable, skipping " + context.getDisplayName() + ".");
+        }
+    }
+
+    @Override
+    public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+        if (!DatabaseConnectionManager.getInstance().isDatabaseAvailable()) {
+            throw new TestAbortedException("Database became unavailable during " + context.getDisplayName() + ".", throwable);
+        }
+        throw throwable;
+    }
+}
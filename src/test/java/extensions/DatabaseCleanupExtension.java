@@ -0,0 +1,95 @@
+package extensions;
+
+import database.CleanupReport;
+import database.DatabaseConnectionManager;
+import database.TestDataCleanup;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import utils.TestConfiguration;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Deletes the test data tracked in {@link TestDataCleanup} without holding up the suite: each test class
+ * tracks what it creates in its own {@link TestDataCleanup.Scope}, after the class the cleanup of that scope
+ * starts in the background, so classes running in parallel keep their data until they finish. At the end of
+ * the run the extension deletes whatever is left, waits for the pending cleanups and closes the connection pool.
+ * Run with {@code -Ddb_cleanup_sweep=true} to also sweep {@code @example.com} leftovers of earlier runs.
+ */
+public class DatabaseCleanupExtension implements BeforeAllCallback, AfterAllCallback {
+
+    private static final Logger logger = LogManager.getLogger(DatabaseCleanupExtension.class);
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(DatabaseCleanupExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        SuiteCleanup suiteCleanup = context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(SuiteCleanup.class, key -> new SuiteCleanup(), SuiteCleanup.class);
+        context.getStore(NAMESPACE).put(TestDataCleanup.Scope.class, suiteCleanup.testDataCleanup.openScope(context.getDisplayName()));
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        SuiteCleanup suiteCleanup = context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL).get(SuiteCleanup.class, SuiteCleanup.class);
+        TestDataCleanup.Scope scope = context.getStore(NAMESPACE).remove(TestDataCleanup.Scope.class, TestDataCleanup.Scope.class);
+        if (suiteCleanup.enabled) {
+            scope.cleanupAsync();
+        } else {
+            scope.close();
+        }
+    }
+
+    private static final class SuiteCleanup implements ExtensionContext.Store.CloseableResource {
+
+        private final DatabaseConnectionManager connectionManager = DatabaseConnectionManager.getInstance();
+        private final TestDataCleanup testDataCleanup = connectionManager.getTestDataCleanup();
+        private final TestConfiguration configuration = TestConfiguration.get();
+        private final boolean enabled = configuration.getBoolean("db_cleanup_enabled", true);
+
+        private SuiteCleanup() {
+            logger.info("Test run {} started, generated test data will {}be cleaned up.", testDataCleanup.getRunId(), enabled ? "" : "not ");
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (enabled) {
+                    testDataCleanup.cleanupAsync();
+                    Duration timeout = configuration.getMillis("db_cleanup_timeout_ms", 120000);
+                    List<CleanupReport> reports = testDataCleanup.awaitPendingCleanups(timeout);
+                    logger.info("Test data cleanup of run {}: {}", testDataCleanup.getRunId(), reports);
+                }
+                if (configuration.getBoolean("db_cleanup_sweep", false)) {
+                    sweep();
+                }
+            } finally {
+                logger.info("Database connection pool metrics: {}", connectionManager.getPoolMetrics());
+                connectionManager.closeConnectionPool();
+            }
+        }
+
+        private void sweep() {
+            List<String> patterns = configuration.hasValue("db_cleanup_sweep_patterns")
+                    ? configuration.getList("db_cleanup_sweep_patterns") : List.of("%@example.com");
+            LocalDateTime createdBefore = LocalDateTime.now()
+                    .minusHours(configuration.getLong("db_cleanup_sweep_older_than_hours", 24));
+            List<String> keepEmails = Stream.of(configuration.getString("login", ""), configuration.getString("login_NGOuser", ""))
+                    .filter(email -> !email.isEmpty())
+                    .collect(Collectors.toList());
+            try {
+                testDataCleanup.sweep(patterns, createdBefore, keepEmails);
+            } catch (SQLException ex) {
+                System.err.println(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package extensions;
+
+import database.JdbcLeakDetector;
+import io.qameta.allure.Allure;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import utils.TestConfiguration;
+
+import java.util.List;
+
+/**
+ * Reports the statements and result sets a test leaves open, with the stack that opened them, and closes them
+ * before the next test. Leaks are logged and attached to the Allure result; once the leaks of the run exceed
+ * {@code db_leak_threshold} the test that crossed it fails. Needs {@code db_leak_detection_enabled = true}.
+ */
+public class JdbcLeakExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private static final Logger logger = LogManager.getLogger(JdbcLeakExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(RunLeaks.class, key -> new RunLeaks(), RunLeaks.class);
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        JdbcLeakDetector.beginTest();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        List<JdbcLeakDetector.Leak> leaks = JdbcLeakDetector.endTest();
+        if (leaks.isEmpty()) {
+            return;
+        }
+        String testId = context.getRequiredTestClass().getSimpleName() + "." + context.getRequiredTestMethod().getName();
+        StringBuilder report = new StringBuilder();
+        for (JdbcLeakDetector.Leak leak : leaks) {
+            report.append(leak).append(System.lineSeparator()).append(leak.getCreationStackTrace()).append(System.lineSeparator());
+        }
+        logger.warn("{} left {} JDBC resource(s) open, they were closed:{}{}", testId, leaks.size(), System.lineSeparator(), report);
+        Allure.addAttachment("JDBC resource leaks", "text/plain", report.toString(), ".txt");
+
+        long threshold = context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL).get(RunLeaks.class, RunLeaks.class).threshold;
+        if (JdbcLeakDetector.getLeakCount() > threshold) {
+            throw new AssertionError(String.format("%d JDBC resource leak(s) in this run exceed the threshold of %d; %s leaked:%n%s",
+                    JdbcLeakDetector.getLeakCount(), threshold, testId, report));
+        }
+    }
+
+    private static final class RunLeaks implements ExtensionContext.Store.CloseableResource {
+
+        private final long threshold = TestConfiguration.get().getLong("db_leak_threshold", 0);
+
+        @Override
+        public void close() {
+            logger.info("JDBC resource leaks of the run: {}, still open at the end: {}", JdbcLeakDetector.getLeakCount(), JdbcLeakDetector.getOpenResources());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package extensions;
+
+import database.QueryStatistics;
+import io.qameta.allure.Allure;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Records the database round trips of every test: the per-query latency percentiles are attached to the
+ * Allure result, and at the end of the run all tests together with the run totals are written to
+ * {@code target/query-statistics.json}. Tests annotated with {@link RoundTripBudget} fail when they make
+ * more round trips than the budget allows.
+ */
+public class QueryInstrumentationExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private static final Logger logger = LogManager.getLogger(QueryInstrumentationExtension.class);
+
+    private static final Path STATISTICS_FILE = Paths.get("target", "query-statistics.json");
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(RunStatistics.class, key -> new RunStatistics(), RunStatistics.class);
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        QueryStatistics.beginTest();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Map<String, QueryStatistics.Entry> entries = QueryStatistics.endTest();
+        long roundTrips = QueryStatistics.countRoundTrips(entries);
+        String testId = context.getRequiredTestClass().getSimpleName() + "." + context.getRequiredTestMethod().getName();
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL).get(RunStatistics.class, RunStatistics.class).tests.put(testId, entries);
+        logger.info("{} made {} database round trip(s).", testId, roundTrips);
+        if (!entries.isEmpty()) {
+            Allure.addAttachment("Database queries", "application/json",
+                    QueryStatistics.toJson(testId, entries), ".json");
+        }
+        Optional<RoundTripBudget> budget = findBudget(context);
+        if (budget.isPresent() && roundTrips > budget.get().value()) {
+            throw new AssertionError(String.format("%s made %d database round trips, the budget is %d:%n%s",
+                    testId, roundTrips, budget.get().value(), describe(entries)));
+        }
+    }
+
+    private static Optional<RoundTripBudget> findBudget(ExtensionContext context) {
+        RoundTripBudget budget = context.getRequiredTestMethod().getAnnotation(RoundTripBudget.class);
+        return budget != null ? Optional.of(budget) : Optional.ofNullable(context.getRequiredTestClass().getAnnotation(RoundTripBudget.class));
+    }
+
+    private static String describe(Map<String, QueryStatistics.Entry> entries) {
+        StringBuilder description = new StringBuilder();
+        entries.forEach((fingerprint, entry) -> description.append("  ").append(entry.getCalls()).append(" x ").append(fingerprint).append(System.lineSeparator()));
+        return description.toString();
+    }
+
+    private static final class RunStatistics implements ExtensionContext.Store.CloseableResource {
+
+        private final Map<String, Map<String, QueryStatistics.Entry>> tests = new ConcurrentSkipListMap<>();
+
+        @Override
+        public void close() {
+            logger.info("Database round trips of the run: {}", QueryStatistics.countRoundTrips(QueryStatistics.snapshot()));
+            try {
+                QueryStatistics.writeJson(STATISTICS_FILE, tests);
+            } catch (IOException ex) {
+                System.err.println(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package extensions;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of database round trips a test may make. On a class it applies to every test method
+ * without its own budget. Checked by {@link QueryInstrumentationExtension}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface RoundTripBudget {
+
+    int value();
+}
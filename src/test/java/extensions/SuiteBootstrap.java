@@ -0,0 +1,178 @@
+package extensions;
+
+import database.DatabaseConnectionManager;
+import models.NGO;
+import models.Partner;
+import models.TaskForVolunteer;
+import models.Volunteer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import testdata.TestAccounts;
+import utils.BrowserSessionPool;
+import utils.TestConfiguration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts the expensive resources of the run in the background as soon as the JUnit platform starts, instead of
+ * one after another when the first test touches them: the test configuration and the test data generators
+ * while tests are discovered, then, for the classes that were actually selected, browsers and database
+ * connections. Tests wait only for the resource they use, through the pool or singleton that hands it out.
+ * Failures are only logged; the test that needs the resource reports them. Registered in
+ * {@code META-INF/services}, disabled with {@code bootstrap_enabled = false}.
+ */
+public class SuiteBootstrap implements LauncherSessionListener {
+
+    private static final Logger logger = LogManager.getLogger(SuiteBootstrap.class);
+
+    private static final String PARALLEL_ENABLED = "junit.jupiter.execution.parallel.enabled";
+    private static final String PARALLELISM = "junit.jupiter.execution.parallel.config.fixed.parallelism";
+
+    private final long sessionStart = System.nanoTime();
+    private final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+    private ExecutorService executor;
+    private boolean selectedResourcesStarted;
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "suite-bootstrap-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        start("configuration", TestConfiguration::get);
+        start("test data generators", SuiteBootstrap::warmUpTestDataGenerators);
+        session.getLauncher().registerTestExecutionListeners(new TestExecutionListener() {
+            @Override
+            public void testPlanExecutionStarted(TestPlan testPlan) {
+                startSelectedResources(testPlan);
+            }
+        });
+    }
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+        executor.shutdownNow();
+    }
+
+    private void startSelectedResources(TestPlan testPlan) {
+        TestConfiguration configuration = TestConfiguration.get();
+        if (selectedResourcesStarted || !configuration.getBoolean("bootstrap_enabled", true)) {
+            return;
+        }
+        selectedResourcesStarted = true;
+        int browserClasses = 0;
+        boolean sharedDatabase = false;
+        boolean accountPool = usesAccountPool(testPlan);
+        for (Class<?> testClass : testClasses(testPlan)) {
+            Set<Class<? extends Extension>> extensions = extensionsOf(testClass);
+            if (extensions.contains(BrowserSessionExtension.class)) {
+                browserClasses++;
+            }
+            if (extensions.contains(DatabaseAvailabilityExtension.class) || extensions.contains(DatabaseCleanupExtension.class)) {
+                sharedDatabase = true;
+            }
+        }
+        boolean parallel = testPlan.getConfigurationParameters().getBoolean(PARALLEL_ENABLED).orElse(false);
+        int parallelism = parallel ? testPlan.getConfigurationParameters().get(PARALLELISM, Integer::parseInt).orElse(1) : 1;
+        int browsers = Math.min(browserClasses, Math.min(parallelism, configuration.getInt("bootstrap_browsers", parallelism)));
+        for (int i = 0; i < browsers; i++) {
+            BrowserSessionPool.getInstance().prewarm(executor);
+        }
+        if (sharedDatabase) {
+            int connections = configuration.getInt("bootstrap_db_connections", parallelism);
+            start("database connection pool", () -> DatabaseConnectionManager.getInstance().warmUpConnectionPool(connections));
+        }
+        if (accountPool) {
+            start("test account pool", TestAccounts::getAccountPool);
+        }
+        logger.info("Suite bootstrap: starting {} browser(s){} in the background.", browsers, sharedDatabase ? " and the database connection pool" : "");
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).whenComplete((ignored, failure) ->
+                logger.info("Suite bootstrap tasks finished {} ms after the platform started.", (System.nanoTime() - sessionStart) / 1_000_000));
+    }
+
+    private void start(String resource, BootstrapTask task) {
+        tasks.add(CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+                logger.info("Suite bootstrap: {} ready in {} ms.", resource, (System.nanoTime() - start) / 1_000_000);
+            } catch (Exception | LinkageError ex) {
+                logger.warn("Suite bootstrap: {} could not be started, tests using it will start it themselves: {}", resource, ex.toString());
+            }
+        }, executor));
+    }
+
+    private static void warmUpTestDataGenerators() {
+        Instancio.create(Volunteer.getUserModel());
+        Instancio.create(Partner.getPartnerModel());
+        Instancio.create(NGO.getNGO_Model());
+        Instancio.create(TaskForVolunteer.getTaskForVolunteerModel());
+    }
+
+    private static Set<Class<?>> testClasses(TestPlan testPlan) {
+        Set<Class<?>> classes = new HashSet<>();
+        for (TestIdentifier root : testPlan.getRoots()) {
+            for (TestIdentifier identifier : testPlan.getDescendants(root)) {
+                identifier.getSource()
+                        .filter(ClassSource.class::isInstance)
+                        .map(source -> ((ClassSource) source).getJavaClass())
+                        .ifPresent(classes::add);
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Returns whether a selected test method, or its class, is marked with {@link UsesAccountPool}.
+     */
+    private static boolean usesAccountPool(TestPlan testPlan) {
+        for (TestIdentifier root : testPlan.getRoots()) {
+            for (TestIdentifier identifier : testPlan.getDescendants(root)) {
+                boolean marked = identifier.getSource()
+                        .filter(MethodSource.class::isInstance)
+                        .map(source -> (MethodSource) source)
+                        .map(source -> AnnotationSupport.isAnnotated(source.getJavaMethod(), UsesAccountPool.class)
+                                || AnnotationSupport.isAnnotated(source.getJavaClass(), UsesAccountPool.class))
+                        .orElse(false);
+                if (marked) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Set<Class<? extends Extension>> extensionsOf(Class<?> testClass) {
+        Set<Class<? extends Extension>> extensions = new HashSet<>();
+        for (ExtendWith extendWith : AnnotationSupport.findRepeatableAnnotations(testClass, ExtendWith.class)) {
+            extensions.addAll(Arrays.asList(extendWith.value()));
+        }
+        return extensions;
+    }
+
+    @FunctionalInterface
+    private interface BootstrapTask {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,37 @@
+package extensions;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Puts the running test into the log4j thread context as {@code test}, so that log lines of test classes running
+ * in parallel can be told apart. Registered for all tests through extension auto-detection.
+ */
+public class TestLogContextExtension implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private static final String KEY = "test";
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        ThreadContext.put(KEY, context.getRequiredTestClass().getSimpleName());
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        ThreadContext.put(KEY, context.getRequiredTestClass().getSimpleName() + "." + context.getRequiredTestMethod().getName());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        ThreadContext.put(KEY, context.getRequiredTestClass().getSimpleName());
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        ThreadContext.remove(KEY);
+    }
+}
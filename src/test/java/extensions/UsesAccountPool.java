@@ -0,0 +1,15 @@
+package extensions;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks tests that lease accounts through {@link testdata.TestAccounts}. {@link SuiteBootstrap} prepares the
+ * account pool table in the background only when such a test is selected.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface UsesAccountPool {
+}
@@ -0,0 +1,215 @@
+package testdata;
+
+import database.BulkColumn;
+import database.BulkInserter;
+import database.DatabaseConnectionManager;
+import database.PasswordHasher;
+import database.SeedingReport;
+import database.SqlParameter;
+import database.TestDataCleanup;
+import models.NGO;
+import models.Partner;
+import models.TaskForVolunteer;
+import models.Volunteer;
+import org.instancio.Instancio;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static database.SqlParameter.bool;
+import static database.SqlParameter.longValue;
+import static database.SqlParameter.string;
+import static database.SqlParameter.timestamp;
+
+/**
+ * Streams Instancio test data models into the Skarb database for load and volume tests.
+ * Volunteers go straight into {@code users}; partners and NGOs are written in chunks, first the
+ * organization rows and then their users linked to them by the generated organization ids. Passwords are stored as
+ * BCrypt hashes, so seeded users can log in through the UI with their generated (or the shared) password.
+ * Seeded users and tasks are tracked for cleanup at the end of the run unless {@link #withoutCleanup()} is used.
+ */
+public class DatabaseSeeder {
+
+    private static final int ORGANIZATION_CHUNK_SIZE = 1000;
+
+    private static final List<BulkColumn> USER_COLUMNS = Arrays.asList(
+            BulkColumn.nvarchar("first_name", 255),
+            BulkColumn.nvarchar("last_name", 255),
+            BulkColumn.nvarchar("email", 255),
+            BulkColumn.nvarchar("sex", 10),
+            BulkColumn.nvarchar("phone", 20),
+            BulkColumn.nvarchar("password", 255),
+            BulkColumn.nvarchar("role", 50),
+            BulkColumn.nvarchar("status", 50),
+            BulkColumn.timestamp("created_date"),
+            BulkColumn.timestamp("updated_date"),
+            BulkColumn.nvarchar("locale", 10),
+            BulkColumn.bit("email_confirmed"));
+
+    private static final List<BulkColumn> PARTNER_COLUMNS = Arrays.asList(
+            BulkColumn.nvarchar("name", 255),
+            BulkColumn.nvarchar("site_url", 255),
+            BulkColumn.nvarchar("about", 2000),
+            BulkColumn.timestamp("created_date"),
+            BulkColumn.timestamp("updated_date"));
+
+    private static final List<BulkColumn> NGO_COLUMNS = Arrays.asList(
+            BulkColumn.nvarchar("name", 255),
+            BulkColumn.nvarchar("site_url", 255),
+            BulkColumn.nvarchar("about", 2000),
+            BulkColumn.bit("confirmed"),
+            BulkColumn.timestamp("created_date"),
+            BulkColumn.timestamp("updated_date"));
+
+    private static final String ORGANIZATION_USER_INSERT = "INSERT INTO users (first_name, last_name, email, sex, phone, password, role, status, created_date, updated_date, locale, email_confirmed, position_in_organization, organization_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 'ACTIVE', ?, ?, 'UK', ?, ?, ?)";
+
+    private static final String TASK_INSERT = "INSERT INTO volunteer_tasks (name, description, expected_outcome, benefit, status, organization_id, created_date, updated_date) "
+            + "SELECT ?, ?, ?, ?, ?, u.organization_id, ?, ? FROM users u WHERE u.email = ?";
+
+    private final BulkInserter bulkInserter;
+    private final PasswordHasher passwordHasher;
+    private final boolean emailConfirmed;
+    private final String sharedPassword;
+    private TestDataCleanup testDataCleanup;
+
+    public DatabaseSeeder(DatabaseConnectionManager connectionManager, boolean emailConfirmed) {
+        this(connectionManager, emailConfirmed, null);
+    }
+
+    /**
+     * @param sharedPassword password given to every seeded user instead of the generated one, or {@code null}
+     *                       to keep the generated per-user passwords
+     */
+    public DatabaseSeeder(DatabaseConnectionManager connectionManager, boolean emailConfirmed, String sharedPassword) {
+        this.bulkInserter = connectionManager.getBulkInserter();
+        this.passwordHasher = connectionManager.getPasswordHasher();
+        this.emailConfirmed = emailConfirmed;
+        this.sharedPassword = sharedPassword;
+        this.testDataCleanup = connectionManager.getTestDataCleanup();
+    }
+
+    /**
+     * Keeps the seeded data after the run, e.g. for accounts registered in the shared account pool.
+     */
+    public DatabaseSeeder withoutCleanup() {
+        this.testDataCleanup = null;
+        return this;
+    }
+
+    public SeedingReport seedVolunteers(int count) throws SQLException {
+        return seedVolunteers(Instancio.stream(Volunteer.getUserModel()).limit(count));
+    }
+
+    public SeedingReport seedVolunteers(Stream<Volunteer> volunteers) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return bulkInserter.insert("users", USER_COLUMNS, withPasswordHashes(tracked(volunteers, Volunteer::getEmail), Volunteer::getPassword), hashed -> {
+            Volunteer volunteer = hashed.getKey();
+            return new Object[]{volunteer.getFirstName(), volunteer.getLastName(), volunteer.getEmail(), "FEMALE", volunteer.getPhoneNumber(),
+                    hashed.getValue(), "ROLE_VOLUNTEER", "ACTIVE", now, now, "UK", emailConfirmed};
+        });
+    }
+
+    public SeedingReport seedPartners(int count) throws SQLException {
+        return seedPartners(Instancio.stream(Partner.getPartnerModel()).limit(count));
+    }
+
+    public SeedingReport seedPartners(Stream<Partner> partners) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<SeedingReport> reports = new ArrayList<>();
+        Iterator<Map.Entry<Partner, String>> iterator = withPasswordHashes(tracked(partners, Partner::getEmail), Partner::getPassword).iterator();
+        while (iterator.hasNext()) {
+            List<Map.Entry<Partner, String>> chunk = nextChunk(iterator);
+            long start = System.nanoTime();
+            List<Long> organizationIds = bulkInserter.insertReturningIds("partners", PARTNER_COLUMNS, chunk, hashed -> new Object[]{
+                    hashed.getKey().getOrganizationName(), hashed.getKey().getOrganizationLink(), hashed.getKey().getAbout(), now, now});
+            reports.add(new SeedingReport("partners", "multi-row inserts", organizationIds.size(), elapsedMillis(start)));
+            reports.add(bulkInserter.insertBatched("users", ORGANIZATION_USER_INSERT, IntStream.range(0, chunk.size()).boxed(), i -> {
+                Partner partner = chunk.get(i).getKey();
+                return new SqlParameter[]{
+                        string(partner.getFirstName()), string(partner.getLastName()), string(partner.getEmail()), string(toSex(partner.getGender())),
+                        string(partner.getPhoneNumber()), string(chunk.get(i).getValue()), string("ROLE_PARTNER"), timestamp(now.toLocalDateTime()),
+                        timestamp(now.toLocalDateTime()), bool(emailConfirmed), string(partner.getPosition()), longValue(organizationIds.get(i))};
+            }));
+        }
+        return SeedingReport.combine("partners + users", reports);
+    }
+
+    public SeedingReport seedNgos(int count) throws SQLException {
+        return seedNgos(Instancio.stream(NGO.getNGO_Model()).limit(count));
+    }
+
+    public SeedingReport seedNgos(Stream<NGO> ngos) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<SeedingReport> reports = new ArrayList<>();
+        Iterator<Map.Entry<NGO, String>> iterator = withPasswordHashes(tracked(ngos, NGO::getEmail), NGO::getPassword).iterator();
+        while (iterator.hasNext()) {
+            List<Map.Entry<NGO, String>> chunk = nextChunk(iterator);
+            long start = System.nanoTime();
+            List<Long> organizationIds = bulkInserter.insertReturningIds("ngos", NGO_COLUMNS, chunk, hashed -> new Object[]{
+                    hashed.getKey().getOrganizationName(), hashed.getKey().getOrganizationLink(), hashed.getKey().getAbout(), emailConfirmed, now, now});
+            reports.add(new SeedingReport("ngos", "multi-row inserts", organizationIds.size(), elapsedMillis(start)));
+            reports.add(bulkInserter.insertBatched("users", ORGANIZATION_USER_INSERT, IntStream.range(0, chunk.size()).boxed(), i -> {
+                NGO ngo = chunk.get(i).getKey();
+                return new SqlParameter[]{
+                        string(ngo.getFirstName()), string(ngo.getLastName()), string(ngo.getEmail()), string(toSex(ngo.getGender())),
+                        string(ngo.getPhoneNumber()), string(chunk.get(i).getValue()), string("ROLE_NGO"), timestamp(now.toLocalDateTime()),
+                        timestamp(now.toLocalDateTime()), bool(emailConfirmed), string(ngo.getPosition()), longValue(organizationIds.get(i))};
+            }));
+        }
+        return SeedingReport.combine("ngos + users", reports);
+    }
+
+    public SeedingReport seedTasks(int count, String ngoUserEmail, String status) throws SQLException {
+        return seedTasks(Instancio.stream(TaskForVolunteer.getTaskForVolunteerModel()).limit(count), ngoUserEmail, status);
+    }
+
+    public SeedingReport seedTasks(Stream<TaskForVolunteer> tasks, String ngoUserEmail, String status) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        return bulkInserter.insertBatched("volunteer_tasks", TASK_INSERT, trackedTasks(tasks), task -> new SqlParameter[]{
+                string(task.getTaskName()), string(task.getTaskDescription()), string(task.getExpectedOutcome()), string(task.getVolunteerBenefit()),
+                string(status), timestamp(now), timestamp(now), string(ngoUserEmail)});
+    }
+
+    private <T> Stream<T> tracked(Stream<T> users, Function<T, String> emailOf) {
+        return testDataCleanup == null ? users : users.peek(user -> testDataCleanup.trackUser(emailOf.apply(user)));
+    }
+
+    private Stream<TaskForVolunteer> trackedTasks(Stream<TaskForVolunteer> tasks) {
+        return testDataCleanup == null ? tasks : tasks.peek(task -> testDataCleanup.trackTask(task.getTaskName()));
+    }
+
+    private <T> Stream<Map.Entry<T, String>> withPasswordHashes(Stream<T> users, Function<T, String> passwordOf) {
+        if (sharedPassword != null) {
+            String sharedHash = passwordHasher.hashShared(sharedPassword);
+            return users.map(user -> new AbstractMap.SimpleImmutableEntry<>(user, sharedHash));
+        }
+        return passwordHasher.hashAll(users, passwordOf);
+    }
+
+    private static <T> List<T> nextChunk(Iterator<T> iterator) {
+        List<T> chunk = new ArrayList<>(ORGANIZATION_CHUNK_SIZE);
+        while (iterator.hasNext() && chunk.size() < ORGANIZATION_CHUNK_SIZE) {
+            chunk.add(iterator.next());
+        }
+        return chunk;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static String toSex(String gender) {
+        return "#male".equals(gender) ? "MALE" : "FEMALE";
+    }
+}
@@ -0,0 +1,74 @@
+package testdata;
+
+import database.AccountPool;
+import database.AccountRole;
+import database.DatabaseConnectionManager;
+import database.LeasedAccount;
+import models.NGO;
+import models.Partner;
+import models.Volunteer;
+import org.instancio.Instancio;
+import utils.TestConfiguration;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Entry point to the shared pool of confirmed accounts. When the pool runs out of accounts of a role,
+ * new ones are seeded directly into the database with {@link DatabaseSeeder}, already confirmed and approved.
+ */
+public class TestAccounts {
+
+    private static final DatabaseConnectionManager connectionManager = DatabaseConnectionManager.getInstance();
+    private static final String accountPassword;
+    private static final AccountPool accountPool;
+
+    static {
+        try {
+            TestConfiguration configuration = TestConfiguration.get();
+            accountPassword = configuration.getString("account_pool_password");
+            accountPool = new AccountPool(connectionManager.getQueryExecutor(), connectionManager.getBulkInserter(),
+                    Duration.ofMinutes(configuration.getLong("account_pool_lease_minutes", 30)),
+                    configuration.getInt("account_pool_replenish_batch", 10),
+                    TestAccounts::createAccounts);
+            accountPool.createTableIfMissing();
+        } catch (SQLException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    public static LeasedAccount lease(AccountRole role) throws SQLException {
+        return accountPool.lease(role);
+    }
+
+    public static AccountPool getAccountPool() {
+        return accountPool;
+    }
+
+    private static List<AccountPool.Credentials> createAccounts(AccountRole role, int count) throws SQLException {
+        DatabaseSeeder seeder = new DatabaseSeeder(connectionManager, true, accountPassword).withoutCleanup();
+        List<String> emails;
+        switch (role) {
+            case VOLUNTEER:
+                List<Volunteer> volunteers = Instancio.stream(Volunteer.getUserModel()).limit(count).collect(Collectors.toList());
+                seeder.seedVolunteers(volunteers.stream());
+                emails = volunteers.stream().map(Volunteer::getEmail).collect(Collectors.toList());
+                break;
+            case PARTNER:
+                List<Partner> partners = Instancio.stream(Partner.getPartnerModel()).limit(count).collect(Collectors.toList());
+                seeder.seedPartners(partners.stream());
+                emails = partners.stream().map(Partner::getEmail).collect(Collectors.toList());
+                break;
+            case NGO:
+                List<NGO> ngos = Instancio.stream(NGO.getNGO_Model()).limit(count).collect(Collectors.toList());
+                seeder.seedNgos(ngos.stream());
+                emails = ngos.stream().map(NGO::getEmail).collect(Collectors.toList());
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported account role: " + role);
+        }
+        return emails.stream().map(email -> new AccountPool.Credentials(email, accountPassword)).collect(Collectors.toList());
+    }
+}
@@ -1,7 +1,18 @@
 package tests;
 
 import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+import database.AccountRole;
 import database.DatabaseConnectionManager;
+import database.ExportFormat;
+import database.ExportReport;
+import database.LeasedAccount;
+import extensions.DatabaseAvailabilityExtension;
+import extensions.DatabaseCleanupExtension;
+import extensions.JdbcLeakExtension;
+import extensions.QueryInstrumentationExtension;
+import extensions.RoundTripBudget;
+import extensions.UsesAccountPool;
 import io.qameta.allure.Allure;
 import io.qameta.allure.Description;
 import io.qameta.allure.Severity;
@@ -10,15 +21,26 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import pageobjects.*;
+import testdata.TestAccounts;
+import utils.AwaitStatistics;
+import utils.DriverSetUp;
+import utils.SessionVault;
+import utils.TestConfiguration;
 import utils.WebElementUtils;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.*;
-import java.util.Properties;
+import java.util.stream.Stream;
 
 import static com.codeborne.selenide.Condition.*;
+import static database.SqlParameter.string;
 import static com.codeborne.selenide.Selenide.$;
 import static com.codeborne.selenide.Selenide.page;
 import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
@@ -28,10 +50,10 @@ import static org.junit.jupiter.api.Assertions.*;
 import static utils.DriverSetUp.chromeSetUp;
 import static utils.ScreenshotMethods.attachScreenshotToAllureReport;
 
+@ExtendWith({DatabaseAvailabilityExtension.class, DatabaseCleanupExtension.class, QueryInstrumentationExtension.class, JdbcLeakExtension.class})
 public class DatabaseConnectionTests {
 
     static DatabaseConnectionManager connectionManager = DatabaseConnectionManager.getInstance();
-    static Connection connection = connectionManager.getConnection();
 
     private static final Logger logger = LogManager.getLogger(DatabaseConnectionTests.class);
 
@@ -39,24 +61,16 @@ public class DatabaseConnectionTests {
     @DisplayName("Add new Volunteer to Database without running the browser")
     @Description("This test attempts to add new Volunteer to Database without running the browser.")
     @Severity(CRITICAL)
+    @RoundTripBudget(3)
     public void addVolunteerToDatabaseWithoutRunningBrowser() throws SQLException {
 
-        if (connection != null) {
-            System.out.println("Connected to the database. Test addVolunteerToDatabaseWithoutRunningBrowser started.");
-        }
-
         Volunteer user = Instancio.create(Volunteer.getUserModel());
 
+        connectionManager.getTestDataCleanup().trackUser(user.getEmail());
         assertTrue(connectionManager.checkThatUserWithSuchEmailDoNotExistInDatabase(user.getEmail()), "Volunteer with email " + user.getEmail() + " already exists in the database. Impossible to create two users with the same email addresses.");
 
-        String query = "INSERT INTO users (first_name, last_name, email, sex, phone, password, role, status, created_date, updated_date, locale) VALUES ('"+user.getFirstName()+"','"+user.getLastName()+"','"+user.getEmail()+"', 'FEMALE', '"+user.getPhoneNumber()+"','"+user.getPassword()+"', 'ROLE_VOLUNTEER', 'ACTIVE', '2024-07-24 11:20:00', '2024-07-24 11:20:00', 'UK')";
-        try{
-            assert connection != null;
-            Statement st = connection.createStatement();
-            st.executeUpdate(query);
-        } catch (Exception ex) {
-            System.err.println(ex);
-        }
+        String query = "INSERT INTO users (first_name, last_name, email, sex, phone, password, role, status, created_date, updated_date, locale) VALUES (?, ?, ?, 'FEMALE', ?, ?, 'ROLE_VOLUNTEER', 'ACTIVE', '2024-07-24 11:20:00', '2024-07-24 11:20:00', 'UK')";
+        connectionManager.getQueryExecutor().update(query, string(user.getFirstName()), string(user.getLastName()), string(user.getEmail()), string(user.getPhoneNumber()), string(connectionManager.getPasswordHasher().hash(user.getPassword())));
 
         Allure.step("Insert data about a new volunteer into the database");
 
@@ -68,50 +82,27 @@ public class DatabaseConnectionTests {
     @DisplayName("Get Volunteer from Database without running the browser")
     @Description("This test attempts to get Volunteer data from Database without running the browser, and output the result to the console.")
     @Severity(CRITICAL)
-    public void getVolunteerFromDatabaseWithoutRunningBrowser() throws SQLException {
-
-        if (connection != null) {
-            System.out.println("Connected to the database. Test getVolunteerFromDatabaseWithoutRunningBrowser started.");
-        }
+    public void getVolunteerFromDatabaseWithoutRunningBrowser() throws SQLException, IOException {
 
         String query = "SELECT TOP 5 * FROM users ORDER BY id DESC";
+        Path target = Paths.get("target", "db-exports", "users-top5." + ExportFormat.CSV.getFileExtension());
 
-        try {
-            assert connection != null;
-            Statement st = connection.createStatement();
-
-            ResultSet rs = st.executeQuery(query);
-
-            ResultSetMetaData rsmd = rs.getMetaData();
-            int columnsNumber = rsmd.getColumnCount();
-            int rowCount = 0;
-            while (rs.next()) {
-                rowCount++;
-                for (int i = 1; i <= columnsNumber; i++) {
-                    if (i > 1) System.out.print(",  ");
-                    String columnName = rsmd.getColumnName(i);
-                    String columnValue = rs.getString(i);
-                    System.out.print(columnName + " " + columnValue);
-                }
-                System.out.println("");
-            }
-
-            assertTrue(rowCount <= 5, "Expected not more then 5 rows");
-
-            st.close();
-
-        } catch (Exception ex) {
-            System.err.println(ex);
+        ExportReport report = connectionManager.exportQuery(query, target, ExportFormat.CSV);
+        try (Stream<String> lines = Files.lines(target)) {
+            lines.forEach(System.out::println);
         }
+
+        assertTrue(report.getRows() <= 5, "Expected not more then 5 rows");
+        logger.info("Exported volunteers: {}", report);
     }
 
     @Test
     @DisplayName("Login new Volunteer without confirmation of his email in MailHog service")
     @Description("This test attempts to login new Volunteer without confirmation of his email in MailHog service.")
     @Severity(CRITICAL)
-    public void loginVolunteerWithoutConfirmationOfEmailInMailHog() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
+    public void loginVolunteerWithoutConfirmationOfEmailInMailHog() {
         chromeSetUp();
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
         SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
         objSkarbHomePage.clickOnSelectWebSiteLanguage()
                         .clickOnSelectUkrLanguage()
@@ -119,6 +110,7 @@ public class DatabaseConnectionTests {
                         .clickOnCreateNewVolunteer();
 
         Volunteer user = Instancio.create(Volunteer.getUserModel());
+        connectionManager.getTestDataCleanup().trackUser(user.getEmail());
 
         logger.info("loginVolunteerWithoutConfirmationOfEmailInMailHog test started. Entering user data.");
         VolunteerRegistrationPage objVolunteerRegistrationPage = page(VolunteerRegistrationPage.class);
@@ -157,13 +149,45 @@ public class DatabaseConnectionTests {
         attachScreenshotToAllureReport("Screenshot");
     }
 
+    @Test
+    @DisplayName("Login with NGO account leased from the account pool")
+    @Description("This test attempts to lease an already registered and approved NGO account from the account pool and login with it, skipping registration and email confirmation.")
+    @Severity(NORMAL)
+    @UsesAccountPool
+    public void loginWithNgoAccountLeasedFromAccountPool() throws SQLException {
+        try (LeasedAccount account = TestAccounts.lease(AccountRole.NGO)) {
+            logger.info("Leased account {} from the account pool.", account);
+
+            chromeSetUp();
+            Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
+            SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
+            objSkarbHomePage.clickOnSelectWebSiteLanguage()
+                            .clickOnSelectUkrLanguage()
+                            .clickOnSignInButtonOnHomePage();
+
+            LoginPage objLoginPage = page(LoginPage.class);
+            objLoginPage.checkLoadingOfLoginPage()
+                        .enterLogin(account.getEmail())
+                        .enterPassword(account.getPassword())
+                        .clickOnSignInButton();
+
+            objSkarbHomePage.getTasksDropdown().shouldBe(enabled);
+            logger.info("User logged in successfully.");
+
+            NGO_ProfilePage objNGO_ProfilePage = page(NGO_ProfilePage.class);
+            objNGO_ProfilePage.clickOnSignOutButton()
+                              .checkMessageAboutSuccessfulLogout();
+            logger.info("The user is logged out.");
+        }
+    }
+
     @Test
     @DisplayName("Check Volunteer data in Database after it has been created")
     @Description("This test attempts to create a new Volunteer and then check it data in the database.")
     @Severity(NORMAL)
-    public void checkDataInDatabaseAfterNewVolunteerIsCreated() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
+    public void checkDataInDatabaseAfterNewVolunteerIsCreated() {
         chromeSetUp();
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
         SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
         objSkarbHomePage.clickOnSelectWebSiteLanguage()
                         .clickOnSelectUkrLanguage()
@@ -171,6 +195,7 @@ public class DatabaseConnectionTests {
                         .clickOnCreateNewVolunteer();
 
         Volunteer user = Instancio.create(Volunteer.getUserModel());
+        connectionManager.getTestDataCleanup().trackUser(user.getEmail());
 
         logger.info("Entering user data.");
         VolunteerRegistrationPage objVolunteerRegistrationPage = page(VolunteerRegistrationPage.class);
@@ -188,11 +213,10 @@ public class DatabaseConnectionTests {
         logger.info("Registration of user is successful. Message about successful registration is visible.");
         logger.debug("Registration of user is successful. User email: {}, user password: {}.", user.getEmail(), user.getPassword());
 
-        assertTrue(connectionManager.checkThatUserWithSuchEmailAlreadyExistInDatabase(user.getEmail()),"There is no user with email " + user.getEmail() + " in the database.");
+        assertTrue(connectionManager.awaitThatUserWithSuchEmailExistsInDatabase(user.getEmail()),"There is no user with email " + user.getEmail() + " in the database.");
         logger.info("The user is present in the database.");
 
-        connectionManager.checkUserFirstNameInDatabase(user.getEmail(), user.getFirstName());
-        connectionManager.checkUserLastNameInDatabase(user.getEmail(), user.getLastName());
+        connectionManager.checkVolunteerDataInDatabase(user.getEmail(), user.getFirstName(), user.getLastName());
         logger.info("The volunteer data in database is correct.");
 
     }
@@ -201,9 +225,9 @@ public class DatabaseConnectionTests {
     @DisplayName("Check Partner data in database after it has been created")
     @Description("This test attempts to create a new Partner and then check it data in the database.")
     @Severity(NORMAL)
-    public void checkDataInDatabaseAfterNewPartnerIsCreated() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
+    public void checkDataInDatabaseAfterNewPartnerIsCreated() {
         chromeSetUp();
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
         SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
         objSkarbHomePage.clickOnSelectWebSiteLanguage()
                         .clickOnSelectUkrLanguage()
@@ -211,6 +235,7 @@ public class DatabaseConnectionTests {
                         .clickOnCreateNewPartner();
 
         Partner user = Instancio.create(Partner.getPartnerModel());
+        connectionManager.getTestDataCleanup().trackUser(user.getEmail());
 
         logger.info("Entering user data.");
         PartnerRegistrationPage objPartnerRegistrationPage = page(PartnerRegistrationPage.class);
@@ -233,13 +258,10 @@ public class DatabaseConnectionTests {
         logger.info("Registration of user is successful. Message about successful registration is visible.");
         logger.debug("Registration of user is successful. User email: {}, user password: {}.", user.getEmail(), user.getPassword());
 
-        assertTrue(connectionManager.checkThatUserWithSuchEmailAlreadyExistInDatabase(user.getEmail()),"There is no user with email " + user.getEmail() + " in the database.");
+        assertTrue(connectionManager.awaitThatUserWithSuchEmailExistsInDatabase(user.getEmail()),"There is no user with email " + user.getEmail() + " in the database.");
         logger.info("The user is present in the database.");
 
-        connectionManager.checkUserFirstNameInDatabase(user.getEmail(), user.getFirstName());
-        connectionManager.checkUserLastNameInDatabase(user.getEmail(), user.getLastName());
-        connectionManager.checkUserPositionInOrganizationInDatabase(user.getEmail(),user.getPosition());
-        connectionManager.checkPartnerOrganisationNameInDatabase(user.getEmail(),user.getOrganizationName());
+        connectionManager.checkPartnerDataInDatabase(user.getEmail(), user.getFirstName(), user.getLastName(), user.getPosition(), user.getOrganizationName());
         logger.info("The partner data in database is correct.");
 
     }
@@ -248,9 +270,9 @@ public class DatabaseConnectionTests {
     @DisplayName("Approve NGO after it has been created")
     @Description("This test attempts to create a new NGO and then approve it in the database.")
     @Severity(NORMAL)
-    public void approveNgoInDatabase() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
+    public void approveNgoInDatabase() {
         chromeSetUp();
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
         SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
         objSkarbHomePage.clickOnSelectWebSiteLanguage()
                         .clickOnSelectUkrLanguage()
@@ -258,6 +280,7 @@ public class DatabaseConnectionTests {
                         .clickOnCreateNewNGO();
 
         NGO user = Instancio.create(NGO.getNGO_Model());
+        connectionManager.getTestDataCleanup().trackUser(user.getEmail());
 
         NGOforBuilderPattern NGOforBuilderPattern = new NGOforBuilderPattern.Builder()
                 .setFirstName(user.getFirstName())
@@ -282,7 +305,7 @@ public class DatabaseConnectionTests {
                                 .verifySuccessfulRegistrationMassage();
         logger.info("Registration of user is successful. Message about successful registration is visible.");
 
-        assertTrue(connectionManager.checkThatUserWithSuchEmailAlreadyExistInDatabase(user.getEmail()),"There is no user with email " + user.getEmail() + " in the database.");
+        assertTrue(connectionManager.awaitThatUserWithSuchEmailExistsInDatabase(user.getEmail()),"There is no user with email " + user.getEmail() + " in the database.");
         logger.info("The user is present in the database.");
 
         assertTrue(connectionManager.approveNgoInDatabase(user.getEmail()),"NGO with email " + user.getEmail() + " is not approved in the database.");
@@ -294,21 +317,11 @@ public class DatabaseConnectionTests {
     @DisplayName("Check task and set its status in the database after creating")
     @Description("This test attempts to create a new task for volunteer and then check it data in the database. Then to check and set task status.")
     @Severity(NORMAL)
-    public void checkTaskInDatabaseAfterCreatingAndSetItStatus() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
+    public void checkTaskInDatabaseAfterCreatingAndSetItStatus() {
         chromeSetUp();
+        TestConfiguration configuration = TestConfiguration.get();
+        SessionVault.getInstance().signIn(configuration.getNgoUserLogin(), configuration.getNgoUserPassword());
         SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
-        objSkarbHomePage.clickOnSelectWebSiteLanguage()
-                        .clickOnSelectUkrLanguage()
-                        .clickOnSignInButtonOnHomePage();
-
-        utils.ReadPropertiesFileMethod.readProperties("src/test/resources/testdata/config.properties");
-        Properties properties = utils.ReadPropertiesFileMethod.getProperties();
-        LoginPage objLoginPage = page(LoginPage.class);
-        objLoginPage.checkLoadingOfLoginPage()
-                    .enterLogin(properties.getProperty("login_NGOuser"))
-                    .enterPassword(properties.getProperty("password_NGOuser"))
-                    .clickOnSignInButton();
 
         logger.info("Set up the driver, navigated to initial webpage.User logged in.");
 
@@ -325,6 +338,7 @@ public class DatabaseConnectionTests {
 
         logger.info("Entering task data.");
         TaskForVolunteer task = Instancio.create(TaskForVolunteer.getTaskForVolunteerModel());
+        connectionManager.getTestDataCleanup().trackTask(task.getTaskName());
         CreatingNewTaskForVolunteerPage objCreatingNewTaskForVolunteerPage = page(CreatingNewTaskForVolunteerPage.class);
         objCreatingNewTaskForVolunteerPage.enterTaskName(task.getTaskName())
                                         .selectCategory(task.getSelectCategory())
@@ -346,7 +360,7 @@ public class DatabaseConnectionTests {
         objCreatingNewTaskForVolunteerPage.verifySuccessfulCreatingAndPublishingOfTaskMassage();
         logger.info("Task is created and published. Message about successful creating and publishing of the task is visible.");
 
-        assertTrue(connectionManager.checkThatTaskWithSuchNameExistsInDatabase(task.getTaskName()), "Task with such taskName does not exist in the database");
+        assertTrue(connectionManager.awaitThatTaskWithSuchNameExistsInDatabase(task.getTaskName()), "Task with such taskName does not exist in the database");
 
         connectionManager.checkTaskDataInDatabase(task.getTaskName(), task.getTaskDescription(), task.getExpectedOutcome(),task.getVolunteerBenefit());
         logger.info("Task data in the database is correct.");
@@ -362,19 +376,30 @@ public class DatabaseConnectionTests {
         String currentStatus2 = connectionManager.checkCurrentTaskStatusInDatabase(task.getTaskName());
         logger.info("Current task status in the database - {}",currentStatus2);
         Allure.step("Current task status in the database - " + currentStatus2 + ".");
+    }
 
-        NGO_ProfilePage objNGO_ProfilePage = page(NGO_ProfilePage.class);
-        objNGO_ProfilePage.clickOnSignOutButton()
-                          .checkMessageAboutSuccessfulLogout();
-        logger.info("The user is logged out.");
-        Allure.step("The user is logged out.");
+    /**
+     * The browser of the class is reused by every test method, so the session a test signed in with, e.g. through
+     * {@link SessionVault}, must not leak into the next one.
+     */
+    @AfterEach
+    public void signOutOfBrowser() {
+        if (WebDriverRunner.hasWebDriverStarted()) {
+            Selenide.clearBrowserCookies();
+            Selenide.clearBrowserLocalStorage();
+        }
     }
 
     @AfterAll
-    public static void closeConnection() throws SQLException {
-        connectionManager.closeConnection();
-        if (connection.isClosed()) {
-            System.out.println("Connection closed.");
+    public static void logDatabaseStatistics() {
+        logger.info("Database await statistics: {}", AwaitStatistics.snapshot());
+        if (connectionManager.isLookupCacheEnabled()) {
+            logger.info("Database lookup cache statistics: {}; {}", connectionManager.getUserCacheStatistics(), connectionManager.getTaskCacheStatistics());
         }
     }
+
+    @AfterAll
+    public static void closeBrowser() {
+        DriverSetUp.tearDown();
+    }
 }
@@ -0,0 +1,370 @@
+package tests;
+
+import database.AccountPool;
+import database.AccountRole;
+import database.CleanupReport;
+import database.ConnectionFactory;
+import database.ConnectionPool;
+import database.ConnectionPoolSettings;
+import database.DatabaseConnectionManager;
+import database.DatabaseResilience;
+import database.DatabaseUnavailableException;
+import database.ExportFormat;
+import database.ExportReport;
+import database.JdbcLeakDetector;
+import database.LeasedAccount;
+import database.PasswordHasher;
+import database.PooledConnection;
+import database.QueryExecutor;
+import database.SeedingReport;
+import database.SqlDialect;
+import database.TaskStatusTransition;
+import database.TestDataCleanup;
+import database.UserRecord;
+import extensions.JdbcLeakExtension;
+import extensions.QueryInstrumentationExtension;
+import extensions.RoundTripBudget;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import models.NGO;
+import models.Partner;
+import models.TaskForVolunteer;
+import models.Volunteer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import testdata.DatabaseSeeder;
+import utils.TestConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.qameta.allure.SeverityLevel.NORMAL;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the database layer against the embedded H2 database, without the remote Skarb database and without a browser.
+ */
+@ExtendWith({QueryInstrumentationExtension.class, JdbcLeakExtension.class})
+public class EmbeddedDatabaseTests {
+
+    private static final Logger logger = LogManager.getLogger(EmbeddedDatabaseTests.class);
+
+    static DatabaseConnectionManager connectionManager;
+
+    @BeforeAll
+    public static void startEmbeddedDatabase() {
+        TestConfiguration configuration = TestConfiguration.get().withOverrides(Map.of(
+                "db_mode", "EMBEDDED",
+                "db_embedded_url", "jdbc:h2:mem:embedded-database-tests;MODE=MSSQLServer;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=FALSE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+                "db_leak_detection_enabled", true,
+                "db_lookup_cache_enabled", true,
+                "db_password_hash_cost", 4,
+                "db_await_timeout_ms", 1000));
+        connectionManager = DatabaseConnectionManager.create(configuration);
+    }
+
+    @Test
+    @DisplayName("Seed Volunteers into the embedded database and check their data")
+    @Description("This test attempts to seed Volunteers into the embedded database, check their data and confirm the email of one of them.")
+    @Severity(NORMAL)
+    @RoundTripBudget(6)
+    public void seedVolunteersAndCheckTheirData() throws SQLException {
+        List<Volunteer> volunteers = Instancio.stream(Volunteer.getUserModel()).limit(50).collect(Collectors.toList());
+        SeedingReport report = new DatabaseSeeder(connectionManager, false).seedVolunteers(volunteers.stream());
+        logger.info("Seeded volunteers: {}", report);
+        assertEquals(volunteers.size(), report.getRows(), "Not all generated volunteers were inserted into the database.");
+
+        Volunteer volunteer = volunteers.get(0);
+        assertTrue(connectionManager.checkThatUserWithSuchEmailAlreadyExistInDatabase(volunteer.getEmail()), "There is no volunteer with email " + volunteer.getEmail() + " in the database.");
+        connectionManager.checkVolunteerDataInDatabase(volunteer.getEmail(), volunteer.getFirstName(), volunteer.getLastName());
+
+        connectionManager.confirmUserEmailInDatabase(volunteer.getEmail());
+        UserRecord user = connectionManager.loadUserRecord(volunteer.getEmail()).orElseThrow();
+        assertTrue(user.isEmailConfirmed(), "Email of the volunteer is not confirmed.");
+        assertEquals("ROLE_VOLUNTEER", user.getRole());
+    }
+
+    @Test
+    @DisplayName("Seed Volunteers into the embedded database in bulk")
+    @Description("This test attempts to stream a batch of generated Volunteers into the embedded database and reports the insert throughput.")
+    @Severity(NORMAL)
+    public void seedVolunteersInBulk() throws SQLException {
+        int numberOfVolunteers = 500;
+        SeedingReport report = new DatabaseSeeder(connectionManager, false).seedVolunteers(numberOfVolunteers);
+
+        logger.info("Seeded volunteers: {}", report);
+        assertEquals(numberOfVolunteers, report.getRows(), "Not all generated volunteers were inserted into the database.");
+    }
+
+    @Test
+    @DisplayName("Seed Partner into the embedded database and check its data")
+    @Description("This test attempts to seed a Partner with its organization into the embedded database and check its data.")
+    @Severity(NORMAL)
+    public void seedPartnerAndCheckItsData() throws SQLException {
+        Partner partner = Instancio.create(Partner.getPartnerModel());
+        new DatabaseSeeder(connectionManager, true).seedPartners(Stream.of(partner));
+
+        connectionManager.checkPartnerDataInDatabase(partner.getEmail(), partner.getFirstName(), partner.getLastName(), partner.getPosition(), partner.getOrganizationName());
+    }
+
+    @Test
+    @DisplayName("Approve NGO and set task status in the embedded database")
+    @Description("This test attempts to seed an NGO with tasks into the embedded database, approve the NGO, check the task data and change the task status.")
+    @Severity(NORMAL)
+    @RoundTripBudget(12)
+    public void approveNgoAndSetTaskStatus() throws SQLException {
+        NGO ngo = Instancio.create(NGO.getNGO_Model());
+        DatabaseSeeder seeder = new DatabaseSeeder(connectionManager, false);
+        seeder.seedNgos(Stream.of(ngo));
+
+        assertTrue(connectionManager.approveNgoInDatabase(ngo.getEmail()), "NGO with email " + ngo.getEmail() + " is not approved in the database.");
+        assertTrue(connectionManager.loadUserRecord(ngo.getEmail()).orElseThrow().isNgoConfirmed(), "NGO is not confirmed in the database.");
+
+        TaskForVolunteer task = Instancio.create(TaskForVolunteer.getTaskForVolunteerModel());
+        seeder.seedTasks(Stream.of(task), ngo.getEmail(), "PUBLISHED");
+        assertTrue(connectionManager.awaitThatTaskWithSuchNameExistsInDatabase(task.getTaskName()), "Task with such taskName does not exist in the database");
+        connectionManager.checkTaskDataInDatabase(task.getTaskName(), task.getTaskDescription(), task.getExpectedOutcome(), task.getVolunteerBenefit());
+
+        connectionManager.setTaskStatusInDatabase(task.getTaskName(), "COMPLETED");
+        assertEquals("COMPLETED", connectionManager.checkCurrentTaskStatusInDatabase(task.getTaskName()));
+    }
+
+    @Test
+    @DisplayName("Serve repeated task lookups from the lookup cache")
+    @Description("This test attempts to check a task several times with one database read, and to see a status written outside of the database layer only after forcing fresh reads.")
+    @Severity(NORMAL)
+    @RoundTripBudget(8)
+    public void serveRepeatedTaskLookupsFromLookupCache() throws SQLException {
+        NGO ngo = Instancio.create(NGO.getNGO_Model());
+        TaskForVolunteer task = Instancio.create(TaskForVolunteer.getTaskForVolunteerModel());
+        DatabaseSeeder seeder = new DatabaseSeeder(connectionManager, true);
+        seeder.seedNgos(Stream.of(ngo));
+        seeder.seedTasks(Stream.of(task), ngo.getEmail(), "PUBLISHED");
+        long hitsBefore = connectionManager.getTaskCacheStatistics().getHits();
+
+        assertTrue(connectionManager.checkThatTaskWithSuchNameExistsInDatabase(task.getTaskName()), "Task with such taskName does not exist in the database");
+        connectionManager.checkTaskDataInDatabase(task.getTaskName(), task.getTaskDescription(), task.getExpectedOutcome(), task.getVolunteerBenefit());
+        assertEquals("PUBLISHED", connectionManager.checkCurrentTaskStatusInDatabase(task.getTaskName()));
+        assertEquals(hitsBefore + 2, connectionManager.getTaskCacheStatistics().getHits());
+
+        connectionManager.setTaskStatusInDatabase(task.getTaskName(), "COMPLETED");
+        assertEquals("COMPLETED", connectionManager.checkCurrentTaskStatusInDatabase(task.getTaskName()));
+
+        connectionManager.getQueryExecutor().update("UPDATE volunteer_tasks SET status = ? WHERE name = ?",
+                database.SqlParameter.string("ARCHIVED"), database.SqlParameter.string(task.getTaskName()));
+        assertEquals("COMPLETED", connectionManager.checkCurrentTaskStatusInDatabase(task.getTaskName()));
+        try (DatabaseConnectionManager.FreshReads ignored = connectionManager.forceFreshReads()) {
+            assertEquals("ARCHIVED", connectionManager.checkCurrentTaskStatusInDatabase(task.getTaskName()));
+        }
+        logger.info("Lookup cache: {}", connectionManager.getTaskCacheStatistics());
+    }
+
+    @Test
+    @DisplayName("Transition statuses of several tasks in the embedded database at once")
+    @Description("This test attempts to move several published tasks to completed with one statement and check their statuses before and after.")
+    @Severity(NORMAL)
+    @RoundTripBudget(7)
+    public void transitionStatusesOfSeveralTasks() throws SQLException {
+        NGO ngo = Instancio.create(NGO.getNGO_Model());
+        List<TaskForVolunteer> tasks = Instancio.stream(TaskForVolunteer.getTaskForVolunteerModel()).limit(5).collect(Collectors.toList());
+        DatabaseSeeder seeder = new DatabaseSeeder(connectionManager, true);
+        seeder.seedNgos(Stream.of(ngo));
+        seeder.seedTasks(tasks.stream(), ngo.getEmail(), "PUBLISHED");
+        List<String> taskNames = tasks.stream().map(TaskForVolunteer::getTaskName).limit(3).collect(Collectors.toList());
+
+        List<TaskStatusTransition> transitions = connectionManager.transitionTaskStatusesInDatabase(taskNames, "PUBLISHED", "COMPLETED");
+        logger.info("Task status transitions: {}", transitions);
+        assertEquals(taskNames.size(), transitions.size());
+        for (TaskStatusTransition transition : transitions) {
+            assertTrue(taskNames.contains(transition.getName()), "Unexpected task " + transition.getName() + " was transitioned.");
+            assertEquals("PUBLISHED", transition.getPreviousStatus());
+            assertEquals("COMPLETED", transition.getNewStatus());
+        }
+
+        assertTrue(connectionManager.transitionTaskStatusesInDatabase(taskNames, "PUBLISHED", "COMPLETED").isEmpty(), "Tasks that are not published any more were transitioned.");
+        assertEquals("COMPLETED", connectionManager.checkCurrentTaskStatusInDatabase(taskNames.get(0)));
+        assertEquals("PUBLISHED", connectionManager.checkCurrentTaskStatusInDatabase(tasks.get(4).getTaskName()));
+    }
+
+    @Test
+    @DisplayName("Retry a query on a fresh connection after the connection drops")
+    @Description("This test attempts to run a query while the first connection attempt fails with a connection error and checks that the query is retried.")
+    @Severity(NORMAL)
+    public void retryQueryAfterConnectionDrops() throws SQLException {
+        AtomicInteger connectionAttempts = new AtomicInteger();
+        ConnectionFactory connectionFactory = () -> {
+            if (connectionAttempts.incrementAndGet() == 1) {
+                throw new SQLNonTransientConnectionException("Connection reset", "08S01");
+            }
+            return DriverManager.getConnection("jdbc:h2:mem:resilience-tests");
+        };
+        try (ConnectionPool connectionPool = new ConnectionPool(connectionFactory, resilienceTestPoolSettings())) {
+            QueryExecutor queryExecutor = new QueryExecutor(connectionPool, SqlDialect.H2,
+                    new DatabaseResilience(3, Duration.ofMillis(1), Duration.ofMillis(10), Duration.ofSeconds(5), 5, Duration.ofMinutes(1)));
+            assertEquals(Optional.of(1), queryExecutor.queryForOptional("SELECT 1 AS one", rs -> rs.getInt("one")));
+            assertEquals(2, connectionAttempts.get(), "The query was not retried exactly once.");
+            assertTrue(queryExecutor.getResilience().isDatabaseAvailable());
+        }
+    }
+
+    @Test
+    @DisplayName("Fail fast while the database is unavailable")
+    @Description("This test attempts to run queries against a database that refuses connections and checks that the circuit breaker stops further connection attempts.")
+    @Severity(NORMAL)
+    public void failFastWhileDatabaseIsUnavailable() {
+        AtomicInteger connectionAttempts = new AtomicInteger();
+        ConnectionFactory connectionFactory = () -> {
+            connectionAttempts.incrementAndGet();
+            throw new SQLNonTransientConnectionException("Connection refused", "08001");
+        };
+        try (ConnectionPool connectionPool = new ConnectionPool(connectionFactory, resilienceTestPoolSettings())) {
+            QueryExecutor queryExecutor = new QueryExecutor(connectionPool, SqlDialect.H2,
+                    new DatabaseResilience(2, Duration.ofMillis(1), Duration.ofMillis(10), Duration.ofSeconds(5), 2, Duration.ofMinutes(1)));
+            SQLException firstFailure = assertThrows(SQLException.class, () -> queryExecutor.queryForOptional("SELECT 1 AS one", rs -> rs.getInt("one")));
+            assertFalse(firstFailure instanceof DatabaseUnavailableException, "The circuit breaker opened before the retries were used up.");
+            assertEquals(2, connectionAttempts.get());
+            assertFalse(queryExecutor.getResilience().isDatabaseAvailable(), "The circuit breaker did not open after repeated connection failures.");
+
+            long start = System.nanoTime();
+            assertThrows(DatabaseUnavailableException.class, () -> queryExecutor.queryForOptional("SELECT 1 AS one", rs -> rs.getInt("one")));
+            assertEquals(2, connectionAttempts.get(), "The database was contacted although the circuit breaker is open.");
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100, "Failing fast took too long.");
+        }
+    }
+
+    @Test
+    @DisplayName("Detect and close statements and result sets left open in the embedded database")
+    @Description("This test attempts to leave a statement and its result set open and checks that they are reported with their creation stack and closed.")
+    @Severity(NORMAL)
+    public void detectLeakedStatementsAndResultSets() throws SQLException {
+        ResultSet resultSet;
+        try (PooledConnection connection = connectionManager.borrowConnection()) {
+            Statement statement = connection.getConnection().createStatement();
+            resultSet = statement.executeQuery("SELECT COUNT(*) FROM users");
+            assertTrue(resultSet.next());
+        }
+
+        List<JdbcLeakDetector.Leak> leaks = JdbcLeakDetector.endTest();
+        JdbcLeakDetector.beginTest();
+        logger.info("Detected leaks: {}", leaks);
+        assertEquals(List.of("Statement", "ResultSet"), leaks.stream().map(JdbcLeakDetector.Leak::getKind).sorted(Comparator.reverseOrder()).collect(Collectors.toList()));
+        assertTrue(leaks.get(0).getCreationStackTrace().contains("detectLeakedStatementsAndResultSets"), "The creation stack does not point to the test.");
+        assertTrue(resultSet.isClosed(), "The leaked result set was not closed.");
+    }
+
+    @Test
+    @DisplayName("Lease accounts from the account pool in the embedded database")
+    @Description("This test attempts to lease two NGO accounts from an empty account pool, which registers new accounts on demand.")
+    @Severity(NORMAL)
+    public void leaseAccountsFromAccountPool() throws SQLException {
+        String password = "Emb3dded#Pass";
+        AccountPool accountPool = new AccountPool(connectionManager.getQueryExecutor(), connectionManager.getBulkInserter(), Duration.ofMinutes(5), 2,
+                (role, count) -> {
+                    List<NGO> ngos = Instancio.stream(NGO.getNGO_Model()).limit(count).collect(Collectors.toList());
+                    new DatabaseSeeder(connectionManager, true, password).withoutCleanup().seedNgos(ngos.stream());
+                    return ngos.stream().map(ngo -> new AccountPool.Credentials(ngo.getEmail(), password)).collect(Collectors.toList());
+                });
+        accountPool.createTableIfMissing();
+
+        try (LeasedAccount first = accountPool.lease(AccountRole.NGO);
+             LeasedAccount second = accountPool.lease(AccountRole.NGO)) {
+            assertNotEquals(first.getEmail(), second.getEmail(), "The same account was leased twice.");
+            assertEquals(0, accountPool.countAvailableAccounts(AccountRole.NGO));
+            String storedHash = connectionManager.getQueryExecutor().queryForOptional("SELECT password FROM users WHERE email = ?",
+                    rs -> rs.getString("password"), database.SqlParameter.string(first.getEmail())).orElseThrow();
+            assertTrue(PasswordHasher.matches(first.getPassword(), storedHash), "Leased account password does not match the stored hash.");
+        }
+        assertEquals(2, accountPool.countAvailableAccounts(AccountRole.NGO));
+    }
+
+    @Test
+    @DisplayName("Export users from the embedded database as JSON Lines")
+    @Description("This test attempts to export the users table from the embedded database to a JSON Lines file.")
+    @Severity(NORMAL)
+    public void exportUsersAsJsonLines(@TempDir Path exportDirectory) throws SQLException, IOException {
+        new DatabaseSeeder(connectionManager, false).seedVolunteers(20);
+        long users = connectionManager.getQueryExecutor().queryForOptional("SELECT COUNT(id) AS user_count FROM users", rs -> rs.getLong("user_count")).orElse(0L);
+
+        ExportReport report = connectionManager.exportTable("users", exportDirectory.resolve("users.jsonl"), ExportFormat.JSON_LINES);
+        logger.info("Exported users: {}", report);
+
+        assertEquals(users, report.getRows());
+        try (Stream<String> lines = Files.lines(report.getTarget())) {
+            assertEquals(users, lines.filter(line -> line.startsWith("{\"id\":")).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Clean up tracked test data in the embedded database")
+    @Description("This test attempts to delete seeded users, NGOs and tasks tracked for cleanup in the embedded database.")
+    @Severity(NORMAL)
+    public void cleanUpTrackedTestData() throws Exception {
+        NGO ngo = Instancio.create(NGO.getNGO_Model());
+        DatabaseSeeder seeder = new DatabaseSeeder(connectionManager, true);
+        seeder.seedNgos(Stream.of(ngo));
+        seeder.seedTasks(3, ngo.getEmail(), "PUBLISHED");
+        seeder.seedVolunteers(10);
+
+        CleanupReport report = connectionManager.getTestDataCleanup().cleanupAsync().get(30, TimeUnit.SECONDS);
+        logger.info("Cleanup: {}", report);
+
+        assertTrue(report.getDeletedUsers() >= 11, "Not all tracked users were deleted: " + report);
+        assertTrue(connectionManager.checkThatUserWithSuchEmailDoNotExistInDatabase(ngo.getEmail()), "NGO user was not deleted.");
+        assertEquals(0, connectionManager.getTestDataCleanup().getTrackedCount());
+    }
+
+    @Test
+    @DisplayName("Clean up only the test data tracked in one scope of the embedded database")
+    @Description("This test attempts to delete the users tracked in a cleanup scope, as at the end of a test class, while users tracked outside of it are kept.")
+    @Severity(NORMAL)
+    public void cleanUpOnlyTheTestDataOfOneScope() throws Exception {
+        TestDataCleanup testDataCleanup = connectionManager.getTestDataCleanup();
+        Volunteer outside = Instancio.create(Volunteer.getUserModel());
+        Volunteer inside = Instancio.create(Volunteer.getUserModel());
+        new DatabaseSeeder(connectionManager, false).seedVolunteers(Stream.of(outside));
+        TestDataCleanup.Scope scope = testDataCleanup.openScope("cleanUpOnlyTheTestDataOfOneScope");
+        new DatabaseSeeder(connectionManager, false).seedVolunteers(Stream.of(inside));
+
+        CleanupReport report = scope.cleanupAsync().get(30, TimeUnit.SECONDS);
+        logger.info("Cleanup of the scope: {}", report);
+
+        assertEquals(1, report.getDeletedUsers(), "Users outside of the scope were deleted: " + report);
+        assertTrue(connectionManager.checkThatUserWithSuchEmailDoNotExistInDatabase(inside.getEmail()), "Volunteer tracked in the scope was not deleted.");
+        assertTrue(connectionManager.checkThatUserWithSuchEmailAlreadyExistInDatabase(outside.getEmail()), "Volunteer tracked outside of the scope was deleted.");
+
+        testDataCleanup.cleanupAsync().get(30, TimeUnit.SECONDS);
+        assertTrue(connectionManager.checkThatUserWithSuchEmailDoNotExistInDatabase(outside.getEmail()), "Volunteer tracked outside of the scope was not deleted at the end.");
+    }
+
+    @AfterAll
+    public static void closeConnectionPool() {
+        logger.info("Embedded database connection pool metrics: {}", connectionManager.getPoolMetrics());
+        connectionManager.closeConnectionPool();
+    }
+
+    private static ConnectionPoolSettings resilienceTestPoolSettings() {
+        return new ConnectionPoolSettings(2, 0, Duration.ofMinutes(1), Duration.ofSeconds(5), 2, 10);
+    }
+}
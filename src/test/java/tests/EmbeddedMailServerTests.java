@@ -0,0 +1,199 @@
+package tests;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import mail.EmbeddedMailServer;
+import mail.MailHogClient;
+import mail.MailMessage;
+import mail.MailStore;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.qameta.allure.SeverityLevel.NORMAL;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the mail path against the embedded SMTP server and its MailHog API, without the remote MailHog and without a browser.
+ */
+public class EmbeddedMailServerTests {
+
+    private static final Logger logger = LogManager.getLogger(EmbeddedMailServerTests.class);
+
+    static EmbeddedMailServer mailServer;
+    static MailHogClient mailHogClient;
+
+    @BeforeAll
+    public static void startEmbeddedMailServer() throws IOException {
+        mailServer = EmbeddedMailServer.start(0, 0, 1000);
+        mailHogClient = new MailHogClient(mailServer.getApiUri(), Duration.ofSeconds(5), Duration.ofSeconds(5), null, null);
+    }
+
+    @AfterAll
+    public static void stopEmbeddedMailServer() throws IOException {
+        mailServer.close();
+    }
+
+    @Test
+    @DisplayName("Get the email confirmation link of a registration letter")
+    @Description("This test attempts to deliver a multipart registration letter over SMTP and read its subject, text and confirmation link through the MailHog API.")
+    @Severity(NORMAL)
+    public void getConfirmationLinkOfRegistrationLetter() throws IOException {
+        String email = "olena.kovalenko@example.com";
+        String link = "https://skarb.foxminded.ua/registration/confirm?token=a1b2c3&lang=uk";
+        String subject = "Підтвердження реєстрації";
+        String letter = "From: Skarb <noreply@skarb.ua>\r\n"
+                + "To: " + email + "\r\n"
+                + "Subject: =?UTF-8?B?" + Base64.getEncoder().encodeToString(subject.getBytes(StandardCharsets.UTF_8)) + "?=\r\n"
+                + "MIME-Version: 1.0\r\n"
+                + "Content-Type: multipart/alternative; boundary=\"skarb-boundary\"\r\n"
+                + "\r\n"
+                + "--skarb-boundary\r\n"
+                + "Content-Type: text/plain; charset=UTF-8\r\n"
+                + "Content-Transfer-Encoding: base64\r\n"
+                + "\r\n"
+                + Base64.getMimeEncoder().encodeToString(("Вітаємо! Підтвердіть email: " + link).getBytes(StandardCharsets.UTF_8)) + "\r\n"
+                + "--skarb-boundary\r\n"
+                + "Content-Type: text/html; charset=UTF-8\r\n"
+                + "Content-Transfer-Encoding: quoted-printable\r\n"
+                + "\r\n"
+                + "<p>=D0=92=D1=96=D1=82=D0=B0=D1=94=D0=BC=D0=BE!</p><a href=3D\"" + link.replace("=", "=3D").replace("&", "&amp;") + "\">=\r\n"
+                + "Confirm</a>\r\n"
+                + "--skarb-boundary--\r\n";
+
+        sendLetters("noreply@skarb.ua", List.of(email), List.of(letter));
+
+        MailMessage message = mailHogClient.awaitMessage(email, found -> true);
+        logger.info("Received {}", message);
+        assertEquals(subject, message.getSubject());
+        assertEquals("noreply@skarb.ua", message.getFrom());
+        assertTrue(message.getTextBody().startsWith("Вітаємо!"), "Text body was not decoded: " + message.getTextBody());
+        assertTrue(message.getHtmlBody().startsWith("<p>Вітаємо!</p>"), "HTML body was not decoded: " + message.getHtmlBody());
+        assertEquals(link, mailHogClient.awaitConfirmationLink(email));
+    }
+
+    @Test
+    @DisplayName("Find letters only by their recipient")
+    @Description("This test attempts to deliver letters to several recipients and checks that the search by recipient returns only the letters of that recipient, newest first.")
+    @Severity(NORMAL)
+    public void findLettersByRecipient() throws IOException {
+        String first = "first.recipient@example.com";
+        String second = "second.recipient@example.com";
+        sendLetters("noreply@skarb.ua", List.of(first, second, first), List.of(letter(first, "One"), letter(second, "Two"), letter(first, "Three")));
+
+        List<MailMessage> messages = mailHogClient.search(first);
+        assertEquals(2, messages.size(), "Unexpected letters to " + first + ": " + messages);
+        assertEquals("Three", messages.get(0).getSubject());
+        assertEquals("One", messages.get(1).getSubject());
+        assertEquals(".Body of Three\r\n", messages.get(0).getTextBody(), "Dot stuffing should be removed from the letter.");
+        assertTrue(mailHogClient.search("recipient@example.com").isEmpty(), "Search by recipient should match whole addresses.");
+    }
+
+    @Test
+    @DisplayName("Keep only the newest letters under parallel load")
+    @Description("This test attempts to deliver many letters over parallel SMTP connections into a mailbox with bounded retention and checks that only the newest letters are kept.")
+    @Severity(NORMAL)
+    public void keepNewestLettersUnderParallelLoad() throws Exception {
+        int senders = 8;
+        int lettersPerSender = 250;
+        try (EmbeddedMailServer boundedServer = EmbeddedMailServer.start(0, 0, 100)) {
+            MailHogClient boundedClient = new MailHogClient(boundedServer.getApiUri(), Duration.ofSeconds(5), Duration.ofSeconds(5), null, null);
+            ExecutorService executor = Executors.newFixedThreadPool(senders);
+            long start = System.nanoTime();
+            try {
+                List<Future<?>> deliveries = new ArrayList<>();
+                for (int sender = 0; sender < senders; sender++) {
+                    int senderNumber = sender;
+                    deliveries.add(executor.submit(() -> {
+                        List<String> recipients = new ArrayList<>();
+                        List<String> letters = new ArrayList<>();
+                        for (int i = 0; i < lettersPerSender; i++) {
+                            String recipient = "user." + senderNumber + "." + i + "@example.com";
+                            recipients.add(recipient);
+                            letters.add(letter(recipient, "Letter " + i));
+                        }
+                        sendLetters(boundedServer.getSmtpPort(), "noreply@skarb.ua", recipients, letters);
+                        return null;
+                    }));
+                }
+                for (Future<?> delivery : deliveries) {
+                    delivery.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            logger.info("Delivered {} letters over {} connections in {} ms.", senders * lettersPerSender, senders, (System.nanoTime() - start) / 1_000_000);
+
+            MailStore store = boundedServer.getStore();
+            assertEquals(100, store.size(), "The mailbox should keep only the newest 100 letters.");
+            MailStore.StoredMail newest = store.findAll().get(0);
+            assertEquals(1, boundedClient.search(newest.getRecipients().get(0)).size(), "The newest letter should be found by its recipient.");
+            assertTrue(store.findByRecipient("user.0.0@example.com").isEmpty() && store.findByRecipient("user.1.0@example.com").isEmpty(),
+                    "The first letters should have been evicted.");
+        }
+    }
+
+    private static String letter(String recipient, String subject) {
+        return "From: noreply@skarb.ua\r\nTo: " + recipient + "\r\nSubject: " + subject + "\r\nContent-Type: text/plain; charset=UTF-8\r\n\r\n.Body of " + subject + "\r\n";
+    }
+
+    private static void sendLetters(String sender, List<String> recipients, List<String> letters) throws IOException {
+        sendLetters(mailServer.getSmtpPort(), sender, recipients, letters);
+    }
+
+    /**
+     * Delivers the letters, letter i to recipient i, over one SMTP connection.
+     */
+    private static void sendLetters(int port, String sender, List<String> recipients, List<String> letters) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = socket.getOutputStream()) {
+            expectReply(in, "220");
+            command(out, in, "EHLO localhost", "250");
+            for (int i = 0; i < letters.size(); i++) {
+                command(out, in, "MAIL FROM:<" + sender + ">", "250");
+                command(out, in, "RCPT TO:<" + recipients.get(i) + ">", "250");
+                command(out, in, "DATA", "354");
+                StringBuilder data = new StringBuilder();
+                for (String line : letters.get(i).split("\r\n")) {
+                    data.append(line.startsWith(".") ? "." + line : line).append("\r\n");
+                }
+                command(out, in, data + ".", "250");
+            }
+            command(out, in, "QUIT", "221");
+        }
+    }
+
+    private static void command(OutputStream out, BufferedReader in, String command, String expectedCode) throws IOException {
+        out.write((command + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        expectReply(in, expectedCode);
+    }
+
+    private static void expectReply(BufferedReader in, String expectedCode) throws IOException {
+        String line = in.readLine();
+        while (line != null && line.length() > 3 && line.charAt(3) == '-') {
+            line = in.readLine();
+        }
+        assertNotNull(line, "The SMTP server closed the connection.");
+        assertTrue(line.startsWith(expectedCode), "Expected SMTP reply " + expectedCode + " but got: " + line);
+    }
+}
@@ -2,12 +2,11 @@ package tests;
 
 import io.qameta.allure.Description;
 import io.qameta.allure.Severity;
-import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-
-import java.io.IOException;
-import java.util.Properties;
+import utils.DriverSetUp;
+import utils.TestConfiguration;
 
 import static com.codeborne.selenide.Selenide.open;
 import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
@@ -18,23 +17,20 @@ import static utils.ScreenshotMethods.attachScreenshotToAllureReport;
 
 public class FirefoxTest {
 
-    private static Properties properties;
-
-    @BeforeAll
-    public static void setUp() throws IOException {
-        utils.ReadPropertiesFileMethod.readProperties("src/test/resources/testdata/config.properties");
-        properties = utils.ReadPropertiesFileMethod.getProperties();
-    }
-
     @Test
     @DisplayName("Open Firefox browser and go to specified url")
     @Description("This test attempts to open Firefox browser and go to specified url.")
     @Severity(CRITICAL)
     public void testFirefox() {
-        String url = properties.getProperty("URL");
-        open(url);
+        String url = TestConfiguration.get().getLoginPageUrl();
         firefoxSetUp();
+        open(url);
         assertTrue(getWebDriver().getCurrentUrl().contains("login"));
         attachScreenshotToAllureReport("Screenshot");
     }
+
+    @AfterAll
+    public static void tearDown() {
+        DriverSetUp.tearDown();
+    }
 }
@@ -14,19 +14,17 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import pageobjects.NGO_RegistrationPage;
 import pageobjects.SkarbHomePage;
+import utils.TestConfiguration;
 import utils.WebElementUtils;
-import java.io.IOException;
+import extensions.BrowserSessionExtension;
 
-import static com.codeborne.selenide.Condition.enabled;
-import static com.codeborne.selenide.Condition.visible;
 import static com.codeborne.selenide.Selenide.$;
 import static com.codeborne.selenide.Selenide.page;
 import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
 import static io.qameta.allure.SeverityLevel.CRITICAL;
 import static org.junit.jupiter.api.Assertions.*;
-import static utils.DriverSetUp.chromeSetUp;
 
-@ExtendWith(InstancioExtension.class)
+@ExtendWith({InstancioExtension.class, BrowserSessionExtension.class})
 
 public class NGOregistrationFormPositiveTest {
 
@@ -35,15 +33,14 @@ public class NGOregistrationFormPositiveTest {
     NGO_RegistrationPage obgNGO_RegistrationPage;
 
     @BeforeAll
-    public static void setUp() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
-        chromeSetUp();
+    public static void setUp() {
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
     }
 
     @BeforeEach
     @Step("Navigating to initial webpage")
-    public void navigateToInitialWebPage() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
+    public void navigateToInitialWebPage() {
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
         obgNGO_RegistrationPage = page(NGO_RegistrationPage.class);
         SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
         objSkarbHomePage.clickOnSelectWebSiteLanguage()
@@ -60,20 +57,7 @@ public class NGOregistrationFormPositiveTest {
     public void verifyInitialWebPageLoad() {
         assertAll("Checking the initial loading of the web page",
                 () -> assertTrue(getWebDriver().getCurrentUrl().contains("registration/organizations"),"URL should contain text registration/volunteers"),
-                () -> obgNGO_RegistrationPage.getFirstNameInput().shouldBe(visible),
-                () -> obgNGO_RegistrationPage.getLastNameInput().shouldBe(visible),
-                () -> obgNGO_RegistrationPage.getGenderField().shouldBe(enabled),
-                () -> obgNGO_RegistrationPage.getEmailInput().shouldBe(visible),
-                () -> obgNGO_RegistrationPage.getPhoneNumberInput().shouldBe(visible),
-                () -> obgNGO_RegistrationPage.getPasswordInput().shouldBe(visible),
-                () -> obgNGO_RegistrationPage.getConfPasswordInput().shouldBe(visible),
-                () -> obgNGO_RegistrationPage.getOrganizationNameInput().shouldBe(visible),
-                () -> obgNGO_RegistrationPage.getSelectCategoryField().shouldBe(enabled),
-                () -> obgNGO_RegistrationPage.getPositionInput().shouldBe(visible),
-                () -> obgNGO_RegistrationPage.getOrganizationLinkInput().shouldBe(visible),
-                () -> obgNGO_RegistrationPage.getAboutInput().shouldBe(visible),
-                () -> obgNGO_RegistrationPage.getOrganizationRegistrationUrlInput().shouldBe(visible),
-                () -> obgNGO_RegistrationPage.getSubmitButton().shouldBe(visible)
+                () -> obgNGO_RegistrationPage.verifyRegistrationFormLoaded()
         );
         logger.info("Initial WebPage is loaded successfully.");
     }
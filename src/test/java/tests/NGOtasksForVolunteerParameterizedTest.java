@@ -1,9 +1,7 @@
 package tests;
 
-import com.codeborne.selenide.Selenide;
 import io.qameta.allure.Description;
 import io.qameta.allure.Severity;
-import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.params.provider.CsvFileSource;
 import pageobjects.*;
@@ -13,39 +11,29 @@ import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
-
-import java.io.IOException;
-import java.util.Properties;
+import utils.SessionVault;
+import utils.TestConfiguration;
+import extensions.BrowserSessionExtension;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import static com.codeborne.selenide.Condition.*;
 import static com.codeborne.selenide.Selenide.page;
 import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
 import static io.qameta.allure.SeverityLevel.CRITICAL;
 import static org.junit.jupiter.api.Assertions.*;
-import static utils.DriverSetUp.chromeSetUp;
 
+@ExtendWith(BrowserSessionExtension.class)
 public class NGOtasksForVolunteerParameterizedTest {
 
-    static SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
+    SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
     CreatingNewTaskForVolunteerPage objCreatingNewTaskForVolunteerPage = page(CreatingNewTaskForVolunteerPage.class);
 
     private static final Logger logger = LogManager.getLogger(NGOtasksForVolunteerParameterizedTest.class);
 
     @BeforeAll
-    public static void setUpAndLogIn() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
-        chromeSetUp();
-        objSkarbHomePage.clickOnSelectWebSiteLanguage()
-                        .clickOnSelectUkrLanguage()
-                        .clickOnSignInButtonOnHomePage();
-
-        utils.ReadPropertiesFileMethod.readProperties("src/test/resources/testdata/config.properties");
-        Properties properties = utils.ReadPropertiesFileMethod.getProperties();
-        LoginPage objLoginPage = page(LoginPage.class);
-        objLoginPage.checkLoadingOfLoginPage()
-                    .enterLogin(properties.getProperty("login_NGOuser"))
-                    .enterPassword(properties.getProperty("password_NGOuser"))
-                    .clickOnSignInButton();
+    public static void setUpAndLogIn() {
+        TestConfiguration configuration = TestConfiguration.get();
+        SessionVault.getInstance().signIn(configuration.getNgoUserLogin(), configuration.getNgoUserPassword());
 
         logger.info("Set up the driver, navigated to initial webpage.User logged in.");
     }
@@ -142,12 +130,4 @@ public class NGOtasksForVolunteerParameterizedTest {
         objCreatingNewTaskForVolunteerPage.checkContentOfPublishedTask(taskName, taskDescription, volunteerBenefit);
         logger.info("Created task is present in the list of published tasks and contains given data.");
     }
-
-    @AfterAll
-    public static void signOutAndTearDown() {
-        NGO_ProfilePage objNGO_ProfilePage = page(NGO_ProfilePage.class);
-        objNGO_ProfilePage.clickOnSignOutButton()
-                          .checkMessageAboutSuccessfulLogout();
-        logger.info("The user is logged out.");
-    }
 }
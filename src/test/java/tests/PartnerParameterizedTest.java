@@ -14,14 +14,16 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import pageobjects.PartnerRegistrationPage;
 import pageobjects.SkarbHomePage;
+import utils.TestConfiguration;
 import utils.WebElementUtils;
-import java.io.IOException;
+import extensions.BrowserSessionExtension;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import static com.codeborne.selenide.Selenide.$;
 import static com.codeborne.selenide.Selenide.page;
 import static io.qameta.allure.SeverityLevel.CRITICAL;
-import static utils.DriverSetUp.chromeSetUp;
 
+@ExtendWith(BrowserSessionExtension.class)
 public class PartnerParameterizedTest {
 
     PartnerRegistrationPage objPartnerRegistrationPage;
@@ -29,15 +31,14 @@ public class PartnerParameterizedTest {
     private static final Logger logger = LogManager.getLogger(PartnerParameterizedTest.class);
 
     @BeforeAll
-    public static void setUp() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
-        chromeSetUp();
+    public static void setUp() {
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
     }
 
     @BeforeEach
     @Step("Navigating to initial webpage")
-    public void navigateToInitialWebPage() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
+    public void navigateToInitialWebPage() {
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
         objPartnerRegistrationPage = page(PartnerRegistrationPage.class);
         SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
         objSkarbHomePage.clickOnSelectWebSiteLanguage()
@@ -13,17 +13,16 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import pageobjects.PartnerRegistrationPage;
 import pageobjects.SkarbHomePage;
+import utils.TestConfiguration;
 import utils.WebElementUtils;
-import java.io.IOException;
-import java.util.Properties;
+import extensions.BrowserSessionExtension;
 
 import static com.codeborne.selenide.Selenide.$;
 import static com.codeborne.selenide.Selenide.page;
 import static io.qameta.allure.SeverityLevel.CRITICAL;
-import static utils.DriverSetUp.chromeSetUp;
 import static utils.ScreenshotMethods.attachScreenshotToAllureReport;
 
-@ExtendWith(InstancioExtension.class)
+@ExtendWith({InstancioExtension.class, BrowserSessionExtension.class})
 
 public class PartnerRegistrationFormNegativeTests {
 
@@ -34,15 +33,14 @@ public class PartnerRegistrationFormNegativeTests {
     Partner user = Instancio.create(Partner.getPartnerModel());
 
     @BeforeAll
-    public static void setUp() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
-        chromeSetUp();
+    public static void setUp() {
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
     }
 
     @BeforeEach
     @Step("Navigating to initial webpage")
-    public void navigateToInitialWebPage() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
+    public void navigateToInitialWebPage() {
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
         objPartnerRegistrationPage = page(PartnerRegistrationPage.class);
         SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
         objSkarbHomePage.clickOnSelectWebSiteLanguage()
@@ -148,15 +146,14 @@ public class PartnerRegistrationFormNegativeTests {
     @DisplayName("Test the form with email without @ sign")
     @Description("This test checks the form behavior when trying to register new partner with email without @ sign.")
     @Severity(CRITICAL)
-    public void verifyFormWithEmailWithoutAtSign() throws IOException {
+    public void verifyFormWithEmailWithoutAtSign() {
         logger.info("verifyFormWithEmailWithoutAtSign test started. Entering user data.");
 
-        utils.ReadPropertiesFileMethod.readProperties("src/test/resources/testdata/config.properties");
-        Properties properties = utils.ReadPropertiesFileMethod.getProperties();
+        TestConfiguration configuration = TestConfiguration.get();
         WebElementUtils.clickOnButton($(user.getGender()));
         objPartnerRegistrationPage.enterFirstName(user.getFirstName())
                 .enterLastName(user.getLastName())
-                .enterEmail(properties.getProperty("email_8"))
+                .enterEmail(configuration.getString("email_8"))
                 .enterPhoneNumber(user.getPhoneNumber())
                 .enterPassword(user.getPassword())
                 .enterConfirmPassword(user.getPassword())
@@ -208,18 +205,17 @@ public class PartnerRegistrationFormNegativeTests {
     @DisplayName("Test the form with short password")
     @Description("This test checks the form behavior when trying to register new partner with short password.")
     @Severity(CRITICAL)
-    public void verifyFormWithShortPassword() throws IOException {
+    public void verifyFormWithShortPassword() {
         logger.info("verifyFormWithShortPassword test started. Entering user data.");
 
-        utils.ReadPropertiesFileMethod.readProperties("src/test/resources/testdata/config.properties");
-        Properties properties = utils.ReadPropertiesFileMethod.getProperties();
+        TestConfiguration configuration = TestConfiguration.get();
         WebElementUtils.clickOnButton($(user.getGender()));
         objPartnerRegistrationPage.enterFirstName(user.getFirstName())
                                 .enterLastName(user.getLastName())
                                 .enterEmail(user.getEmail())
                                 .enterPhoneNumber(user.getPhoneNumber())
-                                .enterPassword(properties.getProperty("password_9"))
-                                .enterConfirmPassword(properties.getProperty("confirmPassword_9"))
+                                .enterPassword(configuration.getString("password_9"))
+                                .enterConfirmPassword(configuration.getString("confirmPassword_9"))
                                 .enterOrganizationName(user.getOrganizationName())
                                 .selectCategory(user.getSelectCategory())
                                 .enterPosition(user.getPosition())
@@ -241,18 +237,17 @@ public class PartnerRegistrationFormNegativeTests {
     @DisplayName("Test the form with invalid 'confirm password'")
     @Description("This test checks the form behavior when trying to register new partner with invalid data in 'confirm password' field.")
     @Severity(CRITICAL)
-    public void verifyFormWithInvalidConfirmPassword() throws IOException {
+    public void verifyFormWithInvalidConfirmPassword() {
         logger.info("verifyFormWithInvalidConfirmPassword test started. Entering user data.");
 
-        utils.ReadPropertiesFileMethod.readProperties("src/test/resources/testdata/config.properties");
-        Properties properties = utils.ReadPropertiesFileMethod.getProperties();
+        TestConfiguration configuration = TestConfiguration.get();
         WebElementUtils.clickOnButton($(user.getGender()));
         objPartnerRegistrationPage.enterFirstName(user.getFirstName())
                                 .enterLastName(user.getLastName())
                                 .enterEmail(user.getEmail())
                                 .enterPhoneNumber(user.getPhoneNumber())
-                                .enterPassword(properties.getProperty("password_10"))
-                                .enterConfirmPassword(properties.getProperty("confirmPassword_10"))
+                                .enterPassword(configuration.getString("password_10"))
+                                .enterConfirmPassword(configuration.getString("confirmPassword_10"))
                                 .enterOrganizationName(user.getOrganizationName())
                                 .selectCategory(user.getSelectCategory())
                                 .enterPosition(user.getPosition())
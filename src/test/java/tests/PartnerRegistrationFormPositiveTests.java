@@ -13,20 +13,18 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import pageobjects.PartnerRegistrationPage;
 import pageobjects.SkarbHomePage;
+import utils.TestConfiguration;
 import utils.WebElementUtils;
-import java.io.IOException;
+import extensions.BrowserSessionExtension;
 
-import static com.codeborne.selenide.Condition.enabled;
-import static com.codeborne.selenide.Condition.visible;
 import static com.codeborne.selenide.Selenide.$;
 import static com.codeborne.selenide.Selenide.page;
 import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
 import static io.qameta.allure.SeverityLevel.CRITICAL;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static utils.DriverSetUp.chromeSetUp;
 
-@ExtendWith(InstancioExtension.class)
+@ExtendWith({InstancioExtension.class, BrowserSessionExtension.class})
 
 public class PartnerRegistrationFormPositiveTests {
 
@@ -35,15 +33,14 @@ public class PartnerRegistrationFormPositiveTests {
     private static final Logger logger = LogManager.getLogger(PartnerRegistrationFormPositiveTests.class);
 
     @BeforeAll
-    public static void setUp() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
-        chromeSetUp();
+    public static void setUp() {
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
     }
 
     @BeforeEach
     @Step("Navigating to initial webpage")
-    public void navigateToInitialWebPage() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
+    public void navigateToInitialWebPage() {
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
         objPartnerRegistrationPage = page(PartnerRegistrationPage.class);
         SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
         objSkarbHomePage.clickOnSelectWebSiteLanguage()
@@ -59,19 +56,7 @@ public class PartnerRegistrationFormPositiveTests {
     public void verifyInitialWebPageLoad() {
         assertAll("Checking the initial loading of the web page",
                 () -> assertTrue(getWebDriver().getCurrentUrl().contains("registration/partners"),"URL should contain text registration/volunteers"),
-                () -> objPartnerRegistrationPage.getFirstNameInput().shouldBe(visible),
-                () -> objPartnerRegistrationPage.getLastNameInput().shouldBe(visible),
-                () -> objPartnerRegistrationPage.getGenderField().shouldBe(enabled),
-                () -> objPartnerRegistrationPage.getEmailInput().shouldBe(visible),
-                () -> objPartnerRegistrationPage.getPhoneNumberInput().shouldBe(visible),
-                () -> objPartnerRegistrationPage.getPasswordInput().shouldBe(visible),
-                () -> objPartnerRegistrationPage.getConfPasswordInput().shouldBe(visible),
-                () -> objPartnerRegistrationPage.getOrganizationNameInput().shouldBe(visible),
-                () -> objPartnerRegistrationPage.getSelectCategoryField().shouldBe(enabled),
-                () -> objPartnerRegistrationPage.getPositionInput().shouldBe(visible),
-                () -> objPartnerRegistrationPage.getOrganizationLinkInput().shouldBe(visible),
-                () -> objPartnerRegistrationPage.getAboutInput().shouldBe(visible),
-                () -> objPartnerRegistrationPage.getSubmitButton().shouldBe(visible)
+                () -> objPartnerRegistrationPage.verifyRegistrationFormLoaded()
         );
         logger.debug("verifyInitialWebPageLoad test. Initial WebPage is loaded successfully.");
         logger.info("verifyInitialWebPageLoad test. Initial WebPage is loaded successfully.");
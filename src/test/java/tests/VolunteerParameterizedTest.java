@@ -16,13 +16,13 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import pageobjects.SkarbHomePage;
 import pageobjects.VolunteerRegistrationPage;
-import java.io.IOException;
+import utils.TestConfiguration;
+import extensions.BrowserSessionExtension;
 
 import static com.codeborne.selenide.Selenide.page;
 import static io.qameta.allure.SeverityLevel.CRITICAL;
-import static utils.DriverSetUp.chromeSetUp;
 
-@ExtendWith(InstancioExtension.class)
+@ExtendWith({InstancioExtension.class, BrowserSessionExtension.class})
 
 public class VolunteerParameterizedTest {
 
@@ -30,15 +30,14 @@ public class VolunteerParameterizedTest {
     private static final Logger logger = LogManager.getLogger(VolunteerParameterizedTest.class);
 
     @BeforeAll
-    public static void setUp() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
-        chromeSetUp();
+    public static void setUp() {
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
     }
 
     @BeforeEach
     @Step("Navigating to initial webpage")
-    public void navigateToInitialWebPage() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
+    public void navigateToInitialWebPage() {
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
         objVolunteerRegistrationPage = page(VolunteerRegistrationPage.class);
         SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
         objSkarbHomePage.clickOnSelectWebSiteLanguage()
@@ -12,16 +12,15 @@ import pageobjects.SkarbHomePage;
 import pageobjects.VolunteerRegistrationPage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import java.io.IOException;
-import java.util.Properties;
 import io.qameta.allure.Step;
+import utils.TestConfiguration;
+import extensions.BrowserSessionExtension;
 
 import static com.codeborne.selenide.Selenide.page;
 import static io.qameta.allure.SeverityLevel.CRITICAL;
-import static utils.DriverSetUp.chromeSetUp;
 import static utils.ScreenshotMethods.attachScreenshotToAllureReport;
 
-@ExtendWith(InstancioExtension.class)
+@ExtendWith({InstancioExtension.class, BrowserSessionExtension.class})
 
 public class VolunteerRegistrationFormNegativeTests {
 
@@ -32,15 +31,14 @@ public class VolunteerRegistrationFormNegativeTests {
     Volunteer user = Instancio.create(Volunteer.getUserModel());
 
     @BeforeAll
-    public static void setUp() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
-        chromeSetUp();
+    public static void setUp() {
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
     }
 
     @BeforeEach
     @Step("Navigating to initial webpage")
-    public void navigateToInitialWebPage() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
+    public void navigateToInitialWebPage() {
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
         objVolunteerRegistrationPage = page(VolunteerRegistrationPage.class);
         SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
         objSkarbHomePage.clickOnSelectWebSiteLanguage()
@@ -129,14 +127,13 @@ public class VolunteerRegistrationFormNegativeTests {
     @DisplayName("Test the form with email without @ sign")
     @Description("This test checks the form behavior when trying to register new volunteer with email without @ sign.")
     @Severity(CRITICAL)
-    public void verifyFormWithEmailWithoutAtSign() throws IOException {
+    public void verifyFormWithEmailWithoutAtSign() {
         logger.info("verifyFormWithEmailWithoutAtSign test started. Entering user data.");
 
-        utils.ReadPropertiesFileMethod.readProperties("src/test/resources/testdata/config.properties");
-        Properties properties = utils.ReadPropertiesFileMethod.getProperties();
+        TestConfiguration configuration = TestConfiguration.get();
         objVolunteerRegistrationPage.enterFirstName(user.getFirstName())
                                 .enterLastName(user.getLastName())
-                                .enterEmail(properties.getProperty("email_5"))
+                                .enterEmail(configuration.getString("email_5"))
                                 .enterPhoneNumber(user.getPhoneNumber())
                                 .enterPassword(user.getPassword())
                                 .enterConfirmPassword(user.getPassword())
@@ -181,17 +178,16 @@ public class VolunteerRegistrationFormNegativeTests {
     @DisplayName("Test the form with short password")
     @Description("This test checks the form behavior when trying to register new volunteer with short password.")
     @Severity(CRITICAL)
-    public void verifyFormWithShortPassword() throws IOException {
+    public void verifyFormWithShortPassword() {
         logger.info("verifyFormWithShortPassword test started. Entering user data.");
 
-        utils.ReadPropertiesFileMethod.readProperties("src/test/resources/testdata/config.properties");
-        Properties properties = utils.ReadPropertiesFileMethod.getProperties();
+        TestConfiguration configuration = TestConfiguration.get();
         objVolunteerRegistrationPage.enterFirstName(user.getFirstName())
                                 .enterLastName(user.getLastName())
                                 .enterEmail(user.getEmail())
                                 .enterPhoneNumber(user.getPhoneNumber())
-                                .enterPassword(properties.getProperty("password_6"))
-                                .enterConfirmPassword(properties.getProperty("confirmPassword_6"))
+                                .enterPassword(configuration.getString("password_6"))
+                                .enterConfirmPassword(configuration.getString("confirmPassword_6"))
                                 .enterAbout(user.getAbout())
                                 .selectCategory(user.getSelectCategory())
                                 .clickOnSubmitButton();
@@ -208,17 +204,16 @@ public class VolunteerRegistrationFormNegativeTests {
     @DisplayName("Test the form with invalid 'confirm password'")
     @Description("This test checks the form behavior when trying to register new volunteer with invalid data in 'confirm password' field.")
     @Severity(CRITICAL)
-    public void verifyFormWithInvalidConfirmPassword() throws IOException {
+    public void verifyFormWithInvalidConfirmPassword() {
         logger.info("verifyFormWithInvalidConfirmPassword test started. Entering user data.");
 
-        utils.ReadPropertiesFileMethod.readProperties("src/test/resources/testdata/config.properties");
-        Properties properties = utils.ReadPropertiesFileMethod.getProperties();
+        TestConfiguration configuration = TestConfiguration.get();
         objVolunteerRegistrationPage.enterFirstName(user.getFirstName())
                                 .enterLastName(user.getLastName())
                                 .enterEmail(user.getEmail())
                                 .enterPhoneNumber(user.getPhoneNumber())
-                                .enterPassword(properties.getProperty("password_7"))
-                                .enterConfirmPassword(properties.getProperty("confirmPassword_7"))
+                                .enterPassword(configuration.getString("password_7"))
+                                .enterConfirmPassword(configuration.getString("confirmPassword_7"))
                                 .enterAbout(user.getAbout())
                                 .selectCategory(user.getSelectCategory())
                                 .clickOnSubmitButton();
@@ -10,21 +10,19 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import pageobjects.SkarbHomePage;
 import pageobjects.VolunteerRegistrationPage;
-import java.io.IOException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-
-import static com.codeborne.selenide.Condition.*;
 import static com.codeborne.selenide.Selenide.page;
 import static com.codeborne.selenide.WebDriverRunner.getWebDriver;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static utils.DriverSetUp.chromeSetUp;
 import static io.qameta.allure.SeverityLevel.*;
 import io.qameta.allure.Step;
+import utils.TestConfiguration;
+import extensions.BrowserSessionExtension;
 
-@ExtendWith(InstancioExtension.class)
+@ExtendWith({InstancioExtension.class, BrowserSessionExtension.class})
 
 public class VolunteerRegistrationFormPositiveTests {
 
@@ -33,15 +31,14 @@ public class VolunteerRegistrationFormPositiveTests {
     private VolunteerRegistrationPage objVolunteerRegistrationPage;
 
     @BeforeAll
-    public static void setUp() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
-        chromeSetUp();
+    public static void setUp() {
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
     }
 
     @BeforeEach
     @Step("Navigating to initial webpage")
-    public void navigateToInitialWebPage() throws IOException {
-        Selenide.open(utils.ReadPropertiesFileMethod.readHomePageUrlInConfigFile());
+    public void navigateToInitialWebPage() {
+        Selenide.open(TestConfiguration.get().getSkarbHomePageUrl());
         objVolunteerRegistrationPage = page(VolunteerRegistrationPage.class);
         SkarbHomePage objSkarbHomePage = page(SkarbHomePage.class);
         objSkarbHomePage.clickOnSelectWebSiteLanguage()
@@ -56,15 +53,7 @@ public class VolunteerRegistrationFormPositiveTests {
     public void verifyInitialWebPageLoad() {
         assertAll("Checking the initial loading of the web page",
                 () -> assertTrue(getWebDriver().getCurrentUrl().contains("registration/volunteers"), "URL should contain text registration/volunteers"),
-                () -> objVolunteerRegistrationPage.getFirstNameInput().shouldBe(visible),
-                () -> objVolunteerRegistrationPage.getLastNameInput().shouldBe(visible),
-                () -> objVolunteerRegistrationPage.getEmailInput().shouldBe(visible),
-                () -> objVolunteerRegistrationPage.getPhoneNumberInput().shouldBe(visible),
-                () -> objVolunteerRegistrationPage.getPasswordInput().shouldBe(visible),
-                () -> objVolunteerRegistrationPage.getConfPasswordInput().shouldBe(visible),
-                () -> objVolunteerRegistrationPage.getAboutInput().shouldBe(visible),
-                () -> objVolunteerRegistrationPage.getSelectCategoryField().shouldBe(enabled),
-                () -> objVolunteerRegistrationPage.getSubmitButton().shouldBe(visible)
+                () -> objVolunteerRegistrationPage.verifyRegistrationFormLoaded()
         );
         logger.debug("verifyInitialWebPageLoad test. Initial WebPage is loaded successfully.");
         logger.info("verifyInitialWebPageLoad test. Initial WebPage is loaded successfully.");